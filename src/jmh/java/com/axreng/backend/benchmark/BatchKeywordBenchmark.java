@@ -0,0 +1,62 @@
+package com.axreng.backend.benchmark;
+
+import com.axreng.backend.util.KeywordMatcher;
+import com.axreng.backend.util.MultiKeywordMatcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks matching a batch of keywords against one page.
+ * <p>
+ * {@code onePassPerKeyword} runs a {@link KeywordMatcher} per keyword, as separate crawls would;
+ * {@code ahoCorasick} evaluates all of them in a single pass with a {@link MultiKeywordMatcher}.
+ * </p>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BatchKeywordBenchmark {
+
+    @Param({"5", "20", "50"})
+    public int keywords;
+
+    private String html;
+    private List<KeywordMatcher> matchers;
+    private MultiKeywordMatcher multiMatcher;
+
+    @Setup
+    public void setUp() {
+        html = SyntheticPages.page(65536, 12, 3);
+
+        var terms = new ArrayList<String>();
+        for (int i = 0; i < keywords; i++)
+            terms.add(i % 5 == 0 ? "linux" + i : "term" + i + "x");
+
+        matchers = new ArrayList<>();
+        terms.forEach(term -> matchers.add(new KeywordMatcher(term)));
+        multiMatcher = new MultiKeywordMatcher(terms);
+    }
+
+    @Benchmark
+    public int onePassPerKeyword() {
+        int found = 0;
+        for (KeywordMatcher matcher : matchers)
+            if (matcher.matches(html))
+                found++;
+        return found;
+    }
+
+    @Benchmark
+    public BitSet ahoCorasick() {
+        return multiMatcher.matches(html);
+    }
+}
@@ -0,0 +1,65 @@
+package com.axreng.backend.benchmark;
+
+import com.axreng.backend.service.SiteQueryProcessorService;
+import com.axreng.backend.util.KeywordMatcher;
+import com.axreng.backend.util.PageScanner;
+import com.axreng.backend.util.UrlFetcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end crawl benchmarks against an embedded {@link SyntheticSite}.
+ * <p>
+ * {@code crawl} measures the time of a complete search ({@code MAX_PAGES} pages) through
+ * {@link SiteQueryProcessorService}, including fetching, scanning, link resolution and frontier management.
+ * {@code fetchAndScan} measures a single page fetch streamed into the page scanner.
+ * Per-host politeness limits are lifted, since the synthetic site is local, and the shared page cache is
+ * disabled, so that every iteration fetches and scans its pages instead of reading them from memory.
+ * </p>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dorg.slf4j.simpleLogger.defaultLogLevel=warn",
+        "-DHOST_REQUESTS_PER_SECOND=0", "-DHOST_MAX_CONCURRENCY=0", "-DPAGE_CACHE_MAX_BYTES=0"})
+public class CrawlThroughputBenchmark {
+
+    @Param({"0", "5"})
+    public int latencyMs;
+
+    private SyntheticSite site;
+    private PageScanner scanner;
+    private final Executor direct = Runnable::run;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        site = new SyntheticSite(500, 20, 16 * 1024, latencyMs);
+        scanner = new PageScanner(new KeywordMatcher(SyntheticSite.KEYWORD));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        site.close();
+    }
+
+    @Benchmark
+    public int crawl() {
+        var service = new SiteQueryProcessorService(SyntheticSite.KEYWORD, site.startUrl());
+        var id = service.startSearchAsync().getId();
+        service.completion().join();
+        return SiteQueryProcessorService.getSearchResult(id).getUrls().size();
+    }
+
+    @Benchmark
+    public PageScanner.Result fetchAndScan() {
+        return UrlFetcher.fetchAsync(site.pageUrl(1), scanner::scan, direct).join();
+    }
+}
@@ -0,0 +1,80 @@
+package com.axreng.backend.benchmark;
+
+import com.axreng.backend.service.CrawlFrontier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks frontier deduplication: offering a page's worth of links to a frontier that already
+ * holds {@code frontierSize} queued and visited URLs, half of the offered links being duplicates.
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FrontierDedupBenchmark {
+
+    private static final int LINKS_PER_PAGE = 200;
+
+    @Param({"100", "1000", "10000"})
+    public int frontierSize;
+
+    private String[] offered;
+    private Queue<String> queue;
+    private Set<String> visited;
+    private CrawlFrontier frontier;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        queue = new ConcurrentLinkedQueue<>();
+        visited = Collections.synchronizedSet(new HashSet<>());
+
+        frontier = new CrawlFrontier();
+
+        for (int i = 0; i < frontierSize; i++) {
+            (i % 2 == 0 ? queue : visited).add(url(i));
+            frontier.offer(url(i));
+        }
+
+        offered = new String[LINKS_PER_PAGE];
+        for (int i = 0; i < LINKS_PER_PAGE; i++)
+            offered[i] = url(i % 2 == 0 ? frontierSize - 1 - i : frontierSize + i);
+    }
+
+    /**
+     * The original check: a synchronized visited set plus a linear scan of the queue.
+     */
+    @Benchmark
+    public int queueContains() {
+        for (String link : offered)
+            if (!visited.contains(link) && !queue.contains(link))
+                queue.add(link);
+
+        return queue.size();
+    }
+
+    /**
+     * A single atomic add-if-absent on the frontier's seen set.
+     */
+    @Benchmark
+    public int crawlFrontier() {
+        for (String link : offered)
+            frontier.offer(link);
+
+        return frontier.size();
+    }
+
+    private static String url(int i) {
+        return "https://ibm.com/docs/htmlman" + (i % 8) + "/page" + i + ".html";
+    }
+}
@@ -0,0 +1,63 @@
+package com.axreng.backend.benchmark;
+
+import com.axreng.backend.util.KeywordMatcher;
+import com.axreng.backend.util.PageScanner;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the keyword check performed for every crawled page.
+ * <p>
+ * {@code lowerCaseContains} is the original check from {@code processUrl}; {@code keywordMatcher} is the
+ * streaming automaton on an already decoded page, and {@code pageScan} is the full streaming pass
+ * (decoding, matching and link extraction) that the crawler runs on each response body.
+ * </p>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class KeywordMatchBenchmark {
+
+    @Param({"16384", "1048576"})
+    public int pageSize;
+
+    @Param({"linux", "nonexistent"})
+    public String keyword;
+
+    private String html;
+    private byte[] bytes;
+    private KeywordMatcher matcher;
+    private PageScanner scanner;
+
+    @Setup
+    public void setUp() {
+        html = SyntheticPages.page(pageSize, 12, 3);
+        bytes = html.getBytes(StandardCharsets.UTF_8);
+        matcher = new KeywordMatcher(keyword);
+        scanner = new PageScanner(matcher);
+    }
+
+    @Benchmark
+    public boolean lowerCaseContains() {
+        return html.toLowerCase().contains(keyword);
+    }
+
+    @Benchmark
+    public boolean keywordMatcher() {
+        return matcher.matches(html);
+    }
+
+    @Benchmark
+    public PageScanner.Result pageScan() throws IOException {
+        return scanner.scan(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8);
+    }
+}
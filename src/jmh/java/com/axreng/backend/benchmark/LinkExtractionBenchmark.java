@@ -0,0 +1,70 @@
+package com.axreng.backend.benchmark;
+
+import com.axreng.backend.util.LinkTokenizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares link extraction with the regular expression the crawler used to run over whole pages
+ * against the single-pass {@link LinkTokenizer}.
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LinkExtractionBenchmark {
+
+    /**
+     * The expression previously held in {@code Constants.LINK_PATTERN}.
+     */
+    private static final Pattern LINK_PATTERN = Pattern.compile("<a[^>]+href=\"(.*?)\"");
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    @Param({"16384", "262144", "2097152"})
+    public int pageSize;
+
+    private String html;
+    private char[] chars;
+
+    @Setup
+    public void setUp() {
+        html = SyntheticPages.page(pageSize, 12, 42);
+        chars = html.toCharArray();
+    }
+
+    @Benchmark
+    public Set<String> regex() {
+        Set<String> hrefs = new LinkedHashSet<>();
+        Matcher matcher = LINK_PATTERN.matcher(html);
+
+        while (matcher.find())
+            hrefs.add(matcher.group(1));
+
+        return hrefs;
+    }
+
+    @Benchmark
+    public Set<String> tokenizer() {
+        return LinkTokenizer.tokenize(html).getHrefs();
+    }
+
+    @Benchmark
+    public Set<String> tokenizerChunked() {
+        var tokenizer = new LinkTokenizer();
+
+        for (int offset = 0; offset < chars.length; offset += CHUNK_SIZE)
+            tokenizer.feed(chars, offset, Math.min(CHUNK_SIZE, chars.length - offset));
+
+        return tokenizer.getHrefs();
+    }
+}
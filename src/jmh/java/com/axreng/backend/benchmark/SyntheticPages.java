@@ -0,0 +1,83 @@
+package com.axreng.backend.benchmark;
+
+import java.util.Random;
+
+/**
+ * Generates deterministic HTML pages that resemble the documentation sites the crawler targets:
+ * navigation blocks, paragraphs of text, tables and a mix of link styles.
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class SyntheticPages {
+
+    private static final String[] WORDS = {
+            "linux", "kernel", "manual", "page", "security", "option", "file", "system", "process",
+            "command", "return", "value", "error", "section", "description", "example", "user", "group"
+    };
+
+    /**
+     * Builds a page of roughly the requested size.
+     *
+     * @param targetChars  Approximate number of characters.
+     * @param linksPerKb   Number of links per 1024 characters.
+     * @param seed         Seed for the generator, so every run sees the same page.
+     * @return The HTML page.
+     */
+    public static String page(int targetChars, int linksPerKb, long seed) {
+        var random = new Random(seed);
+        var html = new StringBuilder(targetChars + 1024);
+
+        html.append("<!DOCTYPE html><html><head><title>Synthetic page</title>")
+                .append("<link rel=\"stylesheet\" href=\"/style.css\">")
+                .append("<link rel=\"canonical\" href=\"https://ibm.com/docs/page.html\">")
+                .append("</head><body><nav class=\"top\">");
+
+        int link = 0;
+
+        while (html.length() < targetChars) {
+            int blockEnd = html.length() + 1024;
+            int links = 0;
+
+            html.append("<div class=\"section\"><p>");
+
+            while (html.length() < blockEnd) {
+                if (links < linksPerKb && random.nextInt(4) == 0) {
+                    appendLink(html, random, link++);
+                    links++;
+                } else {
+                    html.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+                }
+
+                if (random.nextInt(40) == 0)
+                    html.append("</p><p><abbr title=\"abbreviation\">abbr</abbr> ");
+            }
+
+            html.append("</p></div>\n");
+        }
+
+        return html.append("</nav></body></html>").toString();
+    }
+
+    private static void appendLink(StringBuilder html, Random random, int index) {
+        switch (random.nextInt(5)) {
+            case 0:
+                html.append("<a href=\"/htmlman").append(index % 8).append("/page").append(index).append(".html\">");
+                break;
+            case 1:
+                html.append("<a class=\"nav-link\" title=\"Go to page ").append(index)
+                        .append("\" href=\"page").append(index).append(".html#section\">");
+                break;
+            case 2:
+                html.append("<a href=\"https://ibm.com/docs/").append(index).append("?lang=en&amp;v=2\">");
+                break;
+            case 3:
+                html.append("<a name=\"anchor").append(index).append("\">");
+                break;
+            default:
+                html.append("<a target=_blank href='../other/").append(index).append(".html'>");
+        }
+
+        html.append("link ").append(index).append("</a> ");
+    }
+}
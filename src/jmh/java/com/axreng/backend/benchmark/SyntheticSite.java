@@ -0,0 +1,120 @@
+package com.axreng.backend.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP server that serves a deterministic graph of HTML pages.
+ * <p>
+ * Page {@code n} is served at {@code /page/n.html} and links to {@code linksPerPage} other pages of the
+ * graph, so a crawl starting at page 0 can reach every page. One page in three contains the word
+ * "linux". Pages are rendered once at startup so the server adds as little noise as possible.
+ * </p>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class SyntheticSite implements AutoCloseable {
+
+    public static final String KEYWORD = "linux";
+
+    static {
+        // Without TCP_NODELAY the JDK server's separate header and body writes hit delayed ACKs (~40ms per page).
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final byte[][] pages;
+
+    /**
+     * Starts the server on a random local port.
+     *
+     * @param pageCount    Number of pages in the graph.
+     * @param linksPerPage Number of outgoing links per page.
+     * @param pageSize     Approximate size of each page, in characters.
+     * @param latencyMs    Artificial delay added to each response, to imitate a remote site.
+     * @throws IOException If the server cannot be started.
+     */
+    public SyntheticSite(int pageCount, int linksPerPage, int pageSize, int latencyMs) throws IOException {
+        this.pages = new byte[pageCount][];
+
+        for (int n = 0; n < pageCount; n++)
+            pages[n] = render(n, pageCount, linksPerPage, pageSize).getBytes(StandardCharsets.UTF_8);
+
+        this.executor = Executors.newFixedThreadPool(32);
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+        this.server.setExecutor(executor);
+        this.server.createContext("/page/", exchange -> {
+            var path = exchange.getRequestURI().getPath();
+            int n;
+
+            try {
+                n = Integer.parseInt(path.substring("/page/".length(), path.length() - ".html".length()));
+            } catch (RuntimeException e) {
+                n = -1;
+            }
+
+            if (latencyMs > 0) {
+                try {
+                    Thread.sleep(latencyMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            if (n < 0 || n >= pages.length) {
+                exchange.sendResponseHeaders(404, -1);
+            } else {
+                exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+                exchange.sendResponseHeaders(200, pages[n].length);
+                exchange.getResponseBody().write(pages[n]);
+            }
+
+            exchange.close();
+        });
+        this.server.start();
+    }
+
+    /**
+     * @return The URL of the first page of the graph.
+     */
+    public String startUrl() {
+        return pageUrl(0);
+    }
+
+    /**
+     * @param n The page number.
+     * @return The absolute URL of the page.
+     */
+    public String pageUrl(int n) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/page/" + n + ".html";
+    }
+
+    private static String render(int n, int pageCount, int linksPerPage, int pageSize) {
+        var html = new StringBuilder(SyntheticPages.page(pageSize, 0, n));
+        var links = new StringBuilder("<ul>");
+
+        for (int i = 1; i <= linksPerPage; i++)
+            links.append("<li><a href=\"/page/").append((n * 7 + i) % pageCount).append(".html\">next</a></li>");
+
+        links.append("</ul>");
+
+        if (n % 3 == 0)
+            links.append("<p>This page mentions Linux.</p>");
+
+        int body = html.indexOf("<body>") + "<body>".length();
+        return html.insert(body, links).toString();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,82 @@
+package com.axreng.backend.benchmark;
+
+import com.axreng.backend.util.CrawlScope;
+import com.axreng.backend.util.LinkTokenizer;
+import com.axreng.backend.util.SearchIdGenerator;
+import com.axreng.backend.util.UriUtil;
+import com.axreng.backend.util.UrlCanonicalizer;
+import com.axreng.backend.util.UrlValidator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.net.URI;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the per-page and per-link URL work of a crawl: extracting and resolving the links of a
+ * page, validating a single link against the crawl domain (per call and with a precompiled scope), canonicalizing a resolved link and generating
+ * search IDs.
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UrlProcessingBenchmark {
+
+    private static final String BASE_URL = "https://ibm.com";
+    private static final String PAGE_URL = "https://ibm.com/docs/htmlman1/index.html";
+
+    private final UriUtil uriUtil = new UriUtil();
+    private final SearchIdGenerator searchIdGenerator = new SearchIdGenerator();
+    private final CrawlScope scope = new CrawlScope(BASE_URL, true, "", "", "png,jpg,css,js,pdf,zip");
+    private final UrlCanonicalizer canonicalizer = new UrlCanonicalizer(true, "utm_*,gclid");
+
+    private String html;
+    private String[] hrefs;
+    private String[] resolved;
+
+    @Setup
+    public void setUp() {
+        html = SyntheticPages.page(64 * 1024, 12, 7);
+        hrefs = LinkTokenizer.tokenize(html).getHrefs().toArray(new String[0]);
+        resolved = new String[hrefs.length];
+        for (int i = 0; i < hrefs.length; i++)
+            resolved[i] = URI.create(PAGE_URL).resolve(hrefs[i].replace(" ", "%20")).toString();
+    }
+
+    @Benchmark
+    public Set<String> extractLinks() {
+        return uriUtil.extractLinks(PAGE_URL, html, BASE_URL);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public void isValid(Blackhole blackhole) {
+        for (int i = 0; i < 100; i++)
+            blackhole.consume(UrlValidator.isValid(hrefs[i % hrefs.length], BASE_URL, true));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public void scopeAccepts(Blackhole blackhole) {
+        for (int i = 0; i < 100; i++)
+            blackhole.consume(scope.accepts(hrefs[i % hrefs.length]));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public void canonicalize(Blackhole blackhole) {
+        for (int i = 0; i < 100; i++)
+            blackhole.consume(canonicalizer.canonicalize(resolved[i % resolved.length]));
+    }
+
+    @Benchmark
+    public String generateSearchId() {
+        return searchIdGenerator.generateSearchId();
+    }
+}
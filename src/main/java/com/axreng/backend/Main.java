@@ -1,13 +1,19 @@
 package com.axreng.backend;
 
 import com.axreng.backend.controller.ExceptionHandlerController;
+import com.axreng.backend.controller.MetricsController;
 import com.axreng.backend.controller.SearchResultFetcherController;
 import com.axreng.backend.controller.SiteQueryProcessorController;
+import com.axreng.backend.enums.ExecutorMode;
+import com.axreng.backend.util.CrawlExecutors;
+import com.axreng.backend.util.EnvironmentUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Objects;
 
+import static com.axreng.backend.util.Constants.MAX_CONCURRENT_FETCHES;
+
 public class Main {
 
     private static final Logger logger = LoggerFactory.getLogger(Main.class);
@@ -19,6 +25,9 @@ public class Main {
         logger.info("Initializing environment variables...");
         gettingBaseUrl();
 
+        logger.info("Configuring crawl executor...");
+        configureExecutor();
+
         logger.info("Initializing controllers...");
         startControllers();
 
@@ -32,6 +41,12 @@ public class Main {
     private static void startControllers() {
         new SearchResultFetcherController();
         new SiteQueryProcessorController();
+        new MetricsController();
+    }
+
+    private static void configureExecutor() {
+        var mode = ExecutorMode.fromValue(EnvironmentUtil.getString("CRAWL_EXECUTOR", ExecutorMode.FIXED_POOL.getValue()));
+        CrawlExecutors.configure(mode, EnvironmentUtil.getInt("MAX_CONCURRENT_FETCHES", MAX_CONCURRENT_FETCHES));
     }
 
     private static void gettingBaseUrl() {
@@ -0,0 +1,44 @@
+package com.axreng.backend.controller;
+
+import com.axreng.backend.service.MetricsService;
+import org.eclipse.jetty.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import spark.Spark;
+
+import static com.axreng.backend.util.Constants.CONTENT_TYPE_PROMETHEUS;
+
+/**
+ * Exposes the runtime metrics of the crawler for Prometheus.
+ *
+ * <h3>Endpoints:</h3>
+ * <ul>
+ *     <li><b>GET /metrics</b> - Every metric in the Prometheus text format, see {@link MetricsService}.</li>
+ * </ul>
+ *
+ * <h3>Response Formats:</h3>
+ * <ul>
+ *     <li><b>200 OK</b> - The metrics, as {@code text/plain; version=0.0.4}.</li>
+ * </ul>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class MetricsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsController.class);
+
+    /**
+     * Initializes the metrics controller and defines the endpoint.
+     */
+    public MetricsController() {
+
+        logger.info("MetricsController instantiated");
+
+        Spark.get("/metrics", (req, res) -> {
+            res.type(CONTENT_TYPE_PROMETHEUS);
+            res.status(HttpStatus.OK_200);
+            return MetricsService.scrape();
+        });
+    }
+}
@@ -1,12 +1,15 @@
 package com.axreng.backend.controller;
 
 import com.axreng.backend.dto.ErrorResponse;
+import com.axreng.backend.service.ResultStream;
+import com.axreng.backend.service.ResultStreamBroadcaster;
 import com.axreng.backend.service.SiteQueryProcessorService;
 import org.eclipse.jetty.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import spark.Spark;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Optional;
 
@@ -21,11 +24,18 @@ import static com.axreng.backend.util.Constants.*;
  * <h3>Endpoints:</h3>
  * <ul>
  *     <li><b>GET /crawl/{searchId}</b> - Retrieves the current search status and results.</li>
+ *     <li><b>GET /crawl/{searchId}?since={cursor}</b> - Retrieves only the URLs found after the first
+ *     {@code cursor} ones, plus the cursor for the next poll.</li>
+ *     <li><b>GET /crawl/{searchId}/stream</b> - Streams each URL as a Server-Sent Event as soon as it is found,
+ *     then a final {@code status} event. Resumes after {@code Last-Event-ID} (or {@code since}) if given.</li>
+ *     <li><b>GET /crawl/{searchId}/stats</b> - Retrieves the progress and timing of the crawl behind the search.
+ *     Searches read back from the result log only report their ID, status and URL count.</li>
  * </ul>
  *
  * <h3>Response Formats:</h3>
  * <ul>
  *     <li><b>200 OK</b> - Search result successfully retrieved.</li>
+ *     <li><b>400 Bad Request</b> - If {@code since} is not a non-negative integer.</li>
  *     <li><b>404 Not Found</b> - If the search ID is not found or null.</li>
  * </ul>
  *
@@ -41,13 +51,45 @@ import static com.axreng.backend.util.Constants.*;
  * }
  * </pre>
  *
+ * Example incremental JSON Response ({@code ?since=2}):
+ * <pre>
+ * {
+ *   "id": "30vbllyb",
+ *   "status": "ACTIVE",
+ *   "urls": [
+ *     "http://hiring.axreng.com/htmlman1/chmod.1.html"
+ *   ],
+ *   "next": 3
+ * }
+ * </pre>
+ *
+ * Example stats JSON Response:
+ * <pre>
+ * {
+ *   "id": "30vbllyb",
+ *   "status": "ACTIVE",
+ *   "urlsFound": 2,
+ *   "startedAt": "2025-03-01T12:00:00.000Z",
+ *   "elapsedMillis": 5230,
+ *   "pagesFetched": 120,
+ *   "pagesFailed": 3,
+ *   "frontierSize": 412,
+ *   "bytesReceived": 3145728,
+ *   "fetchMillis": 48210,
+ *   "scanMillis": 950,
+ *   "linkResolutionMillis": 210
+ * }
+ * </pre>
+ *
  * @author Jean Fernandes
- * @version 1.2
+ * @version 1.5
  */
 public class SearchResultFetcherController {
 
     private static final Logger logger = LoggerFactory.getLogger(SearchResultFetcherController.class);
 
+    private final ResultStreamBroadcaster broadcaster = new ResultStreamBroadcaster(STREAM_INTERVAL_MS);
+
     /**
      * Initializes the search result fetcher controller and defines the endpoints.
      */
@@ -61,8 +103,22 @@ public class SearchResultFetcherController {
             return Optional.ofNullable(req.params("id"))
                     .map(searchId -> Optional.ofNullable(SiteQueryProcessorService.getSearchResult(searchId))
                             .map(result -> {
+                                var since = req.queryParams("since");
+
+                                if (since == null) {
+                                    res.status(HttpStatus.OK_200);
+                                    return result.toJson();
+                                }
+
+                                var cursor = parseCursor(since);
+
+                                if (cursor < 0) {
+                                    res.status(HttpStatus.BAD_REQUEST_400);
+                                    return gson.toJson(new ErrorResponse(INVALID_CURSOR));
+                                }
+
                                 res.status(HttpStatus.OK_200);
-                                return gson.toJson(result);
+                                return gson.toJson(result.since(cursor));
                             })
                             .orElseGet(() -> {
                                 res.status(HttpStatus.NOT_FOUND_404);
@@ -73,5 +129,67 @@ public class SearchResultFetcherController {
                         return gson.toJson(new ErrorResponse(SEARCH_ID_CANNOT_BE_NULL));
                     });
         });
+
+        Spark.get("/crawl/:id/stats", (req, res) -> {
+            res.type(CONTENT_TYPE_JSON);
+            var result = SiteQueryProcessorService.getSearchResult(req.params("id"));
+
+            if (result == null) {
+                res.status(HttpStatus.NOT_FOUND_404);
+                return gson.toJson(new ErrorResponse(SEARCH_ID_NOT_FOUND));
+            }
+
+            res.status(HttpStatus.OK_200);
+            return gson.toJson(result.stats());
+        });
+
+        Spark.get("/crawl/:id/stream", (req, res) -> {
+            var result = SiteQueryProcessorService.getSearchResult(req.params("id"));
+
+            if (result == null) {
+                res.type(CONTENT_TYPE_JSON);
+                res.status(HttpStatus.NOT_FOUND_404);
+                return gson.toJson(new ErrorResponse(SEARCH_ID_NOT_FOUND));
+            }
+
+            var resumeFrom = Optional.ofNullable(req.headers("Last-Event-ID"))
+                    .or(() -> Optional.ofNullable(req.queryParams("since")))
+                    .orElse("0");
+            var cursor = parseCursor(resumeFrom);
+
+            if (cursor < 0) {
+                res.type(CONTENT_TYPE_JSON);
+                res.status(HttpStatus.BAD_REQUEST_400);
+                return gson.toJson(new ErrorResponse(INVALID_CURSOR));
+            }
+
+            var response = res.raw();
+            response.setStatus(HttpStatus.OK_200);
+            response.setContentType(CONTENT_TYPE_EVENT_STREAM);
+            response.setHeader("Cache-Control", "no-cache");
+            response.setHeader("X-Accel-Buffering", "no");
+
+            var async = req.raw().startAsync();
+            async.setTimeout(STREAM_TIMEOUT_MS);
+
+            // Committing the headers here hands the connection over: Spark skips committed responses.
+            response.getOutputStream().write("retry: 1000\n\n".getBytes(StandardCharsets.UTF_8));
+            response.flushBuffer();
+
+            broadcaster.subscribe(async, new ResultStream(result, cursor, STREAM_HEARTBEAT_MS));
+            return "";
+        });
+    }
+
+    /**
+     * @param value The {@code since} query parameter.
+     * @return The cursor, or {@code -1} if the value is not a non-negative integer.
+     */
+    private static int parseCursor(String value) {
+        try {
+            return Math.max(Integer.parseInt(value.trim()), -1);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
     }
 }
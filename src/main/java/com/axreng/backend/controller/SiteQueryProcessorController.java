@@ -1,7 +1,9 @@
 package com.axreng.backend.controller;
 
+import com.axreng.backend.dto.BatchSearchRequestDto;
 import com.axreng.backend.dto.ErrorResponse;
 import com.axreng.backend.dto.SearchQueryRequestDto;
+import com.axreng.backend.enums.SeenSetMode;
 import com.axreng.backend.service.SiteQueryProcessorService;
 import com.axreng.backend.util.StringsUtil;
 import org.eclipse.jetty.http.HttpStatus;
@@ -10,6 +12,7 @@ import org.slf4j.LoggerFactory;
 import spark.Spark;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import static com.axreng.backend.util.Constants.*;
@@ -25,6 +28,7 @@ import static com.axreng.backend.util.Constants.*;
  * <h2>Endpoints:</h2>
  * <ul>
  *     <li><b>POST /crawl</b> - Starts a new search operation.</li>
+ *     <li><b>POST /crawl/batch</b> - Starts one search per keyword, all sharing a single crawl.</li>
  * </ul>
  *
  * <h2>Request Format:</h2>
@@ -35,6 +39,12 @@ import static com.axreng.backend.util.Constants.*;
  * }
  * </pre>
  * <p>
+ * An optional <code>dedup</code> field selects how the crawl remembers visited URLs:
+ * <code>exact</code> (default), <code>fingerprint</code> (64-bit hashes, exact in practice and much smaller)
+ * or <code>bloom</code> (fixed-size Bloom filter, may skip a few pages). The default can be changed
+ * with the <code>SEEN_SET_MODE</code> environment variable.
+ * </p>
+ * <p>
  * The keyword must meet the validation criteria:
  * </p>
  * <ul>
@@ -42,10 +52,22 @@ import static com.axreng.backend.util.Constants.*;
  *     <li>Must contain between 4 and 32 characters.</li>
  * </ul>
  *
+ * <p>
+ * A batch request lists up to 100 keywords, each validated like a single keyword, and accepts the same
+ * optional <code>dedup</code> field:
+ * </p>
+ * <pre>
+ * {
+ *   "keywords": ["security", "cloud"]
+ * }
+ * </pre>
+ *
  * <h2>Response Formats:</h2>
  * <ul>
  *     <li><b>200 OK</b> - The search process has started successfully. Returns a unique search ID.</li>
  *     <li><b>400 Bad Request</b> - Returned if the request is invalid due to a missing, empty, or improperly formatted keyword.</li>
+ *     <li><b>503 Service Unavailable</b> - Returned while <code>MAX_ACTIVE_SEARCHES</code> searches are running, with a
+ *     <code>Retry-After</code> header giving the seconds to wait.</li>
  * </ul>
  *
  * <h2>Example JSON Response:</h2>
@@ -55,6 +77,16 @@ import static com.axreng.backend.util.Constants.*;
  * }
  * </pre>
  *
+ * <h2>Example Batch JSON Response:</h2>
+ * <pre>
+ * {
+ *   "searches": [
+ *     { "keyword": "security", "id": "30vbllyb" },
+ *     { "keyword": "cloud", "id": "x2Rk8aQe" }
+ *   ]
+ * }
+ * </pre>
+ *
  * <h2>Possible Error Responses:</h2>
  * <pre>
  * {
@@ -66,9 +98,14 @@ import static com.axreng.backend.util.Constants.*;
  *   "error": "The search term must be between 4 and 32 characters."
  * }
  * </pre>
+ * <pre>
+ * {
+ *   "error": "Too many searches are running, retry later."
+ * }
+ * </pre>
  *
  * @author Jean Fernandes
- * @version 1.3
+ * @version 1.5
  */
 
 public class SiteQueryProcessorController {
@@ -85,7 +122,9 @@ public class SiteQueryProcessorController {
         Spark.post("/crawl", (req, res) -> {
             res.type(CONTENT_TYPE_JSON);
 
-            return Optional.ofNullable(gson.fromJson(req.body(), SearchQueryRequestDto.class))
+            var request = Optional.ofNullable(gson.fromJson(req.body(), SearchQueryRequestDto.class));
+
+            return request
                     .map(SearchQueryRequestDto::getKeyword)
                     .filter(keyword -> !keyword.isBlank())
                     .map(keyword -> {
@@ -93,7 +132,10 @@ public class SiteQueryProcessorController {
                             res.status(HttpStatus.BAD_REQUEST_400);
                             return gson.toJson(new ErrorResponse(THE_SEARCH_TERM_MUST_BE_BETWEEN_4_AND_32_CHARACTERS));
                         }
-                        var service = new SiteQueryProcessorService(keyword);
+                        var dedup = request.map(SearchQueryRequestDto::getDedup)
+                                .map(SeenSetMode::fromValue)
+                                .orElseGet(SiteQueryProcessorService::defaultSeenSetMode);
+                        var service = new SiteQueryProcessorService(keyword, dedup);
                         res.status(HttpStatus.OK_200);
                         return gson.toJson(service.startSearchAsync());
                     })
@@ -102,5 +144,34 @@ public class SiteQueryProcessorController {
                         return gson.toJson(new ErrorResponse(KEYWORD_CANNOT_BE_NULL_OR_EMPTY));
                     });
         });
+
+        Spark.post("/crawl/batch", (req, res) -> {
+            res.type(CONTENT_TYPE_JSON);
+
+            var request = Optional.ofNullable(gson.fromJson(req.body(), BatchSearchRequestDto.class));
+            var keywords = request.map(BatchSearchRequestDto::getKeywords).orElse(List.of());
+
+            if (keywords.isEmpty() || keywords.stream().anyMatch(keyword -> keyword == null || keyword.isBlank())) {
+                res.status(HttpStatus.BAD_REQUEST_400);
+                return gson.toJson(new ErrorResponse(KEYWORDS_CANNOT_BE_NULL_OR_EMPTY));
+            }
+
+            if (keywords.size() > MAX_BATCH_KEYWORDS) {
+                res.status(HttpStatus.BAD_REQUEST_400);
+                return gson.toJson(new ErrorResponse(TOO_MANY_KEYWORDS));
+            }
+
+            if (!keywords.stream().allMatch(StringsUtil::isValidTerm)) {
+                res.status(HttpStatus.BAD_REQUEST_400);
+                return gson.toJson(new ErrorResponse(THE_SEARCH_TERM_MUST_BE_BETWEEN_4_AND_32_CHARACTERS));
+            }
+
+            var dedup = request.map(BatchSearchRequestDto::getDedup)
+                    .map(SeenSetMode::fromValue)
+                    .orElseGet(SiteQueryProcessorService::defaultSeenSetMode);
+            var service = new SiteQueryProcessorService(keywords, dedup);
+            res.status(HttpStatus.OK_200);
+            return gson.toJson(service.startBatchSearchAsync());
+        });
     }
 }
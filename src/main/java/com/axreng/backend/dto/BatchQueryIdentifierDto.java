@@ -0,0 +1,17 @@
+package com.axreng.backend.dto;
+
+import java.util.List;
+
+public class BatchQueryIdentifierDto {
+
+    private final List<KeywordIdentifierDto> searches;
+
+    public BatchQueryIdentifierDto(List<KeywordIdentifierDto> searches) {
+        this.searches = searches;
+    }
+
+    public List<KeywordIdentifierDto> getSearches() {
+        return searches;
+    }
+
+}
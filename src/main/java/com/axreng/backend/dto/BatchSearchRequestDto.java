@@ -0,0 +1,26 @@
+package com.axreng.backend.dto;
+
+import java.util.List;
+
+public class BatchSearchRequestDto {
+
+    private final List<String> keywords;
+    private final String dedup;
+
+    public BatchSearchRequestDto(List<String> keywords) {
+        this(keywords, null);
+    }
+
+    public BatchSearchRequestDto(List<String> keywords, String dedup) {
+        this.keywords = keywords;
+        this.dedup = dedup;
+    }
+
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    public String getDedup() {
+        return dedup;
+    }
+}
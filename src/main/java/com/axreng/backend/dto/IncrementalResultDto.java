@@ -0,0 +1,36 @@
+package com.axreng.backend.dto;
+
+import com.axreng.backend.enums.Status;
+
+import java.util.List;
+
+public class IncrementalResultDto {
+
+    private final String id;
+    private final Status status;
+    private final List<String> urls;
+    private final int next;
+
+    public IncrementalResultDto(String id, Status status, List<String> urls, int next) {
+        this.id = id;
+        this.status = status;
+        this.urls = urls;
+        this.next = next;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public List<String> getUrls() {
+        return urls;
+    }
+
+    public int getNext() {
+        return next;
+    }
+}
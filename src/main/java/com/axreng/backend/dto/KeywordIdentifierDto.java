@@ -0,0 +1,21 @@
+package com.axreng.backend.dto;
+
+public class KeywordIdentifierDto {
+
+    private final String keyword;
+    private final String id;
+
+    public KeywordIdentifierDto(String keyword, String id) {
+        this.keyword = keyword;
+        this.id = id;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+}
@@ -1,18 +1,34 @@
 package com.axreng.backend.dto;
 
 import com.axreng.backend.enums.Status;
+import com.axreng.backend.util.AppendOnlyList;
+import com.axreng.backend.util.SearchStats;
 
-import java.util.ArrayList;
 import java.util.List;
 
+import static com.axreng.backend.util.Constants.gson;
+
+/**
+ * Progress of one search, written by the crawl and read concurrently by pollers.
+ * <p>
+ * URLs are appended to an {@link AppendOnlyList} and the status is {@code volatile}, so readers never lock
+ * or copy. Pollers can ask only for the URLs added since their last poll with {@link #since(int)}.
+ * The full JSON form is cached and only rebuilt after a new URL or a status change has been published.
+ * </p>
+ * <p>
+ * The {@link SearchStats} of the crawl are kept in memory only; a result read back from the result log has none.
+ * </p>
+ */
 public class ResultFetcherDto {
 
     private String id;
-    private Status status;
-    private List<String> urls;
+    private volatile Status status;
+    private volatile List<String> urls;
+    private transient volatile CachedJson cachedJson;
+    private transient volatile SearchStats stats;
 
     public ResultFetcherDto() {
-        this.urls = new ArrayList<>();
+        this.urls = new AppendOnlyList<>();
         this.status = Status.ACTIVE;
     }
 
@@ -37,6 +53,91 @@ public class ResultFetcherDto {
     }
 
     public void setUrls(List<String> urls) {
-        this.urls = urls;
+        this.urls = new AppendOnlyList<>(urls);
+    }
+
+    public SearchStats getStats() {
+        return stats;
+    }
+
+    public void setStats(SearchStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Returns the progress and timing of the search.
+     * <p>
+     * The status is read first, so a {@code DONE} or {@code FAILED} status comes with the final figures.
+     * </p>
+     *
+     * @return The statistics, with only the ID, status and URL count if the crawl statistics are not available.
+     */
+    public SearchStatsDto stats() {
+        var current = status;
+        var crawl = stats;
+        int found = urls.size();
+
+        if (crawl == null)
+            return new SearchStatsDto(id, current, found);
+
+        return new SearchStatsDto(id, current, found, crawl.getStartedAt().toString(), crawl.getElapsedMillis(),
+                crawl.getPagesFetched(), crawl.getPagesFailed(), crawl.getFrontierSize(), crawl.getBytesReceived(),
+                crawl.getFetchMillis(), crawl.getScanMillis(), crawl.getLinkResolutionMillis());
+    }
+
+    /**
+     * Returns the URLs appended after a cursor, without copying the ones before it.
+     * <p>
+     * The status is read before the URLs, so a {@code DONE} or {@code FAILED} status guarantees that
+     * {@code urls} holds everything up to the final URL and no further poll is needed.
+     * </p>
+     *
+     * @param cursor The number of URLs the caller has already received; values past the end are clamped.
+     * @return The new URLs and the cursor to send on the next poll.
+     */
+    public IncrementalResultDto since(int cursor) {
+        var current = status;
+        var snapshot = urls;
+        int size = snapshot.size();
+        int from = Math.min(cursor, size);
+
+        return new IncrementalResultDto(id, current, snapshot.subList(from, size), size);
+    }
+
+    /**
+     * Serializes the result, reusing the previous JSON while nothing has changed.
+     *
+     * @return The JSON representation of the result.
+     */
+    public String toJson() {
+        var current = urls;
+        var version = new CachedJson(current, current.size(), status, null);
+        var cached = cachedJson;
+
+        if (cached != null && cached.sameVersion(version))
+            return cached.json;
+
+        var json = gson.toJson(this);
+        cachedJson = new CachedJson(current, version.size, version.status, json);
+        return json;
+    }
+
+    private static class CachedJson {
+
+        private final List<String> urls;
+        private final int size;
+        private final Status status;
+        private final String json;
+
+        CachedJson(List<String> urls, int size, Status status, String json) {
+            this.urls = urls;
+            this.size = size;
+            this.status = status;
+            this.json = json;
+        }
+
+        boolean sameVersion(CachedJson other) {
+            return urls == other.urls && size == other.size && status == other.status;
+        }
     }
 }
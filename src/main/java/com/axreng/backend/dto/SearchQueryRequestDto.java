@@ -3,12 +3,22 @@ package com.axreng.backend.dto;
 public class SearchQueryRequestDto {
 
     private final String keyword;
+    private final String dedup;
 
     public SearchQueryRequestDto(String keyword) {
+        this(keyword, null);
+    }
+
+    public SearchQueryRequestDto(String keyword, String dedup) {
         this.keyword = keyword;
+        this.dedup = dedup;
     }
 
     public String getKeyword() {
         return keyword;
     }
+
+    public String getDedup() {
+        return dedup;
+    }
 }
@@ -0,0 +1,88 @@
+package com.axreng.backend.dto;
+
+import com.axreng.backend.enums.Status;
+
+public class SearchStatsDto {
+
+    private final String id;
+    private final Status status;
+    private final int urlsFound;
+    private final String startedAt;
+    private final Long elapsedMillis;
+    private final Long pagesFetched;
+    private final Long pagesFailed;
+    private final Integer frontierSize;
+    private final Long bytesReceived;
+    private final Long fetchMillis;
+    private final Long scanMillis;
+    private final Long linkResolutionMillis;
+
+    public SearchStatsDto(String id, Status status, int urlsFound) {
+        this(id, status, urlsFound, null, null, null, null, null, null, null, null, null);
+    }
+
+    public SearchStatsDto(String id, Status status, int urlsFound, String startedAt, Long elapsedMillis,
+                          Long pagesFetched, Long pagesFailed, Integer frontierSize, Long bytesReceived,
+                          Long fetchMillis, Long scanMillis, Long linkResolutionMillis) {
+        this.id = id;
+        this.status = status;
+        this.urlsFound = urlsFound;
+        this.startedAt = startedAt;
+        this.elapsedMillis = elapsedMillis;
+        this.pagesFetched = pagesFetched;
+        this.pagesFailed = pagesFailed;
+        this.frontierSize = frontierSize;
+        this.bytesReceived = bytesReceived;
+        this.fetchMillis = fetchMillis;
+        this.scanMillis = scanMillis;
+        this.linkResolutionMillis = linkResolutionMillis;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getUrlsFound() {
+        return urlsFound;
+    }
+
+    public String getStartedAt() {
+        return startedAt;
+    }
+
+    public Long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public Long getPagesFetched() {
+        return pagesFetched;
+    }
+
+    public Long getPagesFailed() {
+        return pagesFailed;
+    }
+
+    public Integer getFrontierSize() {
+        return frontierSize;
+    }
+
+    public Long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public Long getFetchMillis() {
+        return fetchMillis;
+    }
+
+    public Long getScanMillis() {
+        return scanMillis;
+    }
+
+    public Long getLinkResolutionMillis() {
+        return linkResolutionMillis;
+    }
+}
@@ -0,0 +1,40 @@
+package com.axreng.backend.enums;
+
+import java.util.Arrays;
+
+/**
+ * Enum representing the available strategies for running page fetches.
+ */
+public enum ExecutorMode {
+
+    FIXED_POOL("fixed"),
+    VIRTUAL_THREADS("virtual"),;
+
+    private final String value;
+
+    ExecutorMode(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Gets the string representation of the executor mode.
+     *
+     * @return The executor mode value as a string.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Resolves an executor mode from its string representation, ignoring case.
+     *
+     * @param value The configured value, possibly {@code null}.
+     * @return The matching mode, or {@link #FIXED_POOL} if the value is empty or unknown.
+     */
+    public static ExecutorMode fromValue(String value) {
+        return Arrays.stream(values())
+                .filter(mode -> mode.value.equalsIgnoreCase(value))
+                .findFirst()
+                .orElse(FIXED_POOL);
+    }
+}
@@ -0,0 +1,40 @@
+package com.axreng.backend.enums;
+
+import java.util.Arrays;
+
+/**
+ * Enum representing how a search finds the pages containing its keyword.
+ */
+public enum SearchMode {
+
+    CRAWL("crawl"),
+    INDEX("index"),;
+
+    private final String value;
+
+    SearchMode(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Gets the string representation of the mode.
+     *
+     * @return The mode value as a string.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Resolves a mode from its string representation, ignoring case.
+     *
+     * @param value The configured value, possibly {@code null}.
+     * @return The matching mode, or {@link #CRAWL} if the value is empty or unknown.
+     */
+    public static SearchMode fromValue(String value) {
+        return Arrays.stream(values())
+                .filter(mode -> mode.value.equalsIgnoreCase(value))
+                .findFirst()
+                .orElse(CRAWL);
+    }
+}
@@ -0,0 +1,41 @@
+package com.axreng.backend.enums;
+
+import java.util.Arrays;
+
+/**
+ * Enum representing how a crawl remembers the URLs it has already discovered.
+ */
+public enum SeenSetMode {
+
+    EXACT("exact"),
+    FINGERPRINT("fingerprint"),
+    BLOOM("bloom"),;
+
+    private final String value;
+
+    SeenSetMode(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Gets the string representation of the mode.
+     *
+     * @return The mode value as a string.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Resolves a mode from its string representation, ignoring case.
+     *
+     * @param value The configured value, possibly {@code null}.
+     * @return The matching mode, or {@link #EXACT} if the value is empty or unknown.
+     */
+    public static SeenSetMode fromValue(String value) {
+        return Arrays.stream(values())
+                .filter(mode -> mode.value.equalsIgnoreCase(value))
+                .findFirst()
+                .orElse(EXACT);
+    }
+}
@@ -2,6 +2,7 @@ package com.axreng.backend.controller;
 
 import com.axreng.backend.dto.ErrorResponse;
 import com.axreng.backend.exception.MissingBaseUrlException;
+import com.axreng.backend.exception.SearchCapacityExceededException;
 import org.eclipse.jetty.http.HttpStatus;
 import spark.ExceptionHandler;
 import spark.Spark;
@@ -22,5 +23,12 @@ public class ExceptionHandlerController {
             response.type(CONTENT_TYPE_JSON);
             response.body(gson.toJson(new ErrorResponse(exception.getMessage())));
         });
+
+        Spark.exception(SearchCapacityExceededException.class, (exception, request, response) -> {
+            response.status(HttpStatus.SERVICE_UNAVAILABLE_503);
+            response.type(CONTENT_TYPE_JSON);
+            response.header("Retry-After", String.valueOf(exception.getRetryAfterSeconds()));
+            response.body(gson.toJson(new ErrorResponse(exception.getMessage())));
+        });
     }
 }
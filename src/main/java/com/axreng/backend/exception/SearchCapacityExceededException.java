@@ -0,0 +1,23 @@
+package com.axreng.backend.exception;
+
+/**
+ * Exception thrown when a search is refused because the maximum number of searches are already running.
+ *
+ * @author Jean Fernandes
+ */
+public class SearchCapacityExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public SearchCapacityExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return How long the client should wait before retrying, in seconds.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
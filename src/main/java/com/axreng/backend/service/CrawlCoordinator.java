@@ -0,0 +1,263 @@
+package com.axreng.backend.service;
+
+import com.axreng.backend.util.ConcurrentSeenSet;
+import com.axreng.backend.util.CrawlEvents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Drives a single crawl by fanning page tasks out from a shared frontier to a bounded
+ * number of concurrent workers.
+ * <p>
+ * Each dispatched URL is handed to a page processor, which returns (asynchronously) the links
+ * discovered on that page. Those links are offered to the {@link CrawlFrontier}, which drops the
+ * ones already seen, and new work is dispatched as soon as a worker slot becomes free.
+ * </p>
+ *
+ * <h3>Guarantees:</h3>
+ * <ul>
+ *     <li>At most {@code parallelism} pages are in flight at any time.</li>
+ *     <li>Exactly {@code maxPages} pages are dispatched at most; the budget is claimed under the same lock
+ *     that tracks in-flight work, so concurrent workers can never overshoot it.</li>
+ *     <li>The crawl completes only when the frontier is empty (or the budget is spent) <b>and</b>
+ *     no page is still in flight, since an in-flight page may still contribute new links.</li>
+ * </ul>
+ * <p>
+ * When the crawl belongs to a search admitted by a {@link CrawlScheduler}, pages are handed to it rather than
+ * started directly, so they share the global page slots fairly with the pages of other searches.
+ * </p>
+ * <p>
+ * The links of each page are enqueued under a {@link CrawlEvents.Enqueue} flight recorder event.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * var coordinator = new CrawlCoordinator(url -> fetchLinksAsync(url), 8, 100);
+ * coordinator.start("https://ibm.com").join();
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.3
+ */
+public class CrawlCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CrawlCoordinator.class);
+
+    private final CrawlFrontier frontier;
+    private final Function<String, CompletableFuture<? extends Collection<String>>> pageProcessor;
+    private final int parallelism;
+    private final int maxPages;
+    private final CrawlScheduler.Search search;
+    private final AtomicInteger pagesVisited;
+    private final CompletableFuture<Void> completion;
+
+    /**
+     * Number of dispatch requests not yet served; only the thread that raises it from zero dispatches.
+     */
+    private final AtomicInteger dispatchRequests = new AtomicInteger();
+
+    /**
+     * Number of pages dispatched whose processing has not finished yet. Guarded by {@code this}.
+     */
+    private int inFlight;
+
+    /**
+     * Creates a coordinator for one crawl.
+     *
+     * @param pageProcessor Processes a page and completes with the links found on it.
+     * @param parallelism   Maximum number of pages processed concurrently.
+     * @param maxPages      Maximum number of pages dispatched during the whole crawl.
+     */
+    public CrawlCoordinator(Function<String, CompletableFuture<? extends Collection<String>>> pageProcessor,
+                            int parallelism, int maxPages) {
+        this(new CrawlFrontier(new ConcurrentSeenSet(), maxPages), pageProcessor, parallelism, maxPages);
+    }
+
+    /**
+     * Creates a coordinator for one crawl over the given frontier.
+     *
+     * @param frontier      The frontier holding the URLs to visit.
+     * @param pageProcessor Processes a page and completes with the links found on it.
+     * @param parallelism   Maximum number of pages processed concurrently.
+     * @param maxPages      Maximum number of pages dispatched during the whole crawl.
+     */
+    public CrawlCoordinator(CrawlFrontier frontier,
+                            Function<String, CompletableFuture<? extends Collection<String>>> pageProcessor,
+                            int parallelism, int maxPages) {
+        this(frontier, pageProcessor, parallelism, maxPages, null);
+    }
+
+    /**
+     * Creates a coordinator for one crawl over the given frontier, whose pages wait for a slot of the search.
+     *
+     * @param frontier      The frontier holding the URLs to visit.
+     * @param pageProcessor Processes a page and completes with the links found on it.
+     * @param parallelism   Maximum number of pages processed (or waiting for a slot) concurrently.
+     * @param maxPages      Maximum number of pages dispatched during the whole crawl.
+     * @param search        The admitted search the pages run under, or {@code null} to start them directly.
+     */
+    public CrawlCoordinator(CrawlFrontier frontier,
+                            Function<String, CompletableFuture<? extends Collection<String>>> pageProcessor,
+                            int parallelism, int maxPages, CrawlScheduler.Search search) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+
+        this.pageProcessor = pageProcessor;
+        this.parallelism = parallelism;
+        this.maxPages = maxPages;
+        this.frontier = frontier;
+        this.search = search;
+        this.pagesVisited = new AtomicInteger();
+        this.completion = new CompletableFuture<>();
+    }
+
+    /**
+     * Seeds the frontier and starts dispatching pages.
+     *
+     * @param seedUrl The first URL to visit.
+     * @return A future completed when the crawl has terminated.
+     */
+    public CompletableFuture<Void> start(String seedUrl) {
+        enqueue(seedUrl);
+        dispatch();
+        return completion;
+    }
+
+    /**
+     * Adds a link to the frontier unless it has already been seen.
+     *
+     * @param link The link to enqueue.
+     * @return {@code true} if the link was new.
+     */
+    private boolean enqueue(String link) {
+        if (!frontier.offer(link))
+            return false;
+
+        logger.debug("Added new link to queue: {}", link);
+        return true;
+    }
+
+    /**
+     * Enqueues the links found on a page, recorded as a {@link CrawlEvents.Enqueue} flight recorder event.
+     *
+     * @param url   The page the links were found on.
+     * @param links The links to enqueue.
+     */
+    private void enqueueAll(String url, Collection<String> links) {
+        var event = new CrawlEvents.Enqueue();
+        event.begin();
+
+        int added = 0;
+        for (String link : links) {
+            if (enqueue(link))
+                added++;
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.url = url;
+            event.offered = links.size();
+            event.added = added;
+            event.frontierSize = frontier.size();
+            event.commit();
+        }
+    }
+
+    /**
+     * Dispatches pages until no request to dispatch is left.
+     * <p>
+     * A page whose future is already completed (a cache hit, a failed fetch) re-dispatches on the thread that
+     * launched it. Instead of recursing once per page, that call only records the request, and the thread
+     * already dispatching serves it in this loop, so the stack stays flat however large the budget is.
+     * </p>
+     */
+    private void dispatch() {
+        if (dispatchRequests.getAndIncrement() != 0)
+            return;
+
+        do {
+            dispatchBatch();
+        } while (dispatchRequests.decrementAndGet() != 0);
+    }
+
+    /**
+     * Claims as many frontier entries as there are free worker slots and remaining budget,
+     * then launches them outside the lock. Completes the crawl when nothing is left to do.
+     */
+    private void dispatchBatch() {
+        List<String> batch = new ArrayList<>();
+
+        synchronized (this) {
+            while (inFlight < parallelism && pagesVisited.get() < maxPages) {
+                String url = frontier.poll();
+
+                if (url == null)
+                    break;
+
+                pagesVisited.incrementAndGet();
+                inFlight++;
+                batch.add(url);
+            }
+
+            if (inFlight == 0) {
+                completion.complete(null);
+                return;
+            }
+        }
+
+        if (search == null)
+            batch.forEach(this::launch);
+        else
+            batch.forEach(url -> search.execute(() -> launch(url)));
+    }
+
+    /**
+     * Hands a claimed URL to the page processor and re-dispatches once it completes.
+     *
+     * @param url The URL to process.
+     * @return A future completed once the page has been processed and its links enqueued.
+     */
+    private CompletableFuture<?> launch(String url) {
+        CompletableFuture<? extends Collection<String>> page;
+
+        try {
+            page = pageProcessor.apply(url);
+        } catch (RuntimeException e) {
+            page = CompletableFuture.failedFuture(e);
+        }
+
+        return page.whenComplete((links, ex) -> {
+            if (ex != null)
+                logger.error("Error processing URL: {} - Message: {}", url, ex.getMessage(), ex);
+            else if (links != null)
+                enqueueAll(url, links);
+
+            synchronized (this) {
+                inFlight--;
+            }
+
+            dispatch();
+        });
+    }
+
+    /**
+     * @return The number of pages dispatched so far.
+     */
+    public int getPagesVisited() {
+        return pagesVisited.get();
+    }
+
+    /**
+     * @return The number of links still waiting in the frontier.
+     */
+    public int getFrontierSize() {
+        return frontier.size();
+    }
+}
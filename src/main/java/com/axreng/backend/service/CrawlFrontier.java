@@ -0,0 +1,133 @@
+package com.axreng.backend.service;
+
+import com.axreng.backend.util.ConcurrentSeenSet;
+import com.axreng.backend.util.SeenSet;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FIFO of URLs waiting to be crawled, deduplicated at enqueue time.
+ * <p>
+ * Every offered URL goes through a single atomic add-if-absent on a {@link SeenSet}; only URLs seen for
+ * the first time are queued. A URL is therefore queued at most once for the whole crawl, and no
+ * operation ever scans the queue, so deduplication costs O(1) regardless of the frontier size.
+ * </p>
+ * <p>
+ * A frontier may be bounded by the page budget of its crawl: once the URLs queued plus the URLs already
+ * taken reach it, no more can ever be visited, so further offers are dropped without being stored. The
+ * queue then holds at most one budget of URLs, whatever the seen set keeps.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * var frontier = new CrawlFrontier();
+ * frontier.offer("https://ibm.com");   // true
+ * frontier.offer("https://ibm.com");   // false, already seen
+ * String next = frontier.poll();
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.1
+ */
+public class CrawlFrontier {
+
+    private final Queue<String> queue;
+    private final SeenSet seen;
+    private final AtomicInteger size;
+    private final int capacity;
+
+    /**
+     * Number of URLs ever queued, those polled since included. Only grows.
+     */
+    private final AtomicInteger admitted;
+
+    /**
+     * Creates an unbounded frontier backed by an exact {@link ConcurrentSeenSet}.
+     */
+    public CrawlFrontier() {
+        this(new ConcurrentSeenSet());
+    }
+
+    /**
+     * Creates an unbounded frontier backed by the given seen set.
+     *
+     * @param seen The set used to deduplicate URLs.
+     */
+    public CrawlFrontier(SeenSet seen) {
+        this(seen, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a frontier backed by the given seen set that queues at most {@code capacity} URLs in total.
+     *
+     * @param seen     The set used to deduplicate URLs.
+     * @param capacity The page budget of the crawl: the number of URLs queued and polled it will ever hold.
+     */
+    public CrawlFrontier(SeenSet seen, int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+
+        this.queue = new ConcurrentLinkedQueue<>();
+        this.seen = seen;
+        this.size = new AtomicInteger();
+        this.capacity = capacity;
+        this.admitted = new AtomicInteger();
+    }
+
+    /**
+     * Queues a URL unless it has been offered before or the frontier is full.
+     *
+     * @param url The URL.
+     * @return {@code true} if the URL was queued.
+     */
+    public boolean offer(String url) {
+        if (isFull() || !seen.add(url))
+            return false;
+
+        // Another offer may have taken the last place since the check; the URL stays seen, which is harmless
+        // since the frontier never has room again.
+        if (admitted.getAndIncrement() >= capacity)
+            return false;
+
+        queue.add(url);
+        size.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Takes the oldest queued URL.
+     *
+     * @return The URL, or {@code null} if the frontier is empty.
+     */
+    public String poll() {
+        var url = queue.poll();
+
+        if (url != null)
+            size.decrementAndGet();
+
+        return url;
+    }
+
+    /**
+     * @return The number of queued URLs, in constant time.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * @return {@code true} once the URLs queued plus the URLs polled have reached the capacity.
+     */
+    public boolean isFull() {
+        return admitted.get() >= capacity;
+    }
+
+    /**
+     * @return The number of distinct URLs offered so far.
+     */
+    public int seenCount() {
+        return seen.size();
+    }
+}
@@ -0,0 +1,205 @@
+package com.axreng.backend.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Admits searches up to a global limit and shares the page slots between them in round-robin order.
+ * <p>
+ * A search first obtains a {@link Search} from {@link #admit()}; once {@code maxActiveSearches} are running,
+ * new ones are refused so callers can push back instead of queueing without bound. Pages of admitted
+ * searches then run through {@link Search#execute}: at most {@code maxConcurrentPages} run at once across
+ * every search, and each free slot goes to the next search in turn that has a page waiting. A small search
+ * therefore waits for about one page per running search, however many pages the heavy ones have queued.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * var scheduler = new CrawlScheduler(100, 16);
+ * var search = scheduler.admit();
+ * if (search == null) ... // saturated
+ * search.execute(() -&gt; processUrlAsync(url));
+ * search.close();
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.1
+ */
+public class CrawlScheduler {
+
+    private final int maxActiveSearches;
+    private final int maxConcurrentPages;
+    private final ArrayDeque<Search> waiting = new ArrayDeque<>();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Calls to {@link #drain()} not yet served; only the caller that raises it from zero drains, so a page
+     * completing synchronously never recurses into another drain.
+     */
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    /**
+     * Searches admitted and not closed yet. Guarded by {@code this}.
+     */
+    private int active;
+
+    /**
+     * Pages started whose future has not completed yet. Guarded by {@code this}.
+     */
+    private int running;
+
+    /**
+     * @param maxActiveSearches  Maximum number of searches running at once.
+     * @param maxConcurrentPages Maximum number of pages processed at once across every search.
+     */
+    public CrawlScheduler(int maxActiveSearches, int maxConcurrentPages) {
+        if (maxActiveSearches < 1 || maxConcurrentPages < 1)
+            throw new IllegalArgumentException("Limits must be at least 1: " + maxActiveSearches + ", " + maxConcurrentPages);
+
+        this.maxActiveSearches = maxActiveSearches;
+        this.maxConcurrentPages = maxConcurrentPages;
+    }
+
+    /**
+     * Admits a new search if fewer than {@code maxActiveSearches} are running.
+     *
+     * @return The admitted search, to be closed when it ends, or {@code null} if the limit is reached.
+     */
+    public synchronized Search admit() {
+        if (active >= maxActiveSearches) {
+            rejected.increment();
+            return null;
+        }
+
+        active++;
+        return new Search();
+    }
+
+    /**
+     * @return The number of searches running.
+     */
+    public synchronized int getActive() {
+        return active;
+    }
+
+    /**
+     * @return The number of pages being processed.
+     */
+    public synchronized int getRunningPages() {
+        return running;
+    }
+
+    /**
+     * @return The number of pages waiting for a slot.
+     */
+    public synchronized int getQueuedPages() {
+        int queued = 0;
+        for (Search search : waiting)
+            queued += search.pending.size();
+        return queued;
+    }
+
+    /**
+     * @return The number of searches refused because the limit was reached.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Hands free slots to waiting searches until none is left, serving the requests raised meanwhile by
+     * other threads or by the pages started.
+     */
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0)
+            return;
+
+        do {
+            drainBatch();
+        } while (drainRequests.decrementAndGet() != 0);
+    }
+
+    /**
+     * Hands free slots to waiting searches, one page per search per turn, and starts those pages outside the lock.
+     */
+    private void drainBatch() {
+        var batch = new ArrayList<Supplier<? extends CompletableFuture<?>>>();
+
+        synchronized (this) {
+            while (running < maxConcurrentPages && !waiting.isEmpty()) {
+                var search = waiting.pollFirst();
+                batch.add(search.pending.pollFirst());
+                running++;
+
+                if (!search.pending.isEmpty())
+                    waiting.addLast(search);
+            }
+        }
+
+        for (var page : batch) {
+            CompletableFuture<?> future;
+
+            try {
+                future = page.get();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+
+            future.whenComplete((res, ex) -> {
+                synchronized (this) {
+                    running--;
+                }
+                drain();
+            });
+        }
+    }
+
+    /**
+     * One admitted search; holds its pages until they get a slot.
+     */
+    public class Search implements AutoCloseable {
+
+        /**
+         * Pages waiting for a slot. Guarded by the scheduler.
+         */
+        private final ArrayDeque<Supplier<? extends CompletableFuture<?>>> pending = new ArrayDeque<>();
+        private boolean closed;
+
+        private Search() {
+        }
+
+        /**
+         * Runs a page as soon as this search's turn comes and a slot is free; the slot is held until the
+         * returned future completes.
+         *
+         * @param page Starts processing the page.
+         */
+        public void execute(Supplier<? extends CompletableFuture<?>> page) {
+            synchronized (CrawlScheduler.this) {
+                pending.addLast(page);
+
+                if (pending.size() == 1)
+                    waiting.addLast(this);
+            }
+
+            drain();
+        }
+
+        /**
+         * Releases the admission of the search. Pages already queued still run.
+         */
+        @Override
+        public void close() {
+            synchronized (CrawlScheduler.this) {
+                if (!closed) {
+                    closed = true;
+                    active--;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.axreng.backend.service;
+
+import com.axreng.backend.util.CrawlExecutors;
+import com.axreng.backend.util.CrawlMetrics;
+import com.axreng.backend.util.UrlFetcher;
+
+/**
+ * Renders the runtime metrics of the crawler in the Prometheus text exposition format.
+ * <p>
+ * Hot-path counters and histograms are recorded lock-free in {@link CrawlMetrics}. Everything else is a
+ * gauge or counter read from the shared components when the metrics are scraped, so it costs nothing
+ * between scrapes: the crawl executor, the {@link CrawlScheduler}, the frontiers of running crawls, the
+ * page cache, the per-host scheduler and the search result registry and log.
+ * </p>
+ *
+ * <h3>Example Output:</h3>
+ * <pre>
+ * # HELP crawler_active_searches Searches running.
+ * # TYPE crawler_active_searches gauge
+ * crawler_active_searches 3
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class MetricsService {
+
+    private MetricsService() {
+    }
+
+    /**
+     * @return Every metric, in the Prometheus text format.
+     */
+    public static String scrape() {
+        var out = new StringBuilder(8 * 1024);
+
+        CrawlMetrics.writeTo(out);
+
+        int capacity = CrawlExecutors.capacity();
+        int active = CrawlExecutors.activeCount();
+        gauge(out, "crawler_executor_active", "Page fetches running on the crawl executor.", active);
+        gauge(out, "crawler_executor_queue_length", "Page fetches waiting for the crawl executor.",
+                CrawlExecutors.queueLength());
+        gauge(out, "crawler_executor_capacity", "Page fetches the crawl executor runs at once.", capacity);
+        gauge(out, "crawler_executor_utilisation", "Share of the crawl executor capacity in use.",
+                capacity == 0 ? 0 : (double) active / capacity);
+
+        var scheduler = SiteQueryProcessorService.crawlScheduler();
+        gauge(out, "crawler_active_searches", "Searches running.", scheduler.getActive());
+        counter(out, "crawler_rejected_searches_total", "Searches refused because too many were running.",
+                scheduler.getRejected());
+        gauge(out, "crawler_page_slots_running", "Pages holding one of the shared page slots.",
+                scheduler.getRunningPages());
+        gauge(out, "crawler_page_slots_queued", "Pages waiting for a shared page slot.", scheduler.getQueuedPages());
+        gauge(out, "crawler_frontier_depth", "Links waiting in the frontiers of running crawls.",
+                SiteQueryProcessorService.frontierDepth());
+
+        var cache = UrlFetcher.pageCache();
+        long hits = cache.getHits();
+        long coalesced = cache.getCoalesced();
+        long lookups = hits + coalesced + cache.getMisses();
+        counter(out, "crawler_page_cache_hits_total", "Page lookups answered from the cache.", hits);
+        counter(out, "crawler_page_cache_coalesced_total", "Page lookups that joined a fetch in flight.", coalesced);
+        counter(out, "crawler_page_cache_misses_total", "Page lookups that sent a request.", cache.getMisses());
+        counter(out, "crawler_page_cache_revalidations_total", "Expired pages reused after a 304 Not Modified.",
+                cache.getRevalidations());
+        counter(out, "crawler_page_cache_evictions_total", "Pages evicted to stay within the size limit.",
+                cache.getEvictions());
+        gauge(out, "crawler_page_cache_hit_ratio", "Share of page lookups answered without a new request.",
+                lookups == 0 ? 0 : (double) (hits + coalesced) / lookups);
+        gauge(out, "crawler_page_cache_entries", "Pages cached.", cache.size());
+        gauge(out, "crawler_page_cache_bytes", "Bytes of the pages cached.", cache.getCurrentBytes());
+
+        var hosts = UrlFetcher.hostScheduler();
+        counter(out, "crawler_host_throttled_total", "Responses 429 or 503 that paused a host.", hosts.getThrottled());
+        counter(out, "crawler_host_delayed_total", "Requests that waited for their host.", hosts.getDelayed());
+        gauge(out, "crawler_host_queued", "Requests waiting for their host.", hosts.getQueued());
+        gauge(out, "crawler_host_in_flight", "Requests in flight to their host, until their body is closed.", hosts.getInFlight());
+
+        var results = SiteQueryProcessorService.searchResults();
+        gauge(out, "crawler_results_entries", "Searches held in the result registry.", results.size());
+        counter(out, "crawler_results_expired_total", "Finished searches dropped after their TTL.", results.getExpired());
+        counter(out, "crawler_results_evicted_total", "Finished searches evicted to stay within the limits.",
+                results.getEvicted());
+
+        var store = results.getStore();
+        if (store != null) {
+            gauge(out, "crawler_results_log_entries", "Searches persisted to the result log.", store.size());
+            gauge(out, "crawler_results_log_bytes", "Bytes used in the result log.", store.getBytesUsed());
+            counter(out, "crawler_results_log_loads_total", "Searches read back from the result log.",
+                    store.getLoads());
+        }
+
+        return out.toString();
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, double value) {
+        metric(out, name, help, "gauge").append(value).append('\n');
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, long value) {
+        metric(out, name, help, "gauge").append(value).append('\n');
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        metric(out, name, help, "counter").append(value).append('\n');
+    }
+
+    private static StringBuilder metric(StringBuilder out, String name, String help, String type) {
+        return out.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(' ').append(type).append('\n')
+                .append(name).append(' ');
+    }
+}
@@ -0,0 +1,109 @@
+package com.axreng.backend.service;
+
+import com.axreng.backend.dto.ResultFetcherDto;
+import com.axreng.backend.enums.Status;
+
+import static com.axreng.backend.util.Constants.gson;
+
+/**
+ * Turns the progress of one search into Server-Sent Events for a single subscriber.
+ * <p>
+ * Each call to {@link #poll(long)} returns the events for the URLs found since the previous call, one
+ * {@code url} event per URL whose {@code id} is its position in the result. That id doubles as the resume
+ * cursor: a client reconnecting with {@code Last-Event-ID} continues where it left off. Once the search is
+ * no longer active, a final {@code status} event is emitted and the stream is finished. While nothing
+ * happens, a comment is sent every {@code heartbeatMillis} so dead connections are noticed.
+ * </p>
+ *
+ * <h3>Example Output:</h3>
+ * <pre>
+ * id: 1
+ * event: url
+ * data: https://ibm.com/index2.html
+ *
+ * event: status
+ * data: {"status":"DONE","total":1}
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class ResultStream {
+
+    private final ResultFetcherDto result;
+    private final long heartbeatMillis;
+    private int cursor;
+    private boolean finished;
+    private long lastEventAt;
+
+    /**
+     * @param result          The search to follow.
+     * @param cursor          The number of URLs the client already has.
+     * @param heartbeatMillis How long the stream may stay silent before a keep-alive comment is sent.
+     */
+    public ResultStream(ResultFetcherDto result, int cursor, long heartbeatMillis) {
+        this.result = result;
+        this.cursor = Math.max(cursor, 0);
+        this.heartbeatMillis = heartbeatMillis;
+        this.lastEventAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Collects the events that became available since the previous call.
+     *
+     * @param now The current time, in epoch milliseconds.
+     * @return The events to send, or {@code null} if there is nothing to send yet.
+     */
+    public String poll(long now) {
+        if (finished)
+            return null;
+
+        var page = result.since(cursor);
+        var events = new StringBuilder();
+
+        for (String url : page.getUrls()) {
+            cursor++;
+            events.append("id: ").append(cursor).append('\n')
+                    .append("event: url\n")
+                    .append("data: ").append(singleLine(url)).append("\n\n");
+        }
+
+        cursor = page.getNext();
+
+        if (page.getStatus() != Status.ACTIVE) {
+            events.append("event: status\n")
+                    .append("data: ").append(gson.toJson(new StatusEvent(page.getStatus(), cursor))).append("\n\n");
+            finished = true;
+        } else if (events.length() == 0 && now - lastEventAt >= heartbeatMillis) {
+            events.append(": keep-alive\n\n");
+        }
+
+        if (events.length() == 0)
+            return null;
+
+        lastEventAt = now;
+        return events.toString();
+    }
+
+    /**
+     * @return {@code true} once the final status event has been produced.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    private static String singleLine(String value) {
+        return value.indexOf('\n') < 0 && value.indexOf('\r') < 0 ? value : value.replaceAll("[\r\n]", "");
+    }
+
+    private static class StatusEvent {
+
+        private final Status status;
+        private final int total;
+
+        StatusEvent(Status status, int total) {
+            this.status = status;
+            this.total = total;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.axreng.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes live search results to every open {@code GET /crawl/:id/stream} connection from one background thread.
+ * <p>
+ * Each connection is an asynchronous servlet request: the Jetty thread that accepted it returns as soon as
+ * the headers are sent, and the connection is then only touched by this broadcaster. Every
+ * {@code intervalMillis} it polls each {@link ResultStream} and writes what is new. Output is written in
+ * non-blocking mode and only when the connection is ready, so one slow client never delays the others;
+ * its events simply accumulate until it can take them.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * var broadcaster = new ResultStreamBroadcaster(100);
+ * var async = request.startAsync();
+ * broadcaster.subscribe(async, new ResultStream(result, 0, 15_000));
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class ResultStreamBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultStreamBroadcaster.class);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Starts the broadcaster thread.
+     *
+     * @param intervalMillis How often new results are pushed.
+     */
+    public ResultStreamBroadcaster(long intervalMillis) {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "result-stream-broadcaster");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::broadcast, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Hands an asynchronous request, whose response headers have already been committed, to the broadcaster.
+     *
+     * @param context The async context of the request.
+     * @param stream  The events to send on it.
+     * @throws IOException If the response output stream cannot be obtained.
+     */
+    public void subscribe(AsyncContext context, ResultStream stream) throws IOException {
+        var subscriber = new Subscriber(context, context.getResponse().getOutputStream(), stream);
+
+        context.addListener(subscriber);
+        subscriber.output.setWriteListener(subscriber);
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * @return The number of open streams.
+     */
+    public int size() {
+        return subscribers.size();
+    }
+
+    private void broadcast() {
+        long now = System.currentTimeMillis();
+
+        for (Subscriber subscriber : subscribers) {
+            try {
+                if (subscriber.pump(now))
+                    close(subscriber);
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Dropping result stream: {}", e.getMessage());
+                close(subscriber);
+            }
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber))
+            return;
+
+        try {
+            subscriber.context.complete();
+        } catch (IllegalStateException e) {
+            logger.debug("Result stream already closed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * One open stream; only the broadcaster thread writes to it.
+     */
+    private class Subscriber implements WriteListener, AsyncListener {
+
+        private final AsyncContext context;
+        private final ServletOutputStream output;
+        private final ResultStream stream;
+        private volatile boolean broken;
+
+        Subscriber(AsyncContext context, ServletOutputStream output, ResultStream stream) {
+            this.context = context;
+            this.output = output;
+            this.stream = stream;
+        }
+
+        /**
+         * Writes the pending events if the connection can take them.
+         *
+         * @return {@code true} once the stream is over and can be completed.
+         */
+        boolean pump(long now) throws IOException {
+            if (broken)
+                return true;
+
+            if (!output.isReady())
+                return false;
+
+            if (stream.isFinished())
+                return true;
+
+            var events = stream.poll(now);
+
+            if (events != null) {
+                output.write(events.getBytes(StandardCharsets.UTF_8));
+
+                if (output.isReady())
+                    output.flush();
+            }
+
+            return false;
+        }
+
+        @Override
+        public void onWritePossible() {
+            // Writes happen on the next broadcast tick.
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            broken = true;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            subscribers.remove(this);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close(this);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            broken = true;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Not restarted.
+        }
+    }
+}
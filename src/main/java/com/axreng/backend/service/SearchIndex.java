@@ -0,0 +1,205 @@
+package com.axreng.backend.service;
+
+import com.axreng.backend.util.KeywordMatcher;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory inverted index of the pages visited by one crawl, used to answer later searches without
+ * crawling again.
+ * <p>
+ * Every page keeps its lowercased text together with a trigram posting list (trigram &rarr; set of page
+ * ids). A search intersects the postings of the keyword's trigrams to find the few candidate pages,
+ * then confirms each candidate with a {@link KeywordMatcher} over its text, so results are exactly the
+ * substring matches a crawl would have reported.
+ * </p>
+ * <p>
+ * One index is published at a time. Only one crawl builds a replacement at once; the others crawl as
+ * usual without indexing.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * var builder = SearchIndex.startBuild("https://ibm.com");
+ * builder.add(url, page.getText());
+ * builder.publish();
+ * List&lt;String&gt; urls = SearchIndex.lookup("https://ibm.com", ttlMillis).search("security");
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class SearchIndex {
+
+    private static final int GRAM = 3;
+
+    private static final AtomicReference<SearchIndex> published = new AtomicReference<>();
+    private static final AtomicBoolean building = new AtomicBoolean();
+
+    private final String startUrl;
+    private final long builtAt;
+    private final List<String> urls;
+    private final List<String> texts;
+    private final Map<Long, BitSet> postings;
+
+    private SearchIndex(String startUrl, List<String> urls, List<String> texts) {
+        this.startUrl = startUrl;
+        this.builtAt = System.currentTimeMillis();
+        this.urls = urls;
+        this.texts = texts;
+        this.postings = new HashMap<>();
+
+        for (int id = 0; id < texts.size(); id++) {
+            var text = texts.get(id);
+
+            for (int i = 0; i + GRAM <= text.length(); i++)
+                postings.computeIfAbsent(trigram(text, i), key -> new BitSet()).set(id);
+        }
+    }
+
+    /**
+     * Finds the indexed pages containing a keyword, ignoring case.
+     *
+     * @param keyword The keyword.
+     * @return The URLs of the matching pages, in the order they were crawled.
+     */
+    public List<String> search(String keyword) {
+        var matcher = new KeywordMatcher(keyword);
+        var candidates = candidates(keyword.toLowerCase());
+        var found = new ArrayList<String>();
+
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1))
+            if (matcher.matches(texts.get(id)))
+                found.add(urls.get(id));
+
+        return found;
+    }
+
+    /**
+     * @return The number of indexed pages.
+     */
+    public int size() {
+        return urls.size();
+    }
+
+    /**
+     * @return When the index was built, in epoch milliseconds.
+     */
+    public long getBuiltAt() {
+        return builtAt;
+    }
+
+    private BitSet candidates(String pattern) {
+        var candidates = new BitSet();
+        candidates.set(0, urls.size());
+
+        for (int i = 0; i + GRAM <= pattern.length() && !candidates.isEmpty(); i++) {
+            var posting = postings.get(trigram(pattern, i));
+
+            if (posting == null)
+                return new BitSet();
+
+            candidates.and(posting);
+        }
+
+        return candidates;
+    }
+
+    private static long trigram(CharSequence text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+
+    /**
+     * Returns the published index for a start URL if it is still fresh.
+     *
+     * @param startUrl  The URL the indexed crawl started from.
+     * @param ttlMillis How long an index is used after being built.
+     * @return The index, or {@code null} if there is none for this URL or it is too old.
+     */
+    public static SearchIndex lookup(String startUrl, long ttlMillis) {
+        var index = published.get();
+
+        if (index == null || !index.startUrl.equals(startUrl))
+            return null;
+
+        return System.currentTimeMillis() - index.builtAt <= ttlMillis ? index : null;
+    }
+
+    /**
+     * Claims the right to build a new index.
+     *
+     * @param startUrl The URL the crawl starts from.
+     * @return A builder, or {@code null} if another crawl is already building an index.
+     */
+    public static Builder startBuild(String startUrl) {
+        return building.compareAndSet(false, true) ? new Builder(startUrl) : null;
+    }
+
+    /**
+     * Drops the published index.
+     */
+    static void clear() {
+        published.set(null);
+    }
+
+    /**
+     * Collects the pages of one crawl; thread-safe.
+     */
+    public static class Builder {
+
+        private final String startUrl;
+        private final List<String> urls = new ArrayList<>();
+        private final List<String> texts = new ArrayList<>();
+        private boolean complete = true;
+
+        private Builder(String startUrl) {
+            this.startUrl = startUrl;
+        }
+
+        /**
+         * Adds a fetched page.
+         *
+         * @param url  The page URL.
+         * @param text The lowercased page text, or {@code null} if it was too long to keep, in which case
+         *             the index cannot be published.
+         */
+        public synchronized void add(String url, String text) {
+            if (text == null) {
+                complete = false;
+                return;
+            }
+
+            urls.add(url);
+            texts.add(text);
+        }
+
+        /**
+         * Builds and publishes the index, unless a page could not be kept, and releases the build claim.
+         */
+        public void publish() {
+            try {
+                synchronized (this) {
+                    if (complete)
+                        published.set(new SearchIndex(startUrl,
+                                Collections.unmodifiableList(urls), Collections.unmodifiableList(texts)));
+                }
+            } finally {
+                building.set(false);
+            }
+        }
+
+        /**
+         * Releases the build claim without publishing anything.
+         */
+        public void abandon() {
+            building.set(false);
+        }
+    }
+}
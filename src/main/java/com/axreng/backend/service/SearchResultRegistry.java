@@ -0,0 +1,277 @@
+package com.axreng.backend.service;
+
+import com.axreng.backend.dto.ResultFetcherDto;
+import com.axreng.backend.enums.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded registry of search results, replacing a map that kept every search forever.
+ * <p>
+ * Active searches are pinned. A finished search (done or failed) is kept for {@code ttlMillis} after it
+ * was first seen finished, and while the registry is over {@code maxEntries} or {@code maxBytes} the
+ * least recently read finished searches are evicted first. Limits are enforced by a background sweep
+ * every {@code sweepIntervalMillis}, and immediately when a new search would exceed {@code maxEntries}.
+ * A sweep over a limit evicts down to 90% of both limits, so that a full registry is not swept again on
+ * the very next insert: the cost of a sweep is spread over a tenth of {@code maxEntries} new searches.
+ * </p>
+ * <p>
+ * With a {@link SearchResultStore}, finished searches are also written to disk through {@link #persist}.
+ * A search that is no longer in memory, because it was dropped or the process restarted, is then read
+ * back from the store on {@link #get} and registered again.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * var registry = new SearchResultRegistry(3_600_000, 10_000, 64 * 1024 * 1024, 30_000);
+ * registry.put(result.getId(), result);
+ * ResultFetcherDto found = registry.get(id);
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.2
+ */
+public class SearchResultRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchResultRegistry.class);
+
+    /**
+     * Rough fixed cost of a registered search (map node, entry, DTO, list), and per URL, in bytes.
+     */
+    private static final int ENTRY_OVERHEAD = 160;
+    private static final int URL_OVERHEAD = 48;
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final int lowWaterEntries;
+    private final long lowWaterBytes;
+    private final SearchResultStore store;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    /**
+     * @param ttlMillis           How long a finished search stays available.
+     * @param maxEntries          Maximum number of searches kept.
+     * @param maxBytes            Maximum estimated size of the searches kept.
+     * @param sweepIntervalMillis How often limits are enforced in the background; {@code 0} disables the sweep.
+     */
+    public SearchResultRegistry(long ttlMillis, int maxEntries, long maxBytes, long sweepIntervalMillis) {
+        this(ttlMillis, maxEntries, maxBytes, sweepIntervalMillis, null);
+    }
+
+    /**
+     * @param ttlMillis           How long a finished search stays in memory.
+     * @param maxEntries          Maximum number of searches kept in memory.
+     * @param maxBytes            Maximum estimated size of the searches kept in memory.
+     * @param sweepIntervalMillis How often limits are enforced in the background; {@code 0} disables the sweep.
+     * @param store               Where finished searches are persisted, or {@code null} to keep them in memory only.
+     */
+    public SearchResultRegistry(long ttlMillis, int maxEntries, long maxBytes, long sweepIntervalMillis,
+                                SearchResultStore store) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.lowWaterEntries = maxEntries - maxEntries / 10;
+        this.lowWaterBytes = maxBytes - maxBytes / 10;
+        this.store = store;
+
+        if (sweepIntervalMillis > 0) {
+            var sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "search-result-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sweeper.scheduleWithFixedDelay(() -> sweep(System.currentTimeMillis()),
+                    sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Registers a search.
+     *
+     * @param id     The search ID.
+     * @param result The search result.
+     */
+    public void put(String id, ResultFetcherDto result) {
+        entries.put(id, new Entry(result, System.currentTimeMillis()));
+
+        if (entries.size() > maxEntries)
+            sweep(System.currentTimeMillis());
+    }
+
+    /**
+     * Writes a finished search to the store, if there is one.
+     *
+     * @param result The search, once its final status is set.
+     */
+    public void persist(ResultFetcherDto result) {
+        if (store != null && !store.append(result))
+            logger.debug("Search {} was not persisted", result.getId());
+    }
+
+    /**
+     * Returns a search and marks it as recently used, reading it back from the store if it is no longer in memory.
+     *
+     * @param id The search ID.
+     * @return The search result, or {@code null} if it is unknown, or expired or evicted and not persisted.
+     */
+    public ResultFetcherDto get(String id) {
+        var entry = entries.get(id);
+
+        if (entry == null)
+            return load(id);
+
+        long now = System.currentTimeMillis();
+
+        if (entry.isExpired(now, ttlMillis)) {
+            if (entries.remove(id, entry))
+                expired.increment();
+            return load(id);
+        }
+
+        entry.lastAccess = now;
+        return entry.result;
+    }
+
+    private ResultFetcherDto load(String id) {
+        if (store == null)
+            return null;
+
+        var result = store.load(id);
+
+        if (result == null)
+            return null;
+
+        var entry = entries.computeIfAbsent(id, key -> new Entry(result, System.currentTimeMillis()));
+
+        if (entries.size() > maxEntries)
+            sweep(System.currentTimeMillis());
+
+        return entry.result;
+    }
+
+    /**
+     * Drops expired searches, then, if over a limit, evicts the least recently read finished searches until
+     * under the low-water marks.
+     *
+     * @param now The current time, in epoch milliseconds.
+     */
+    synchronized void sweep(long now) {
+        var finished = new ArrayList<Map.Entry<String, Entry>>();
+        long bytes = 0;
+
+        for (var mapping : entries.entrySet()) {
+            var entry = mapping.getValue();
+
+            if (entry.isExpired(now, ttlMillis)) {
+                if (entries.remove(mapping.getKey(), entry))
+                    expired.increment();
+                continue;
+            }
+
+            bytes += entry.weight();
+
+            if (entry.finishedAt != 0)
+                finished.add(mapping);
+        }
+
+        int count = entries.size();
+
+        if (count <= maxEntries && bytes <= maxBytes)
+            return;
+
+        finished.sort(Comparator.comparingLong(mapping -> mapping.getValue().lastAccess));
+
+        for (var mapping : finished) {
+            if (count <= lowWaterEntries && bytes <= lowWaterBytes)
+                break;
+
+            if (entries.remove(mapping.getKey(), mapping.getValue())) {
+                bytes -= mapping.getValue().weight();
+                count--;
+                evicted.increment();
+            }
+        }
+
+        if (count > maxEntries || bytes > maxBytes)
+            logger.warn("Search results over budget with only active searches left: {} entries, {} bytes", count, bytes);
+    }
+
+    /**
+     * @return The number of searches registered.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The store finished searches are persisted to, or {@code null} if they are kept in memory only.
+     */
+    public SearchResultStore getStore() {
+        return store;
+    }
+
+    /**
+     * @return The number of finished searches dropped after their TTL.
+     */
+    public long getExpired() {
+        return expired.sum();
+    }
+
+    /**
+     * @return The number of finished searches evicted to stay within the size limits.
+     */
+    public long getEvicted() {
+        return evicted.sum();
+    }
+
+    private static class Entry {
+
+        private final ResultFetcherDto result;
+        private volatile long lastAccess;
+        private volatile long finishedAt;
+        private long weight;
+
+        Entry(ResultFetcherDto result, long now) {
+            this.result = result;
+            this.lastAccess = now;
+        }
+
+        /**
+         * Records when the search was first seen finished and checks it against the TTL.
+         */
+        boolean isExpired(long now, long ttlMillis) {
+            if (finishedAt == 0 && result.getStatus() != Status.ACTIVE)
+                finishedAt = now;
+
+            return finishedAt != 0 && now - finishedAt > ttlMillis;
+        }
+
+        /**
+         * Estimates the memory held by the search; computed once it has finished, since it no longer grows.
+         */
+        long weight() {
+            if (weight != 0)
+                return weight;
+
+            long estimate = ENTRY_OVERHEAD;
+            for (String url : result.getUrls())
+                estimate += URL_OVERHEAD + 2L * url.length();
+
+            if (finishedAt != 0)
+                weight = estimate;
+
+            return estimate;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.axreng.backend.service;
+
+import com.axreng.backend.dto.ResultFetcherDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+import static com.axreng.backend.util.Constants.gson;
+
+/**
+ * Append-only log of finished search results, memory-mapped so they survive a restart without staying on heap.
+ * <p>
+ * Each finished search is appended once as one record; only an id&rarr;offset index is kept in memory,
+ * and it is rebuilt on startup by scanning the record headers. A record is read back, and its JSON parsed,
+ * only when a search is no longer in the {@link SearchResultRegistry}.
+ * </p>
+ * <p>
+ * Record layout: {@code int length | int crc32 | short idLength | id | json}, where {@code length} counts
+ * the bytes after the CRC. The length is written last and the unused tail of the file is zero, so a record
+ * cut short by a crash reads as the end of the log; the CRC catches the rest. The mapping starts small and
+ * doubles as needed up to {@code maxBytes}, after which new results are no longer persisted.
+ * </p>
+ * <p>
+ * Records are written to the mapping and reach the disk when the OS flushes its page cache, or when the
+ * store is {@link #close() closed}, which forces them out; the service closes it from a shutdown hook. A
+ * process crash loses nothing, but a machine crash may lose the records written since the last flush.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * var store = SearchResultStore.open(Path.of("data/results.log"), 1L &lt;&lt; 30);
+ * store.append(result);
+ * ResultFetcherDto found = store.load(result.getId());
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class SearchResultStore implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchResultStore.class);
+
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final long INITIAL_MAPPING_BYTES = 1024 * 1024;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long maxBytes;
+    private final Map<String, Long> offsets = new ConcurrentHashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private volatile MappedByteBuffer buffer;
+    private long position;
+    private boolean full;
+
+    private SearchResultStore(Path path, FileChannel channel, long maxBytes) {
+        this.path = path;
+        this.channel = channel;
+        this.maxBytes = Math.min(maxBytes, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Opens a log, creating it if needed, and indexes the records already in it.
+     *
+     * @param path     The log file.
+     * @param maxBytes The size the log may grow to; capped at 2 GiB.
+     * @return The opened log.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    public static SearchResultStore open(Path path, long maxBytes) throws IOException {
+        if (path.getParent() != null)
+            path.getParent().toFile().mkdirs();
+
+        var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        var store = new SearchResultStore(path, channel, maxBytes);
+
+        try {
+            store.map(Math.max(Math.min(INITIAL_MAPPING_BYTES, store.maxBytes), channel.size()));
+            store.rebuildIndex();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        return store;
+    }
+
+    /**
+     * Appends a finished search. A search appended twice is served from its latest record.
+     *
+     * @param result The finished search.
+     * @return {@code false} if the log is full or closed and the search was not persisted.
+     */
+    public synchronized boolean append(ResultFetcherDto result) {
+        if (full || !channel.isOpen())
+            return false;
+
+        var id = result.getId().getBytes(StandardCharsets.UTF_8);
+        var json = result.toJson().getBytes(StandardCharsets.UTF_8);
+        int length = Short.BYTES + id.length + json.length;
+        long end = position + HEADER_BYTES + length;
+
+        try {
+            if (end > buffer.capacity() && !grow(end)) {
+                full = true;
+                logger.warn("Search result log {} reached {} bytes; finished searches are no longer persisted", path, maxBytes);
+                return false;
+            }
+        } catch (IOException e) {
+            logger.error("Could not grow search result log {}: {}", path, e.getMessage());
+            return false;
+        }
+
+        var crc = new CRC32();
+        crc.update((byte) (id.length >>> 8));
+        crc.update((byte) id.length);
+        crc.update(id);
+        crc.update(json);
+
+        var out = buffer.duplicate();
+        out.position((int) position + Integer.BYTES);
+        out.putInt((int) crc.getValue());
+        out.putShort((short) id.length);
+        out.put(id);
+        out.put(json);
+        buffer.putInt((int) position, length);
+
+        offsets.put(result.getId(), position);
+        position += HEADER_BYTES + length;
+        return true;
+    }
+
+    /**
+     * Reads a persisted search back.
+     *
+     * @param id The search ID.
+     * @return The search, or {@code null} if it was never persisted.
+     */
+    public ResultFetcherDto load(String id) {
+        var offset = offsets.get(id);
+
+        if (offset == null)
+            return null;
+
+        var in = buffer.duplicate();
+        in.position(offset.intValue());
+        int length = in.getInt();
+        in.getInt();
+        int idLength = in.getShort();
+        in.position(in.position() + idLength);
+
+        var json = new byte[length - Short.BYTES - idLength];
+        in.get(json);
+
+        var result = gson.fromJson(new String(json, StandardCharsets.UTF_8), ResultFetcherDto.class);
+        result.setUrls(result.getUrls());
+        loads.increment();
+        return result;
+    }
+
+    /**
+     * @return The number of searches persisted.
+     */
+    public int size() {
+        return offsets.size();
+    }
+
+    /**
+     * @return The number of bytes of the log holding records.
+     */
+    public synchronized long getBytesUsed() {
+        return position;
+    }
+
+    /**
+     * @return The number of searches read back from the log.
+     */
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    /**
+     * Walks the records from the start of the log, stopping at the first empty, truncated or corrupt one.
+     */
+    private synchronized void rebuildIndex() {
+        var in = buffer.duplicate();
+        long offset = 0;
+
+        while (offset + HEADER_BYTES + Short.BYTES <= in.capacity()) {
+            int length = in.getInt((int) offset);
+
+            if (length < Short.BYTES || offset + HEADER_BYTES + length > in.capacity())
+                break;
+
+            int start = (int) offset + HEADER_BYTES;
+            int idLength = in.getShort(start);
+
+            if (idLength <= 0 || idLength > length - Short.BYTES || !checksumMatches(in, offset, length))
+                break;
+
+            var id = new byte[idLength];
+            in.position(start + Short.BYTES);
+            in.get(id);
+
+            offsets.put(new String(id, StandardCharsets.UTF_8), offset);
+            offset += HEADER_BYTES + length;
+        }
+
+        position = offset;
+        logger.info("Search result log {} opened with {} searches ({} bytes)", path, offsets.size(), position);
+    }
+
+    private static boolean checksumMatches(ByteBuffer in, long offset, int length) {
+        var record = in.duplicate();
+        record.position((int) offset + HEADER_BYTES);
+        record.limit((int) offset + HEADER_BYTES + length);
+
+        var crc = new CRC32();
+        crc.update(record);
+        return (int) crc.getValue() == in.getInt((int) offset + Integer.BYTES);
+    }
+
+    /**
+     * Doubles the mapping until {@code end} fits.
+     *
+     * @return {@code false} if that would exceed {@code maxBytes}.
+     */
+    private boolean grow(long end) throws IOException {
+        if (end > maxBytes)
+            return false;
+
+        long capacity = buffer.capacity();
+        while (capacity < end)
+            capacity = Math.min(capacity * 2, maxBytes);
+
+        map(capacity);
+        return true;
+    }
+
+    private void map(long capacity) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+}
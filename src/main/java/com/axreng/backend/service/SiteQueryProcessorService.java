@@ -1,166 +1,596 @@
 package com.axreng.backend.service;
 
+import com.axreng.backend.dto.BatchQueryIdentifierDto;
+import com.axreng.backend.dto.KeywordIdentifierDto;
 import com.axreng.backend.dto.QueryIdentifierDto;
 import com.axreng.backend.dto.ResultFetcherDto;
+import com.axreng.backend.enums.SearchMode;
+import com.axreng.backend.enums.SeenSetMode;
 import com.axreng.backend.enums.Status;
 import com.axreng.backend.exception.MissingBaseUrlException;
+import com.axreng.backend.exception.SearchCapacityExceededException;
+import com.axreng.backend.util.CrawlEvents;
+import com.axreng.backend.util.CrawlExecutors;
+import com.axreng.backend.util.CrawlMetrics;
+import com.axreng.backend.util.CrawlScope;
+import com.axreng.backend.util.EnvironmentUtil;
+import com.axreng.backend.util.KeywordMatcher;
+import com.axreng.backend.util.MultiKeywordMatcher;
+import com.axreng.backend.util.PageScanner;
 import com.axreng.backend.util.SearchIdGenerator;
+import com.axreng.backend.util.SearchStats;
+import com.axreng.backend.util.SeenSet;
 import com.axreng.backend.util.UriUtil;
 import com.axreng.backend.util.UrlFetcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 import static com.axreng.backend.util.Constants.*;
 
 /**
  * Service responsible for processing site queries asynchronously by searching for a given term across web pages.
- * Each search runs in a separate thread using a thread pool.
+ * Each search fans its page fetches out over several pool threads through a {@link CrawlCoordinator}.
+ * Searches are admitted by a {@link CrawlScheduler} shared by all of them, which refuses new ones beyond
+ * {@code MAX_ACTIVE_SEARCHES} and gives their pages the {@code MAX_CONCURRENT_PAGES} slots in turn.
+ * <p>
+ * A batch of terms shares a single crawl: every page is matched against all of them in one pass with a
+ * {@link MultiKeywordMatcher}, and each term gets its own search ID and result.
+ * </p>
+ * <p>
+ * In {@link SearchMode#INDEX} mode, a search whose start URL has a fresh {@link SearchIndex} is answered
+ * from it immediately, without crawling. Otherwise the crawl keeps the text of the pages it visits and
+ * publishes a new index when it finishes.
+ * </p>
+ * <p>
+ * When {@code RESULTS_LOG_PATH} is set, every finished search is also appended to a {@link SearchResultStore},
+ * so its ID keeps answering after a restart.
+ * </p>
+ * <p>
+ * Page timings are recorded in {@link CrawlMetrics}, and the frontiers of running crawls are tracked for
+ * {@link #frontierDepth()}. Each page is also recorded as {@link CrawlEvents.Page} and {@link CrawlEvents.Scan}
+ * flight recorder events carrying the search IDs. The progress and timing of the crawl are kept in a
+ * {@link SearchStats} shared by the results of its searches.
+ * </p>
  *
  * @author Jean Fernandes
- * @version 1.3
+ * @version 1.9
  */
 public class SiteQueryProcessorService {
 
     private static final Logger logger = LoggerFactory.getLogger(SiteQueryProcessorService.class);
 
-    private final Set<String> visitedUrls;
-    private final Queue<String> queue;
-    private final String searchTerm;
-    private final String baseUrl;
+    private static final long SEARCH_INDEX_TTL_MS =
+            EnvironmentUtil.getLong("SEARCH_INDEX_TTL_MS", DEFAULT_SEARCH_INDEX_TTL_MS);
+
+    private static final SearchResultRegistry searchResults = new SearchResultRegistry(
+            EnvironmentUtil.getLong("RESULTS_TTL_MS", DEFAULT_RESULTS_TTL_MS),
+            EnvironmentUtil.getInt("RESULTS_MAX_ENTRIES", DEFAULT_RESULTS_MAX_ENTRIES),
+            EnvironmentUtil.getLong("RESULTS_MAX_BYTES", DEFAULT_RESULTS_MAX_BYTES),
+            RESULTS_SWEEP_INTERVAL_MS,
+            openResultStore());
+
+    private static final CrawlScheduler crawlScheduler = new CrawlScheduler(
+            EnvironmentUtil.getInt("MAX_ACTIVE_SEARCHES", DEFAULT_MAX_ACTIVE_SEARCHES),
+            maxConcurrentPages());
+
+    private static final Set<CrawlFrontier> activeFrontiers = ConcurrentHashMap.newKeySet();
+
+    private final String startUrl;
+    private final List<String> searchTerms;
+    private final CrawlScope scope;
     private final SearchIdGenerator searchIdGenerator;
     private final UriUtil uriUtil;
-    private final ResultFetcherDto result;
+    private final PageScanner pageScanner;
+    private final PageScanner indexingScanner;
+    private final SearchMode searchMode;
+    private final List<ResultFetcherDto> results;
+    private final CrawlFrontier frontier;
+    private CrawlCoordinator coordinator;
+    private final CompletableFuture<Void> completion;
+    private volatile SearchIndex.Builder indexBuilder;
+    private volatile String searchIds;
+    private volatile SearchStats stats;
     private Instant startProccesTime;
 
     /**
-     * Initializes the site query processor with the specified search term.
+     * Initializes the site query processor with the specified search term, starting from {@code BASE_URL}.
      *
      * @param searchTerm The keyword to search for within the pages.
-     * @throws IllegalArgumentException if the base URL is not set in the environment.
+     * @throws MissingBaseUrlException if the base URL is not set in the environment.
      */
     public SiteQueryProcessorService(String searchTerm) {
+        this(searchTerm, defaultSeenSetMode());
+    }
+
+    /**
+     * Initializes the site query processor with the specified search term and dedup mode, starting from {@code BASE_URL}.
+     *
+     * @param searchTerm The keyword to search for within the pages.
+     * @param seenSetMode How the crawl remembers the URLs it has discovered.
+     * @throws MissingBaseUrlException if the base URL is not set in the environment.
+     */
+    public SiteQueryProcessorService(String searchTerm, SeenSetMode seenSetMode) {
+        this(searchTerm, System.getenv().get("BASE_URL"), seenSetMode);
+    }
+
+    /**
+     * Initializes the site query processor with the specified search term and start URL.
+     *
+     * @param searchTerm The keyword to search for within the pages.
+     * @param startUrl   The first page to crawl; its host bounds the crawl.
+     * @throws MissingBaseUrlException if the start URL is null or empty.
+     */
+    public SiteQueryProcessorService(String searchTerm, String startUrl) {
+        this(searchTerm, startUrl, defaultSeenSetMode());
+    }
+
+    /**
+     * Initializes the site query processor with the specified search term, start URL and dedup mode.
+     *
+     * @param searchTerm  The keyword to search for within the pages.
+     * @param startUrl    The first page to crawl; its host bounds the crawl.
+     * @param seenSetMode How the crawl remembers the URLs it has discovered.
+     * @throws MissingBaseUrlException if the start URL is null or empty.
+     */
+    public SiteQueryProcessorService(String searchTerm, String startUrl, SeenSetMode seenSetMode) {
+        this(searchTerm, startUrl, seenSetMode, defaultSearchMode());
+    }
+
+    /**
+     * Initializes the site query processor with the specified search term, start URL, dedup mode and search mode.
+     *
+     * @param searchTerm  The keyword to search for within the pages.
+     * @param startUrl    The first page to crawl; its host bounds the crawl.
+     * @param seenSetMode How the crawl remembers the URLs it has discovered.
+     * @param searchMode  Whether the search may be answered from, and feed, the {@link SearchIndex}.
+     * @throws MissingBaseUrlException if the start URL is null or empty.
+     */
+    public SiteQueryProcessorService(String searchTerm, String startUrl, SeenSetMode seenSetMode,
+                                     SearchMode searchMode) {
+        this(List.of(searchTerm), startUrl, seenSetMode, searchMode);
+    }
+
+    /**
+     * Initializes a batch of searches sharing one crawl, starting from {@code BASE_URL}.
+     *
+     * @param searchTerms The keywords to search for within the pages.
+     * @param seenSetMode How the crawl remembers the URLs it has discovered.
+     * @throws MissingBaseUrlException if the base URL is not set in the environment.
+     */
+    public SiteQueryProcessorService(List<String> searchTerms, SeenSetMode seenSetMode) {
+        this(searchTerms, System.getenv().get("BASE_URL"), seenSetMode, defaultSearchMode());
+    }
+
+    /**
+     * Initializes a batch of searches sharing one crawl.
+     *
+     * @param searchTerms The keywords to search for within the pages; must not be empty.
+     * @param startUrl    The first page to crawl; its host bounds the crawl.
+     * @param seenSetMode How the crawl remembers the URLs it has discovered.
+     * @param searchMode  Whether the searches may be answered from, and feed, the {@link SearchIndex}.
+     * @throws MissingBaseUrlException if the start URL is null or empty.
+     */
+    public SiteQueryProcessorService(List<String> searchTerms, String startUrl, SeenSetMode seenSetMode,
+                                     SearchMode searchMode) {
         logger.info("Initializing site query processor...");
 
-        this.result = new ResultFetcherDto();
-        this.visitedUrls = Collections.synchronizedSet(new HashSet<>());
-        this.queue = new ConcurrentLinkedQueue<>();
+        this.results = new ArrayList<>(searchTerms.size());
+        searchTerms.forEach(term -> results.add(new ResultFetcherDto()));
+        this.frontier = new CrawlFrontier(SeenSet.create(seenSetMode, MAX_PAGES), MAX_PAGES);
         this.uriUtil = new UriUtil();
         this.searchIdGenerator = new SearchIdGenerator();
-
-        var startUrl = System.getenv().get("BASE_URL");
+        this.completion = new CompletableFuture<>();
 
         if (Objects.isNull(startUrl) || startUrl.isBlank())
             throw new MissingBaseUrlException("BASE_URL environment variable is not set or empty.");
 
         logger.info("Base URL: {}", startUrl);
-        this.searchTerm = searchTerm.toLowerCase();
-        this.baseUrl = uriUtil.extractBaseUrl(startUrl);
+        this.searchTerms = List.copyOf(searchTerms);
 
-        logger.info("Adding initial URL to queue: {}", startUrl);
-        queue.add(startUrl);
+        if (searchTerms.size() == 1) {
+            var matcher = new KeywordMatcher(searchTerms.get(0));
+            this.pageScanner = new PageScanner(matcher);
+            this.indexingScanner = new PageScanner(matcher, MAX_INDEXED_PAGE_CHARS);
+        } else {
+            var matcher = new MultiKeywordMatcher(searchTerms);
+            this.pageScanner = new PageScanner(matcher, 0);
+            this.indexingScanner = new PageScanner(matcher, MAX_INDEXED_PAGE_CHARS);
+        }
+        this.searchMode = searchMode;
+        this.scope = CrawlScope.forBaseUrl(uriUtil.extractBaseUrl(startUrl));
+        this.startUrl = startUrl;
     }
 
     /**
      * Initiates an asynchronous search process.
      *
      * @return A {@link QueryIdentifierDto} containing the generated search ID.
+     * @throws SearchCapacityExceededException if {@code MAX_ACTIVE_SEARCHES} searches are already running.
      */
     public QueryIdentifierDto startSearchAsync() {
-        var searchId = searchIdGenerator.generateSearchId();
-        result.setId(searchId);
-        searchResults.put(searchId, result);
+        startSearches();
+        return new QueryIdentifierDto(results.get(0).getId());
+    }
 
-        CompletableFuture.runAsync(this::executeSearch, executorService)
+    /**
+     * Initiates the searches of a batch, which share one crawl.
+     *
+     * @return The search ID generated for each term, in the order the terms were given.
+     * @throws SearchCapacityExceededException if {@code MAX_ACTIVE_SEARCHES} searches are already running.
+     */
+    public BatchQueryIdentifierDto startBatchSearchAsync() {
+        startSearches();
+
+        var searches = new ArrayList<KeywordIdentifierDto>(results.size());
+        for (int i = 0; i < results.size(); i++)
+            searches.add(new KeywordIdentifierDto(searchTerms.get(i), results.get(i).getId()));
+
+        return new BatchQueryIdentifierDto(searches);
+    }
+
+    /**
+     * Registers one result per search term and starts the crawl, or answers from the index.
+     *
+     * @throws SearchCapacityExceededException if {@code MAX_ACTIVE_SEARCHES} searches are already running.
+     */
+    private void startSearches() {
+        var admission = crawlScheduler.admit();
+
+        if (admission == null)
+            throw new SearchCapacityExceededException(TOO_MANY_ACTIVE_SEARCHES, SEARCH_RETRY_AFTER_SECONDS);
+
+        completion.whenComplete((res, ex) -> admission.close());
+
+        try {
+            startAdmittedSearches(admission);
+        } catch (RuntimeException | Error e) {
+            abortStart(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Registers the results and starts the crawl of searches already admitted.
+     *
+     * @param admission The admission of the searches, released once {@link #completion} completes.
+     */
+    private void startAdmittedSearches(CrawlScheduler.Search admission) {
+        this.coordinator = new CrawlCoordinator(frontier, this::processUrlAsync, CRAWL_PARALLELISM, MAX_PAGES, admission);
+
+        stats = new SearchStats(frontier::size);
+
+        for (ResultFetcherDto result : results) {
+            var searchId = searchIdGenerator.generateSearchId();
+            result.setId(searchId);
+            result.setStats(stats);
+            searchResults.put(searchId, result);
+        }
+
+        searchIds = results.stream().map(ResultFetcherDto::getId).collect(Collectors.joining(","));
+
+        if (searchMode == SearchMode.INDEX) {
+            var index = SearchIndex.lookup(startUrl, SEARCH_INDEX_TTL_MS);
+
+            if (index != null) {
+                answerFromIndex(index);
+                return;
+            }
+
+            indexBuilder = SearchIndex.startBuild(startUrl);
+        }
+
+        activeFrontiers.add(frontier);
+
+        executeSearch()
                 .whenComplete((res, ex) -> {
+                    activeFrontiers.remove(frontier);
+                    stats.finish();
+
                     if (ex != null) {
                         logger.error("Error during search execution: {}", ex.getMessage(), ex);
-                        result.setStatus(Status.FAILED);
+                        results.forEach(result -> result.setStatus(Status.FAILED));
+                        results.forEach(searchResults::persist);
+                        if (indexBuilder != null)
+                            indexBuilder.abandon();
                     } else {
+                        if (indexBuilder != null)
+                            indexBuilder.publish();
                         finalizeSearch();
                         logger.info("Starting: {}", this.startProccesTime);
                         logger.info("Finishing: {}", Instant.now());
 
                     }
+                    completion.complete(null);
                 });
-
-        return new QueryIdentifierDto(searchId);
     }
 
     /**
-     * Executes the search process asynchronously.
+     * Undoes a start that failed before the crawl was running, so that the admission is released instead of
+     * being held forever, and the searches already registered do not stay in progress.
+     *
+     * @param cause Why the start failed.
      */
-    private void executeSearch() {
-        logger.info("Starting search process asynchronously...");
-        startProccesTime = Instant.now();
-        int pagesVisited = 0;
+    private void abortStart(Throwable cause) {
+        logger.error("Could not start search: {}", cause.getMessage(), cause);
+        activeFrontiers.remove(frontier);
+
+        if (stats != null)
+            stats.finish();
+        if (indexBuilder != null)
+            indexBuilder.abandon();
+
+        for (ResultFetcherDto result : results) {
+            if (result.getId() != null)
+                result.setStatus(Status.FAILED);
+        }
+
+        completion.completeExceptionally(cause);
+    }
 
-        while (!queue.isEmpty() && pagesVisited < MAX_PAGES) {
-            String url = queue.poll();
+    /**
+     * Completes every search with the pages of the index that contain its term.
+     *
+     * @param index A fresh index of the start URL.
+     */
+    private void answerFromIndex(SearchIndex index) {
+        stats.finish();
 
-            if (url == null || visitedUrls.contains(url))
-                continue;
+        for (int i = 0; i < results.size(); i++) {
+            var result = results.get(i);
+            var urls = index.search(searchTerms.get(i));
 
-            processUrl(url);
-            pagesVisited++;
+            result.getUrls().addAll(urls);
+            result.setStatus(Status.DONE);
+            searchResults.persist(result);
+            logger.info("Search {} answered from the index of {} pages: {} matches", result.getId(), index.size(), urls.size());
         }
+
+        completion.complete(null);
+    }
+
+    /**
+     * @return A future completed once the search has finished, successfully or not, and its final
+     * status has been published.
+     */
+    public CompletableFuture<Void> completion() {
+        return completion;
     }
 
     /**
-     * Processes a single URL by fetching its content, checking for the search term,
-     * and extracting new links to visit.
+     * Executes the search process asynchronously, crawling up to {@link com.axreng.backend.util.Constants#MAX_PAGES}
+     * pages with {@link com.axreng.backend.util.Constants#CRAWL_PARALLELISM} concurrent workers.
+     *
+     * @return A future completed when the crawl has terminated.
+     */
+    private CompletableFuture<Void> executeSearch() {
+        logger.info("Starting search process asynchronously...");
+        startProccesTime = Instant.now();
+
+        var seedUrl = uriUtil.canonicalize(startUrl);
+        logger.info("Adding initial URL to queue: {}", seedUrl);
+        return coordinator.start(seedUrl);
+    }
+
+    /**
+     * Fetches a page without holding a worker thread while waiting for the response, then scans
+     * its body as it streams in on the executor configured in {@link CrawlExecutors}.
      *
      * @param url The URL to process.
+     * @return A future completed with the links discovered on the page.
      */
-    private void processUrl(String url) {
+    private CompletableFuture<Set<String>> processUrlAsync(String url) {
         logger.info("Processing URL: {}", url);
-        visitedUrls.add(url);
 
-        try {
-            var content = UrlFetcher.fetchContent(url);
+        var scanner = indexBuilder == null ? pageScanner : indexingScanner;
+        var event = new CrawlEvents.Page();
+        event.begin();
+        long start = System.nanoTime();
+        var bodyReceived = new AtomicBoolean();
 
-            if (content == null) {
-                logger.warn("Skipping URL due to fetch error: {}", url);
-                return;
-            }
+        return UrlFetcher.fetchAsync(url, (body, charset) -> scan(url, scanner, body, charset, start, bodyReceived),
+                        CrawlExecutors.executor(), stats.bytesReceivedCounter())
+                .thenApply(page -> {
+                    // A page whose body was received had its fetch time added when the scan started, even if the scan failed.
+                    if (!bodyReceived.get())
+                        stats.addFetchNanos(System.nanoTime() - start);
 
-            if (content.toLowerCase().contains(searchTerm)) {
-                result.getUrls().add(url);
-                logger.info("Search term '{}' found in: {}", searchTerm, url);
-            }
+                    var links = processPage(url, page);
+                    stats.recordPage(page != null);
+                    CrawlMetrics.recordPage(page != null, System.nanoTime() - start);
+
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.url = url;
+                        event.searchIds = searchIds;
+                        event.fetched = page != null;
+                        event.characters = page == null ? 0 : page.getCharacters();
+                        event.links = links.size();
+                        event.commit();
+                    }
+
+                    return links;
+                });
+    }
+
+    /**
+     * Scans a page body for links and search terms, recorded as a {@link CrawlEvents.Scan} flight recorder event.
+     * The time since the page was requested is added to the fetch time of the search, and the scan to its scan time.
+     *
+     * @param bodyReceived Set once the fetch time has been added.
+     */
+    private PageScanner.Result scan(String url, PageScanner scanner, InputStream body, Charset charset, long requestedAt,
+                                    AtomicBoolean bodyReceived) throws IOException {
+        var event = new CrawlEvents.Scan();
+        event.begin();
+        long start = System.nanoTime();
+        stats.addFetchNanos(start - requestedAt);
+        bodyReceived.set(true);
 
-            uriUtil.extractLinks(url, content, baseUrl).forEach(link -> {
-                if (!visitedUrls.contains(link) && !queue.contains(link)) {
-                    queue.add(link);
-                    logger.debug("Added new link to queue: {}", link);
-                }
-            });
+        var result = scanner.scan(body, charset);
 
-        } catch (Exception e) {
-            logger.error("Error accessing URL: {} - Message: {}", url, e.getMessage(), e);
+        stats.addScanNanos(System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.url = url;
+            event.searchIds = searchIds;
+            event.characters = result.getCharacters();
+            event.links = result.getHrefs().size();
+            event.matches = result.getMatches().cardinality();
+            event.commit();
         }
+
+        return result;
+    }
+
+    /**
+     * Records a page as a result of every search whose term it contains and resolves the links found on it.
+     *
+     * @param url  The URL the page was fetched from.
+     * @param page The outcome of scanning the page, or {@code null} if it could not be fetched.
+     * @return The links found on the page, or an empty set if the page could not be fetched.
+     */
+    private Set<String> processPage(String url, PageScanner.Result page) {
+        if (page == null) {
+            logger.warn("Skipping URL due to fetch error: {}", url);
+            return Collections.emptySet();
+        }
+
+        var matches = page.getMatches();
+
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            results.get(i).getUrls().add(url);
+            logger.info("Search term '{}' found in: {}", searchTerms.get(i), url);
+        }
+
+        if (indexBuilder != null)
+            indexBuilder.add(url, page.getText());
+
+        long start = System.nanoTime();
+        var links = uriUtil.resolveLinks(url, page.getBaseHref(), page.getHrefs(), scope);
+        stats.addLinkResolutionNanos(System.nanoTime() - start);
+        return links;
     }
 
     /**
      * Finalizes the search process by setting the final status and logging statistics.
      */
     private void finalizeSearch() {
-        result.setStatus(Status.DONE);
-        logger.info("Search completed. Search ID: {}", result.getId());
-        logger.info("Total pages visited: {}", visitedUrls.size());
-        logger.info("Queue size: {}", queue.size());
-        logger.info("Pages containing the term: {}", result.getUrls().size());
+        results.forEach(result -> result.setStatus(Status.DONE));
+        results.forEach(searchResults::persist);
+        logger.info("Total pages visited: {}", coordinator.getPagesVisited());
+        logger.info("Queue size: {}", coordinator.getFrontierSize());
+
+        for (ResultFetcherDto result : results) {
+            logger.info("Search completed. Search ID: {}", result.getId());
+            logger.info("Pages containing the term: {}", result.getUrls().size());
+        }
+    }
+
+    /**
+     * @return The dedup mode used when a search does not choose one, from {@code SEEN_SET_MODE}.
+     */
+    public static SeenSetMode defaultSeenSetMode() {
+        return SeenSetMode.fromValue(EnvironmentUtil.getString("SEEN_SET_MODE", SeenSetMode.EXACT.getValue()));
+    }
+
+    /**
+     * @return The search mode used by new searches, from {@code SEARCH_MODE}.
+     */
+    public static SearchMode defaultSearchMode() {
+        return SearchMode.fromValue(EnvironmentUtil.getString("SEARCH_MODE", SearchMode.CRAWL.getValue()));
+    }
+
+    /**
+     * Reads {@code MAX_CONCURRENT_PAGES}, which defaults to the number of fetches the crawl executor runs at
+     * once, so the shared slots never hold back pages the executor could run, while every search keeps
+     * its {@code CRAWL_PARALLELISM} workers until the searches together want more than that.
+     *
+     * @return The number of pages processed at once across every search.
+     */
+    private static int maxConcurrentPages() {
+        int configured = EnvironmentUtil.getInt("MAX_CONCURRENT_PAGES", DEFAULT_MAX_CONCURRENT_PAGES);
+
+        if (configured > 0)
+            return configured;
+
+        CrawlExecutors.executor();
+        return Math.max(CrawlExecutors.capacity(), CRAWL_PARALLELISM);
+    }
+
+    /**
+     * Opens the log finished searches are persisted to, from {@code RESULTS_LOG_PATH}.
+     *
+     * @return The opened log, or {@code null} if persistence is disabled or the log cannot be opened.
+     */
+    private static SearchResultStore openResultStore() {
+        var path = EnvironmentUtil.getString("RESULTS_LOG_PATH", "");
+
+        if (path.isBlank())
+            return null;
+
+        try {
+            var store = SearchResultStore.open(Path.of(path),
+                    EnvironmentUtil.getLong("RESULTS_LOG_MAX_BYTES", DEFAULT_RESULTS_LOG_MAX_BYTES));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> closeResultStore(store), "results-log-close"));
+            return store;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Could not open search result log {}, results will not survive a restart: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Flushes the result log to disk and closes it, on shutdown. Records appended since the last flush are
+     * otherwise only in the OS page cache, and lost if the machine, not just the process, goes down.
+     */
+    private static void closeResultStore(SearchResultStore store) {
+        try {
+            store.close();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Could not flush search result log: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return The scheduler admitting searches and sharing page slots between them.
+     */
+    public static CrawlScheduler crawlScheduler() {
+        return crawlScheduler;
+    }
+
+    /**
+     * @return The number of links waiting in the frontiers of the running crawls.
+     */
+    public static long frontierDepth() {
+        long depth = 0;
+        for (CrawlFrontier frontier : activeFrontiers)
+            depth += frontier.size();
+        return depth;
+    }
+
+    /**
+     * @return The registry holding the results of recent searches.
+     */
+    public static SearchResultRegistry searchResults() {
+        return searchResults;
     }
 
     /**
      * Retrieves the current search result for a given search ID.
      *
      * @param searchId The search ID.
-     * @return The {@link ResultFetcherDto} containing the current search progress or null if not found.
+     * @return The {@link ResultFetcherDto} containing the current search progress, or null if not found, expired or evicted.
      */
     public static ResultFetcherDto getSearchResult(String searchId) {
         return searchResults.get(searchId);
@@ -0,0 +1,98 @@
+package com.axreng.backend.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * List that only grows, written under a lock and read without one.
+ * <p>
+ * Elements are stored in fixed-size chunks that are never moved once allocated, so adding an element
+ * never copies the ones already published. The size is published through a {@code volatile} write after
+ * the element is stored; a reader that observes a size therefore also observes every element below it.
+ * Reads and iteration take no lock and never throw {@link java.util.ConcurrentModificationException};
+ * an iterator sees the elements published up to the moment it reaches the end.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * var urls = new AppendOnlyList&lt;String&gt;();
+ * urls.add("https://ibm.com");          // crawl threads
+ * String first = urls.get(0);           // request threads, lock-free
+ * </pre>
+ *
+ * @param <T> The element type.
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class AppendOnlyList<T> extends AbstractList<T> implements RandomAccess {
+
+    private static final int CHUNK_BITS = 5;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private volatile Object[][] chunks = new Object[1][];
+    private volatile int size;
+
+    public AppendOnlyList() {
+    }
+
+    /**
+     * @param elements The initial elements.
+     */
+    public AppendOnlyList(Collection<? extends T> elements) {
+        addAll(elements);
+    }
+
+    @Override
+    public synchronized boolean add(T element) {
+        store(size, element);
+        size++;
+        return true;
+    }
+
+    /**
+     * Appends every element and publishes them at once, so readers see either none or all of them.
+     */
+    @Override
+    public synchronized boolean addAll(Collection<? extends T> elements) {
+        int index = size;
+
+        for (T element : elements)
+            store(index++, element);
+
+        boolean changed = index != size;
+        size = index;
+        return changed;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+        return (T) chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void store(int index, T element) {
+        var directory = chunks;
+        int chunk = index >>> CHUNK_BITS;
+
+        if (chunk == directory.length) {
+            directory = Arrays.copyOf(directory, directory.length * 2);
+            chunks = directory;
+        }
+
+        if (directory[chunk] == null)
+            directory[chunk] = new Object[CHUNK_SIZE];
+
+        directory[chunk][index & CHUNK_MASK] = element;
+    }
+}
@@ -0,0 +1,94 @@
+package com.axreng.backend.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Approximate {@link SeenSet} backed by a fixed-size Bloom filter.
+ * <p>
+ * Memory is fixed up front from the expected number of URLs and the target false-positive rate
+ * (about 2.4 bytes per expected URL at 1 in 10,000), and never grows. The trade-off is that a URL never
+ * seen before may occasionally be reported as seen and therefore skipped; a URL that was seen is never
+ * crawled twice. This suits very deep crawls where losing a handful of pages is acceptable.
+ * </p>
+ * <p>
+ * Bits are set with compare-and-swap. Adds of the same URL are serialized on a lock stripe chosen by its
+ * fingerprint, so concurrent discoveries of one link still yield a single {@code true}.
+ * </p>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class BloomSeenSet implements SeenSet {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicInteger size = new AtomicInteger();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    /**
+     * @param expectedUrls          The number of URLs the filter is sized for.
+     * @param falsePositiveRate     The target probability of reporting an unseen URL as seen.
+     */
+    public BloomSeenSet(int expectedUrls, double falsePositiveRate) {
+        int n = Math.max(1, expectedUrls);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+
+        this.bitCount = Math.max(Long.SIZE, (m + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.bits = new AtomicLongArray(Math.toIntExact(bitCount / Long.SIZE));
+
+        for (int i = 0; i < LOCK_STRIPES; i++)
+            locks[i] = new Object();
+    }
+
+    @Override
+    public boolean add(String url) {
+        long fingerprint = UrlFingerprint.of(url);
+        int h1 = (int) fingerprint;
+        int h2 = (int) (fingerprint >>> 32);
+        boolean added = false;
+
+        synchronized (locks[(int) (fingerprint >>> 58)]) {
+            for (int i = 1; i <= hashCount; i++) {
+                int combined = h1 + i * h2;
+
+                if (combined < 0)
+                    combined = ~combined;
+
+                added |= setBit(combined % bitCount);
+            }
+        }
+
+        if (added)
+            size.incrementAndGet();
+
+        return added;
+    }
+
+    /**
+     * @return The number of URLs accepted as new; false positives are not counted.
+     */
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    private boolean setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+
+        while (true) {
+            long current = bits.get(word);
+
+            if ((current & mask) != 0)
+                return false;
+
+            if (bits.compareAndSet(word, current, current | mask))
+                return true;
+        }
+    }
+}
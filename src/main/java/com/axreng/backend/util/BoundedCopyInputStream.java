@@ -0,0 +1,110 @@
+package com.axreng.backend.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Keeps a copy of the bytes read through it, up to a limit.
+ * <p>
+ * Once more than {@code limit} bytes have gone through, the copy is dropped and the stream keeps passing
+ * bytes on without copying them, so a large body costs no more memory than when it is only streamed.
+ * </p>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+class BoundedCopyInputStream extends FilterInputStream {
+
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+
+    private final long limit;
+    private byte[] copy;
+    private int count;
+    private boolean eof;
+
+    /**
+     * @param in            The stream to read.
+     * @param limit         The most bytes copied; a longer stream is not copied at all.
+     * @param contentLength The announced length of the stream, or a negative value if unknown.
+     */
+    BoundedCopyInputStream(InputStream in, long limit, long contentLength) {
+        super(in);
+        this.limit = limit;
+
+        if (contentLength <= limit)
+            this.copy = new byte[(int) (contentLength >= 0 ? contentLength : Math.min(INITIAL_CAPACITY, limit))];
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+
+        if (b < 0)
+            eof = true;
+        else if (copy != null)
+            append(new byte[]{(byte) b}, 0, 1);
+
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+
+        if (n < 0)
+            eof = true;
+        else if (n > 0 && copy != null)
+            append(b, off, n);
+
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        var skipped = new byte[(int) Math.min(n, INITIAL_CAPACITY)];
+        int read = read(skipped, 0, skipped.length);
+        return Math.max(read, 0);
+    }
+
+    /**
+     * Reads the rest of the stream into the copy, unless the copy has already been dropped.
+     *
+     * @throws IOException If reading fails.
+     */
+    void drain() throws IOException {
+        var buffer = new byte[INITIAL_CAPACITY];
+
+        while (copy != null && read(buffer, 0, buffer.length) >= 0) {
+            // read() appends to the copy
+        }
+    }
+
+    /**
+     * @return {@code true} if the whole stream has been read and copied.
+     */
+    boolean isComplete() {
+        return eof && copy != null;
+    }
+
+    /**
+     * @return The bytes copied.
+     */
+    byte[] toByteArray() {
+        return count == copy.length ? copy : Arrays.copyOf(copy, count);
+    }
+
+    private void append(byte[] b, int off, int len) {
+        if (count + (long) len > limit) {
+            copy = null;
+            return;
+        }
+
+        if (count + len > copy.length)
+            copy = Arrays.copyOf(copy, (int) Math.min(limit, Math.max(count + len, 2L * copy.length)));
+
+        System.arraycopy(b, off, copy, count, len);
+        count += len;
+    }
+}
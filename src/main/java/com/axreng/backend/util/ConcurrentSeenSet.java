@@ -0,0 +1,28 @@
+package com.axreng.backend.util;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link SeenSet} that keeps every URL string in a lock-free {@link ConcurrentHashMap} key set.
+ * <p>
+ * This is exact and fast, and is the default for regular crawls.
+ * </p>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class ConcurrentSeenSet implements SeenSet {
+
+    private final Set<String> urls = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public boolean add(String url) {
+        return urls.add(url);
+    }
+
+    @Override
+    public int size() {
+        return urls.size();
+    }
+}
@@ -1,14 +1,8 @@
 package com.axreng.backend.util;
 
-import com.axreng.backend.dto.ResultFetcherDto;
 import com.google.gson.Gson;
 
 import java.security.SecureRandom;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.regex.Pattern;
 
 public class Constants {
 
@@ -16,19 +10,55 @@ public class Constants {
     public static final String SEARCH_ID_NOT_FOUND = "Search ID not found";
     public static final String SEARCH_ID_CANNOT_BE_NULL = "Search ID cannot be null!";
     public static final String CONTENT_TYPE_JSON = "application/json";
+    public static final String CONTENT_TYPE_EVENT_STREAM = "text/event-stream;charset=utf-8";
+    public static final String CONTENT_TYPE_PROMETHEUS = "text/plain; version=0.0.4; charset=utf-8";
     public static final String KEYWORD_CANNOT_BE_NULL_OR_EMPTY = "Keyword cannot be null or empty";
     public static final String THE_SEARCH_TERM_MUST_BE_BETWEEN_4_AND_32_CHARACTERS = "The search term must be between 4 and 32 characters.";
+    public static final String INVALID_CURSOR = "The 'since' parameter must be a non-negative integer.";
+    public static final String KEYWORDS_CANNOT_BE_NULL_OR_EMPTY = "Keywords cannot be null or empty";
+    public static final String TOO_MANY_KEYWORDS = "A batch can contain at most " + Constants.MAX_BATCH_KEYWORDS + " keywords.";
+    public static final String TOO_MANY_ACTIVE_SEARCHES = "Too many searches are running, retry later.";
     public static final int ID_LENGTH = 8;
     public static final int MIN_CHARACTER = 4;
     public static final int MAX_CHARACTER = 32;
 
     public static final int MAX_PAGES = 100;
+    public static final int MAX_BATCH_KEYWORDS = 100;
     public static final int THREAD_POOL_SIZE = 50;
-    public static final Map<String, ResultFetcherDto> searchResults = new ConcurrentHashMap<>();
-    public static final ExecutorService executorService = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+    public static final int CRAWL_PARALLELISM = 8;
+    public static final int DEFAULT_MAX_ACTIVE_SEARCHES = 100;
+    public static final int DEFAULT_MAX_CONCURRENT_PAGES = 0;
+    public static final long SEARCH_RETRY_AFTER_SECONDS = 5;
+    public static final int MAX_CONCURRENT_FETCHES = 1000;
+    public static final long DEFAULT_CONNECT_TIMEOUT_MS = 5_000;
+    public static final long DEFAULT_READ_TIMEOUT_MS = 15_000;
+    public static final int DEFAULT_MAX_REDIRECTS = 5;
+    public static final int DEFAULT_HOST_REQUESTS_PER_SECOND = 20;
+    public static final int DEFAULT_HOST_BURST = 20;
+    public static final int DEFAULT_HOST_MAX_CONCURRENCY = 8;
+    public static final int DEFAULT_HOST_MAX_RETRIES = 3;
+    public static final long DEFAULT_HOST_INITIAL_BACKOFF_MS = 1_000;
+    public static final long DEFAULT_HOST_MAX_BACKOFF_MS = 60_000;
+    public static final int SCAN_BUFFER_SIZE = 8 * 1024;
+    public static final int MAX_HREF_LENGTH = 2 * 1024;
+    public static final String DEFAULT_URL_STRIP_PARAMS = "utm_*,gclid,fbclid,msclkid,dclid,yclid,mc_cid,mc_eid,_ga,_hsenc,_hsmi";
+    public static final String DEFAULT_CRAWL_BLOCKED_EXTENSIONS = "";
+    public static final double BLOOM_FALSE_POSITIVE_RATE = 1e-4;
+    public static final long DEFAULT_PAGE_CACHE_MAX_BYTES = 64L * 1024 * 1024;
+    public static final long DEFAULT_PAGE_CACHE_MAX_ENTRY_BYTES = 4L * 1024 * 1024;
+    public static final long DEFAULT_PAGE_CACHE_TTL_MS = 5 * 60_000;
+    public static final long DEFAULT_SEARCH_INDEX_TTL_MS = 5 * 60_000;
+    public static final int MAX_INDEXED_PAGE_CHARS = 512 * 1024;
+    public static final long STREAM_INTERVAL_MS = 100;
+    public static final long STREAM_HEARTBEAT_MS = 15_000;
+    public static final long STREAM_TIMEOUT_MS = 30 * 60_000;
+    public static final long DEFAULT_RESULTS_TTL_MS = 60 * 60_000;
+    public static final int DEFAULT_RESULTS_MAX_ENTRIES = 10_000;
+    public static final long DEFAULT_RESULTS_MAX_BYTES = 64L * 1024 * 1024;
+    public static final long RESULTS_SWEEP_INTERVAL_MS = 30_000;
+    public static final long DEFAULT_RESULTS_LOG_MAX_BYTES = 1024L * 1024 * 1024;
 
     public static final SecureRandom RANDOM = new SecureRandom();
-    public static final Pattern LINK_PATTERN = Pattern.compile("<a[^>]+href=\"(.*?)\"");
     public static final boolean ALLOW_SUBDOMAINS = true;
 
 }
@@ -0,0 +1,127 @@
+package com.axreng.backend.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.net.http.HttpResponse;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import static com.axreng.backend.util.Constants.SCAN_BUFFER_SIZE;
+
+/**
+ * Undoes the {@code Content-Encoding} of a response body while it is read.
+ * <p>
+ * Decoding is a stream wrapper: compressed bytes are inflated in {@link Constants#SCAN_BUFFER_SIZE} chunks as
+ * the reader pulls them, so neither the compressed nor the decompressed body is ever held in full.
+ * {@code gzip} and {@code deflate} are supported; for {@code deflate}, both the zlib-wrapped form required by
+ * HTTP and the raw form some servers send are accepted.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * try (InputStream body = ContentDecoding.decode(response.body(), ContentDecoding.encodingOf(response))) {
+ *     scanner.scan(body, charset);
+ * }
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class ContentDecoding {
+
+    /**
+     * The encodings this class can decode, as sent in {@code Accept-Encoding}.
+     */
+    public static final String ACCEPTED_ENCODINGS = "gzip, deflate";
+
+    private ContentDecoding() {
+    }
+
+    /**
+     * @param response The response.
+     * @return Its {@code Content-Encoding}, or {@code null} if the body is not encoded.
+     */
+    public static String encodingOf(HttpResponse<?> response) {
+        return response.headers().firstValue("Content-Encoding")
+                .map(String::trim)
+                .filter(encoding -> !encoding.isEmpty() && !encoding.equalsIgnoreCase("identity"))
+                .orElse(null);
+    }
+
+    /**
+     * Wraps a body so that reading it yields the decoded bytes.
+     *
+     * @param body     The body as received.
+     * @param encoding The {@code Content-Encoding} of the body, possibly a list applied in order, or {@code null}.
+     * @return The decoding stream; closing it closes {@code body}.
+     * @throws IOException If an encoding is not supported or the body does not start as its encoding requires.
+     */
+    public static InputStream decode(InputStream body, String encoding) throws IOException {
+        if (encoding == null)
+            return body;
+
+        var codings = encoding.split(",");
+        var decoded = body;
+
+        for (int i = codings.length - 1; i >= 0; i--) {
+            var coding = codings[i].trim().toLowerCase(Locale.ROOT);
+
+            switch (coding) {
+                case "gzip":
+                case "x-gzip":
+                    decoded = new GZIPInputStream(decoded, SCAN_BUFFER_SIZE);
+                    break;
+                case "deflate":
+                    decoded = inflate(decoded);
+                    break;
+                case "identity":
+                case "":
+                    break;
+                default:
+                    throw new IOException("Unsupported Content-Encoding: " + coding);
+            }
+        }
+
+        return decoded;
+    }
+
+    /**
+     * Inflates a {@code deflate} body, detecting whether it carries the zlib header.
+     */
+    private static InputStream inflate(InputStream body) throws IOException {
+        var in = new PushbackInputStream(body, 2);
+        int cmf = in.read();
+        int flg = cmf < 0 ? -1 : in.read();
+
+        if (flg >= 0)
+            in.unread(flg);
+        if (cmf >= 0)
+            in.unread(cmf);
+
+        boolean zlib = cmf >= 0 && flg >= 0 && (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+        return new OwnedInflaterInputStream(in, new Inflater(!zlib));
+    }
+
+    /**
+     * Releases the native memory of its inflater on close, which {@link InflaterInputStream} leaves to the
+     * caller when given one.
+     */
+    private static class OwnedInflaterInputStream extends InflaterInputStream {
+
+        OwnedInflaterInputStream(InputStream in, Inflater inflater) {
+            super(in, inflater, SCAN_BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                inf.end();
+            }
+        }
+    }
+}
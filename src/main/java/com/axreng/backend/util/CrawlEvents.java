@@ -0,0 +1,158 @@
+package com.axreng.backend.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events emitted by each phase of a crawl, to see where the time of a slow crawl goes.
+ * <p>
+ * The events are enabled by default but only cost anything while a recording is running: callers fill
+ * the fields only when {@link Event#shouldCommit()} is {@code true}, and no stack trace is taken. A
+ * page is covered by one {@link Page} event, which contains the {@link Fetch} of each request, the
+ * {@link Scan} of its body and the {@link LinkResolution} of its links; the {@link Enqueue} of the new
+ * links follows it. They can be correlated by URL and time, and {@link Page} and {@link Scan} carry the
+ * search IDs.
+ * {@code src/main/resources/jfr/crawler.jfc} is a recording configuration that adds them to the JDK events
+ * useful for a crawl.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * var event = new CrawlEvents.Fetch();
+ * event.begin();
+ * var response = send(request);
+ * if (event.shouldCommit()) {
+ *     event.url = uri.toString();
+ *     event.status = response.statusCode();
+ *     event.commit();
+ * }
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class CrawlEvents {
+
+    private static final String CATEGORY = "Crawler";
+
+    private CrawlEvents() {
+    }
+
+    /**
+     * One HTTP request, from sending it until its response headers.
+     */
+    @Name("com.axreng.crawler.Fetch")
+    @Label("Fetch")
+    @Category(CATEGORY)
+    @Description("HTTP request of a page, until its response")
+    @StackTrace(false)
+    public static class Fetch extends Event {
+
+        @Label("URL")
+        public String url;
+
+        @Label("Status")
+        @Description("HTTP status of the response, or 0 if the request failed")
+        public int status;
+    }
+
+    /**
+     * One pass over a page body that extracts its links and matches the search terms.
+     */
+    @Name("com.axreng.crawler.Scan")
+    @Label("Scan")
+    @Category(CATEGORY)
+    @Description("Decoding, tokenizing and keyword matching of a page body; includes the download of a streamed body")
+    @StackTrace(false)
+    public static class Scan extends Event {
+
+        @Label("URL")
+        public String url;
+
+        @Label("Search IDs")
+        public String searchIds;
+
+        @Label("Characters")
+        @Description("Characters of the body scanned")
+        public long characters;
+
+        @Label("Links Found")
+        public int links;
+
+        @Label("Terms Matched")
+        public int matches;
+    }
+
+    /**
+     * Scope checks, resolution and canonicalization of the links found on a page.
+     */
+    @Name("com.axreng.crawler.LinkResolution")
+    @Label("Link Resolution")
+    @Category(CATEGORY)
+    @Description("Scope checks, URI resolution and canonicalization of the links of a page")
+    @StackTrace(false)
+    public static class LinkResolution extends Event {
+
+        @Label("URL")
+        public String url;
+
+        @Label("Links Found")
+        public int hrefs;
+
+        @Label("Links Kept")
+        public int links;
+    }
+
+    /**
+     * Offering the links of a page to the frontier, which drops the ones already seen.
+     */
+    @Name("com.axreng.crawler.Enqueue")
+    @Label("Enqueue")
+    @Category(CATEGORY)
+    @Description("Deduplication of the links of a page into the frontier")
+    @StackTrace(false)
+    public static class Enqueue extends Event {
+
+        @Label("URL")
+        public String url;
+
+        @Label("Links Offered")
+        public int offered;
+
+        @Label("Links Added")
+        public int added;
+
+        @Label("Frontier Size")
+        public int frontierSize;
+    }
+
+    /**
+     * The processing of one page by a search, from requesting it until its links are resolved.
+     */
+    @Name("com.axreng.crawler.Page")
+    @Label("Page")
+    @Category(CATEGORY)
+    @Description("Processing of one page by a search: fetch, scan and link resolution")
+    @StackTrace(false)
+    public static class Page extends Event {
+
+        @Label("URL")
+        public String url;
+
+        @Label("Search IDs")
+        public String searchIds;
+
+        @Label("Fetched")
+        public boolean fetched;
+
+        @Label("Characters")
+        public long characters;
+
+        @Label("Links Kept")
+        public int links;
+    }
+}
@@ -0,0 +1,207 @@
+package com.axreng.backend.util;
+
+import com.axreng.backend.enums.ExecutorMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static com.axreng.backend.util.Constants.THREAD_POOL_SIZE;
+
+/**
+ * Holds the executor on which page fetches run.
+ * <p>
+ * The strategy is chosen once at startup (see {@code Main}) and shared by every search:
+ * </p>
+ * <ul>
+ *     <li>{@link ExecutorMode#FIXED_POOL} - a pool of {@link Constants#THREAD_POOL_SIZE} platform threads.
+ *     This is the default and works on Java 17.</li>
+ *     <li>{@link ExecutorMode#VIRTUAL_THREADS} - one virtual thread per page fetch (Java 21+), so blocking
+ *     network I/O does not pin an OS thread. A semaphore caps the number of fetches running at once.</li>
+ * </ul>
+ * <p>
+ * Virtual threads are looked up reflectively, so the project still compiles for Java 17. When they
+ * are not available the fixed pool is used instead.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * CrawlExecutors.configure(ExecutorMode.VIRTUAL_THREADS, 1000);
+ * CompletableFuture.runAsync(task, CrawlExecutors.executor());
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.1
+ */
+public class CrawlExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(CrawlExecutors.class);
+
+    private static volatile Executor executor;
+    private static volatile ExecutorMode mode;
+
+    private CrawlExecutors() {
+    }
+
+    /**
+     * Configures the executor used for page fetches. Any previously configured executor is shut down.
+     *
+     * @param requestedMode        The desired strategy.
+     * @param maxConcurrentFetches Maximum number of fetches running at once in virtual-thread mode.
+     * @return The mode actually in use, which falls back to {@link ExecutorMode#FIXED_POOL}
+     * when virtual threads are not supported by the running JVM.
+     */
+    public static synchronized ExecutorMode configure(ExecutorMode requestedMode, int maxConcurrentFetches) {
+        var previous = executor;
+
+        if (requestedMode == ExecutorMode.VIRTUAL_THREADS) {
+            var virtualExecutor = newVirtualThreadExecutor();
+
+            if (virtualExecutor != null) {
+                executor = new LimitedExecutor(virtualExecutor, maxConcurrentFetches);
+                mode = ExecutorMode.VIRTUAL_THREADS;
+                logger.info("Page fetches run on virtual threads (max {} concurrent)", maxConcurrentFetches);
+                shutdown(previous);
+                return mode;
+            }
+
+            logger.warn("Virtual threads are not supported by Java {}, falling back to a fixed pool",
+                    Runtime.version().feature());
+        }
+
+        executor = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+        mode = ExecutorMode.FIXED_POOL;
+        logger.info("Page fetches run on a fixed pool of {} threads", THREAD_POOL_SIZE);
+        shutdown(previous);
+        return mode;
+    }
+
+    /**
+     * Returns the configured executor, creating the default fixed pool on first use.
+     *
+     * @return The executor for page fetches.
+     */
+    public static Executor executor() {
+        var current = executor;
+
+        if (current != null)
+            return current;
+
+        synchronized (CrawlExecutors.class) {
+            if (executor == null) {
+                executor = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+                mode = ExecutorMode.FIXED_POOL;
+            }
+            return executor;
+        }
+    }
+
+    /**
+     * @return The mode currently in use, or {@code null} if no executor was created yet.
+     */
+    public static ExecutorMode mode() {
+        return mode;
+    }
+
+    /**
+     * @return The number of fetches running now, or {@code 0} if no executor was created yet.
+     */
+    public static int activeCount() {
+        var current = executor;
+
+        if (current instanceof LimitedExecutor)
+            return ((LimitedExecutor) current).maxConcurrent - ((LimitedExecutor) current).permits.availablePermits();
+        if (current instanceof ThreadPoolExecutor)
+            return ((ThreadPoolExecutor) current).getActiveCount();
+        return 0;
+    }
+
+    /**
+     * @return The number of fetches waiting for a thread (or, in virtual-thread mode, for a permit).
+     */
+    public static int queueLength() {
+        var current = executor;
+
+        if (current instanceof LimitedExecutor)
+            return ((LimitedExecutor) current).permits.getQueueLength();
+        if (current instanceof ThreadPoolExecutor)
+            return ((ThreadPoolExecutor) current).getQueue().size();
+        return 0;
+    }
+
+    /**
+     * @return The number of fetches that can run at once, or {@code 0} if no executor was created yet.
+     */
+    public static int capacity() {
+        var current = executor;
+
+        if (current instanceof LimitedExecutor)
+            return ((LimitedExecutor) current).maxConcurrent;
+        if (current instanceof ThreadPoolExecutor)
+            return ((ThreadPoolExecutor) current).getMaximumPoolSize();
+        return 0;
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor through reflection.
+     *
+     * @return The executor, or {@code null} if the running JVM does not provide virtual threads.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    private static void shutdown(Executor previous) {
+        if (previous instanceof LimitedExecutor)
+            ((LimitedExecutor) previous).delegate.shutdown();
+        else if (previous instanceof ExecutorService)
+            ((ExecutorService) previous).shutdown();
+    }
+
+    /**
+     * Executor that lets at most a fixed number of tasks run at once on its delegate.
+     * <p>
+     * Tasks are started immediately and wait for a permit inside their own thread, which is
+     * cheap for virtual threads and keeps submission non-blocking for callers.
+     * </p>
+     */
+    static class LimitedExecutor implements Executor {
+
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+        private final int maxConcurrent;
+
+        LimitedExecutor(ExecutorService delegate, int maxConcurrent) {
+            if (maxConcurrent < 1)
+                throw new IllegalArgumentException("Concurrency limit must be at least 1: " + maxConcurrent);
+
+            this.delegate = delegate;
+            this.permits = new Semaphore(maxConcurrent, true);
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            Objects.requireNonNull(command);
+
+            delegate.execute(() -> {
+                permits.acquireUninterruptibly();
+
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.axreng.backend.util;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters and histograms recorded on the crawl hot path.
+ * <p>
+ * Every metric is a {@link LongAdder} or a {@link LatencyHistogram}, so recording never takes a lock and
+ * concurrent fetches do not contend on a shared counter. The histogram of a status code is created the
+ * first time the code is seen; later fetches find it with a lock-free map read.
+ * </p>
+ *
+ * <h3>Recorded metrics:</h3>
+ * <ul>
+ *     <li>{@code crawler_fetch_duration_seconds{status}} - time from sending a request until its response
+ *     headers, per HTTP status, or {@code status="error"} if the request failed.</li>
+ *     <li>{@code crawler_fetch_bytes_total} - response body bytes received, as sent on the wire.</li>
+ *     <li>{@code crawler_pages_total{outcome}} - pages processed, {@code ok} or {@code failed};
+ *     {@code rate()} of it gives pages per second.</li>
+ *     <li>{@code crawler_page_duration_seconds} - time to fetch, scan and extract the links of a page.</li>
+ * </ul>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * long start = System.nanoTime();
+ * var response = send(request);
+ * CrawlMetrics.recordFetch(response.statusCode(), System.nanoTime() - start);
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class CrawlMetrics {
+
+    private static final int FETCH_ERROR = 0;
+
+    private static final Map<Integer, LatencyHistogram> fetchDurations = new ConcurrentHashMap<>();
+    private static final LongAdder fetchBytes = new LongAdder();
+    private static final LongAdder pagesOk = new LongAdder();
+    private static final LongAdder pagesFailed = new LongAdder();
+    private static final LatencyHistogram pageDurations = new LatencyHistogram(LatencyHistogram.DEFAULT_BOUNDS_SECONDS);
+
+    private CrawlMetrics() {
+    }
+
+    /**
+     * Records the duration of a request that received a response.
+     *
+     * @param status The HTTP status of the response.
+     * @param nanos  The time until the response, in nanoseconds.
+     */
+    public static void recordFetch(int status, long nanos) {
+        fetchHistogram(status).record(nanos);
+    }
+
+    /**
+     * Records the duration of a request that failed without a response.
+     *
+     * @param nanos The time until the failure, in nanoseconds.
+     */
+    public static void recordFetchError(long nanos) {
+        fetchHistogram(FETCH_ERROR).record(nanos);
+    }
+
+    /**
+     * @param bytes Number of body bytes received.
+     */
+    public static void addFetchBytes(long bytes) {
+        fetchBytes.add(bytes);
+    }
+
+    /**
+     * Wraps a response body so that the bytes read from it are added to {@code crawler_fetch_bytes_total}.
+     *
+     * @param body The body as received.
+     * @return The counting stream.
+     */
+    public static InputStream countingBytes(InputStream body) {
+        return new CountingInputStream(body, fetchBytes);
+    }
+
+    /**
+     * Records a page processed by a search.
+     *
+     * @param fetched Whether the page could be fetched.
+     * @param nanos   The time spent on the page, in nanoseconds.
+     */
+    public static void recordPage(boolean fetched, long nanos) {
+        (fetched ? pagesOk : pagesFailed).increment();
+        pageDurations.record(nanos);
+    }
+
+    /**
+     * @return The number of body bytes received so far.
+     */
+    public static long getFetchBytes() {
+        return fetchBytes.sum();
+    }
+
+    /**
+     * @return The number of pages processed so far, fetched or not.
+     */
+    public static long getPages() {
+        return pagesOk.sum() + pagesFailed.sum();
+    }
+
+    /**
+     * Appends the metrics in the Prometheus text format.
+     *
+     * @param out Where the metrics are written.
+     */
+    public static void writeTo(StringBuilder out) {
+        out.append("# HELP crawler_fetch_duration_seconds Time from sending a request until its response.\n");
+        out.append("# TYPE crawler_fetch_duration_seconds histogram\n");
+        new TreeMap<>(fetchDurations).forEach((status, histogram) -> histogram.writeTo(out,
+                "crawler_fetch_duration_seconds",
+                "status=\"" + (status == FETCH_ERROR ? "error" : status.toString()) + "\""));
+
+        out.append("# HELP crawler_fetch_bytes_total Response body bytes received.\n");
+        out.append("# TYPE crawler_fetch_bytes_total counter\n");
+        out.append("crawler_fetch_bytes_total ").append(fetchBytes.sum()).append('\n');
+
+        out.append("# HELP crawler_pages_total Pages processed by searches.\n");
+        out.append("# TYPE crawler_pages_total counter\n");
+        out.append("crawler_pages_total{outcome=\"ok\"} ").append(pagesOk.sum()).append('\n');
+        out.append("crawler_pages_total{outcome=\"failed\"} ").append(pagesFailed.sum()).append('\n');
+
+        out.append("# HELP crawler_page_duration_seconds Time to fetch, scan and extract the links of a page.\n");
+        out.append("# TYPE crawler_page_duration_seconds histogram\n");
+        pageDurations.writeTo(out, "crawler_page_duration_seconds", "");
+    }
+
+    private static LatencyHistogram fetchHistogram(int status) {
+        var histogram = fetchDurations.get(status);
+
+        if (histogram != null)
+            return histogram;
+
+        return fetchDurations.computeIfAbsent(status, key -> new LatencyHistogram(LatencyHistogram.DEFAULT_BOUNDS_SECONDS));
+    }
+}
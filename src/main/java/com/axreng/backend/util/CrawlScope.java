@@ -0,0 +1,286 @@
+package com.axreng.backend.util;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static com.axreng.backend.util.Constants.ALLOW_SUBDOMAINS;
+import static com.axreng.backend.util.Constants.DEFAULT_CRAWL_BLOCKED_EXTENSIONS;
+
+/**
+ * Decides which links a search follows, compiled once from its base URL.
+ * <p>
+ * The base host, subdomain policy, path prefixes and extension blocklist are parsed when the scope is built;
+ * each link is then classified by scanning its characters, without building a {@link URI}. A raw
+ * {@code href} is checked with {@link #accepts(CharSequence)} before it is resolved, and the path rules are
+ * applied to the canonical absolute URL with {@link #acceptsPath(String)}, where dot segments are already
+ * resolved.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * var scope = new CrawlScope("https://ibm.com", true, "/docs/", "/docs/archive/", "pdf,zip");
+ * scope.accepts("https://sub.ibm.com/docs/a.html"); // true
+ * scope.accepts("manual.pdf");                      // false
+ * scope.acceptsPath("https://ibm.com/docs/archive/old.html"); // false
+ * </pre>
+ *
+ * <h3>Rules:</h3>
+ * <ul>
+ *     <li>Only {@code http} and {@code https} links are followed; {@code mailto:}, {@code javascript:},
+ *     {@code tel:} and anchors ({@code #...}) are rejected.</li>
+ *     <li>Absolute and protocol-relative links must point at the base host, or a subdomain of it when
+ *     allowed; relative links always do.</li>
+ *     <li>Links whose last path segment ends in a blocked extension are rejected.</li>
+ *     <li>If include prefixes are set, the path must start with one of them; it must start with none of
+ *     the exclude prefixes.</li>
+ * </ul>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class CrawlScope {
+
+    private final String baseHost;
+    private final boolean allowSubdomains;
+    private final String[] includePaths;
+    private final String[] excludePaths;
+    private final String[] blockedExtensions;
+
+    /**
+     * @param baseUrl           The base URL of the search; its host is the crawled domain.
+     * @param allowSubdomains   Whether links to subdomains of the base host are followed.
+     * @param includePaths      Comma-separated path prefixes a link must start with, or empty for any path.
+     * @param excludePaths      Comma-separated path prefixes a link must not start with.
+     * @param blockedExtensions Comma-separated file extensions, without the dot, that are never fetched.
+     * @throws IllegalArgumentException If the base URL has no host.
+     */
+    public CrawlScope(String baseUrl, boolean allowSubdomains, String includePaths, String excludePaths,
+                      String blockedExtensions) {
+        try {
+            var host = new URI(baseUrl).getHost();
+            if (host == null)
+                throw new IllegalArgumentException("Invalid base URL: " + baseUrl);
+            this.baseHost = host.toLowerCase(Locale.ROOT);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid base URL: " + baseUrl, e);
+        }
+
+        this.allowSubdomains = allowSubdomains;
+        this.includePaths = split(includePaths, false);
+        this.excludePaths = split(excludePaths, false);
+        this.blockedExtensions = split(blockedExtensions, true);
+    }
+
+    /**
+     * Builds the scope of a search from {@code CRAWL_ALLOW_SUBDOMAINS}, {@code CRAWL_INCLUDE_PATHS},
+     * {@code CRAWL_EXCLUDE_PATHS} and {@code CRAWL_BLOCKED_EXTENSIONS}.
+     *
+     * @param baseUrl The base URL of the search.
+     * @return The scope.
+     */
+    public static CrawlScope forBaseUrl(String baseUrl) {
+        return new CrawlScope(baseUrl,
+                EnvironmentUtil.getBoolean("CRAWL_ALLOW_SUBDOMAINS", ALLOW_SUBDOMAINS),
+                EnvironmentUtil.getString("CRAWL_INCLUDE_PATHS", ""),
+                EnvironmentUtil.getString("CRAWL_EXCLUDE_PATHS", ""),
+                EnvironmentUtil.getString("CRAWL_BLOCKED_EXTENSIONS", DEFAULT_CRAWL_BLOCKED_EXTENSIONS));
+    }
+
+    /**
+     * Checks a raw {@code href}, as written in the page, before it is resolved.
+     *
+     * @param href The link target.
+     * @return {@code true} if the link may be followed, as far as can be told without resolving it.
+     */
+    public boolean accepts(CharSequence href) {
+        if (href == null)
+            return false;
+
+        int start = 0;
+        int end = href.length();
+
+        while (start < end && href.charAt(start) <= ' ')
+            start++;
+        while (end > start && href.charAt(end - 1) <= ' ')
+            end--;
+
+        if (start == end || href.charAt(start) == '#')
+            return false;
+
+        int pathEnd = indexOfAny(href, start, end, "?#");
+        int schemeEnd = indexOfAny(href, start, pathEnd, ":/");
+        int authorityStart;
+
+        if (schemeEnd < pathEnd && href.charAt(schemeEnd) == ':') {
+            if (!isHttpScheme(href, start, schemeEnd))
+                return false;
+            authorityStart = schemeEnd + 1;
+        } else {
+            authorityStart = start;
+        }
+
+        int pathStart = authorityStart;
+
+        if (pathEnd - authorityStart >= 2 && href.charAt(authorityStart) == '/' && href.charAt(authorityStart + 1) == '/') {
+            int hostStart = authorityStart + 2;
+            pathStart = indexOfAny(href, hostStart, pathEnd, "/");
+
+            if (!isInScopeHost(href, hostStart, pathStart))
+                return false;
+        } else if (authorityStart > start) {
+            return false;
+        }
+
+        return !hasBlockedExtension(href, pathStart, pathEnd);
+    }
+
+    /**
+     * Checks the scheme and host of a resolved URI, such as the target of a page's {@code <base>} tag.
+     *
+     * @param uri The absolute URI.
+     * @return {@code true} if it is an HTTP(S) URI on the base host, or on one of its subdomains when allowed.
+     */
+    public boolean acceptsHost(URI uri) {
+        var scheme = uri.getScheme();
+        var host = uri.getHost();
+
+        if (scheme == null || host == null || !isHttpScheme(scheme, 0, scheme.length()))
+            return false;
+
+        return isInScopeHost(host, 0, host.length());
+    }
+
+    /**
+     * Checks the path rules against a resolved, canonical URL.
+     *
+     * @param url The absolute URL, as returned by {@link UrlCanonicalizer#canonicalize(String)}.
+     * @return {@code true} if the path is within the included prefixes and outside the excluded ones.
+     */
+    public boolean acceptsPath(String url) {
+        if (includePaths.length == 0 && excludePaths.length == 0)
+            return true;
+
+        int authority = url.indexOf("//");
+        int pathStart = authority < 0 ? -1 : url.indexOf('/', authority + 2);
+
+        if (pathStart < 0)
+            return includePaths.length == 0;
+
+        if (includePaths.length > 0 && !startsWithAny(url, pathStart, includePaths))
+            return false;
+
+        return !startsWithAny(url, pathStart, excludePaths);
+    }
+
+    /**
+     * Checks the host of an absolute link, ignoring userinfo and port.
+     */
+    private boolean isInScopeHost(CharSequence href, int start, int end) {
+        for (int i = end - 1; i >= start; i--) {
+            if (href.charAt(i) == '@') {
+                start = i + 1;
+                break;
+            }
+        }
+
+        int hostEnd;
+        if (start < end && href.charAt(start) == '[') {
+            int closing = indexOfAny(href, start, end, "]");
+            hostEnd = closing < end ? closing + 1 : end;
+        } else {
+            hostEnd = indexOfAny(href, start, end, ":");
+        }
+
+        int hostLength = hostEnd - start;
+        int baseLength = baseHost.length();
+
+        if (hostLength == baseLength)
+            return regionMatches(href, start, baseHost);
+
+        return allowSubdomains && hostLength > baseLength
+                && href.charAt(hostEnd - baseLength - 1) == '.'
+                && regionMatches(href, hostEnd - baseLength, baseHost);
+    }
+
+    private boolean hasBlockedExtension(CharSequence href, int pathStart, int pathEnd) {
+        int dot = -1;
+
+        for (int i = pathEnd - 1; i >= pathStart; i--) {
+            char c = href.charAt(i);
+            if (c == '/')
+                break;
+            if (c == '.') {
+                dot = i;
+                break;
+            }
+        }
+
+        if (dot < 0)
+            return false;
+
+        int length = pathEnd - dot - 1;
+
+        for (String extension : blockedExtensions) {
+            if (extension.length() == length && regionMatches(href, dot + 1, extension))
+                return true;
+        }
+
+        return false;
+    }
+
+    private static boolean isHttpScheme(CharSequence href, int start, int end) {
+        int length = end - start;
+        return (length == 4 || length == 5) && regionMatches(href, start, "http")
+                && (length == 4 || Character.toLowerCase(href.charAt(start + 4)) == 's');
+    }
+
+    private static boolean startsWithAny(String url, int offset, String[] prefixes) {
+        for (String prefix : prefixes) {
+            if (url.startsWith(prefix, offset))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Compares {@code expected}, which is lowercase, with a region of {@code href}, ignoring case.
+     */
+    private static boolean regionMatches(CharSequence href, int offset, String expected) {
+        if (offset + expected.length() > href.length())
+            return false;
+
+        for (int i = 0; i < expected.length(); i++) {
+            if (Character.toLowerCase(href.charAt(offset + i)) != expected.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return The index of the first character of {@code chars} in {@code [start, end)}, or {@code end}.
+     */
+    private static int indexOfAny(CharSequence s, int start, int end, String chars) {
+        for (int i = start; i < end; i++) {
+            if (chars.indexOf(s.charAt(i)) >= 0)
+                return i;
+        }
+        return end;
+    }
+
+    private static String[] split(String values, boolean lowercase) {
+        List<String> result = new ArrayList<>();
+
+        for (String value : values.split(",")) {
+            var trimmed = value.trim();
+            if (lowercase)
+                trimmed = trimmed.toLowerCase(Locale.ROOT);
+            if (!trimmed.isEmpty())
+                result.add(trimmed);
+        }
+
+        return result.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,78 @@
+package com.axreng.backend.util;
+
+import java.util.Objects;
+
+/**
+ * Utility class for reading configuration from environment variables.
+ * <p>
+ * Values are looked up in the process environment first and then in the JVM system properties,
+ * which makes it possible to override them in tests or with {@code -D} flags.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * int limit = EnvironmentUtil.getInt("MAX_CONCURRENT_FETCHES", 1000);
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class EnvironmentUtil {
+
+    /**
+     * Reads a string value.
+     *
+     * @param name         The variable name.
+     * @param defaultValue The value returned when the variable is not set or blank.
+     * @return The configured value or the default.
+     */
+    public static String getString(String name, String defaultValue) {
+        var value = System.getenv().get(name);
+
+        if (Objects.isNull(value) || value.isBlank())
+            value = System.getProperty(name);
+
+        return Objects.isNull(value) || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Reads an integer value.
+     *
+     * @param name         The variable name.
+     * @param defaultValue The value returned when the variable is not set or is not a number.
+     * @return The configured value or the default.
+     */
+    public static int getInt(String name, int defaultValue) {
+        try {
+            return Integer.parseInt(getString(name, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Reads a long value.
+     *
+     * @param name         The variable name.
+     * @param defaultValue The value returned when the variable is not set or is not a number.
+     * @return The configured value or the default.
+     */
+    public static long getLong(String name, long defaultValue) {
+        try {
+            return Long.parseLong(getString(name, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Reads a boolean value.
+     *
+     * @param name         The variable name.
+     * @param defaultValue The value returned when the variable is not set.
+     * @return {@code true} if the value is "true" (ignoring case), the default when unset, {@code false} otherwise.
+     */
+    public static boolean getBoolean(String name, boolean defaultValue) {
+        return Boolean.parseBoolean(getString(name, String.valueOf(defaultValue)));
+    }
+}
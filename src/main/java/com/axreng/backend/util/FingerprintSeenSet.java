@@ -0,0 +1,105 @@
+package com.axreng.backend.util;
+
+/**
+ * Compact {@link SeenSet} that stores 64-bit {@link UrlFingerprint}s instead of URL strings.
+ * <p>
+ * Fingerprints live in primitive {@code long[]} open-addressing tables with linear probing, so each URL
+ * costs 8 to 16 bytes instead of the string, its backing array and a hash map node. The set is split into
+ * {@value #STRIPES} independently locked stripes, chosen by the top bits of the fingerprint, to keep
+ * contention low when many workers add at once.
+ * </p>
+ * <p>
+ * Two distinct URLs with the same fingerprint would be treated as one; with 64-bit fingerprints
+ * this is negligible for crawl-sized sets.
+ * </p>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class FingerprintSeenSet implements SeenSet {
+
+    private static final int STRIPES = 16;
+    private static final int STRIPE_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(STRIPES);
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * @param expectedUrls The number of URLs the set is expected to hold; the tables grow beyond it if needed.
+     */
+    public FingerprintSeenSet(int expectedUrls) {
+        int perStripe = Math.max(16, Integer.highestOneBit(Math.max(1, expectedUrls / STRIPES) * 2 - 1) << 1);
+
+        for (int i = 0; i < STRIPES; i++)
+            stripes[i] = new Stripe(perStripe);
+    }
+
+    @Override
+    public boolean add(String url) {
+        long fingerprint = UrlFingerprint.of(url);
+
+        // 0 marks an empty slot.
+        if (fingerprint == 0)
+            fingerprint = 1;
+
+        return stripes[(int) (fingerprint >>> STRIPE_SHIFT)].add(fingerprint);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+
+        for (Stripe stripe : stripes)
+            size += stripe.size;
+
+        return size;
+    }
+
+    /**
+     * One open-addressing table of fingerprints.
+     */
+    private static class Stripe {
+
+        private long[] table;
+        private volatile int size;
+
+        Stripe(int capacity) {
+            this.table = new long[capacity];
+        }
+
+        synchronized boolean add(long fingerprint) {
+            if ((size + 1) * 4L > table.length * 3L)
+                resize();
+
+            if (!insert(table, fingerprint))
+                return false;
+
+            size++;
+            return true;
+        }
+
+        private void resize() {
+            long[] larger = new long[table.length * 2];
+
+            for (long fingerprint : table)
+                if (fingerprint != 0)
+                    insert(larger, fingerprint);
+
+            table = larger;
+        }
+
+        private static boolean insert(long[] table, long fingerprint) {
+            int mask = table.length - 1;
+            int index = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+
+            while (table[index] != 0) {
+                if (table[index] == fingerprint)
+                    return false;
+
+                index = (index + 1) & mask;
+            }
+
+            table[index] = fingerprint;
+            return true;
+        }
+    }
+}
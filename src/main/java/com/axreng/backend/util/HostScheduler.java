@@ -0,0 +1,404 @@
+package com.axreng.backend.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the requests sent to each host polite, whatever the number of searches crawling it at once.
+ * <p>
+ * Every request goes through the queue of its host ({@code host:port}), which releases it only when
+ * </p>
+ * <ul>
+ *     <li>fewer than {@code maxConcurrency} requests to the host are in flight, and</li>
+ *     <li>its token bucket holds a token; the bucket refills at {@code ratePerSecond} up to {@code burst}, and</li>
+ *     <li>the host is not paused after a {@code 429} or {@code 503}.</li>
+ * </ul>
+ * <p>
+ * A {@code 429} or {@code 503} pauses the host for its {@code Retry-After} or, without one, for an exponential
+ * backoff, halves the host's rate, and puts the request back at the head of the queue, up to
+ * {@code maxRetries} times. Each successful response restores a tenth of the configured rate.
+ * A {@code ratePerSecond} or {@code maxConcurrency} of {@code 0} disables that limit.
+ * </p>
+ * <p>
+ * A request is in flight until its response arrives, or, when the sender {@link Slot#hold() holds} its
+ * {@link Slot} for a streamed body, until the body is closed and the slot {@link Slot#release() released},
+ * so that {@code maxConcurrency} caps the connections open to the host.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * var scheduler = new HostScheduler(20, 20, 8, 3, 1_000, 60_000);
+ * scheduler.execute(uri, () -&gt; client.sendAsync(request, handler))
+ *         .thenAccept(response -&gt; ...);
+ * scheduler.execute(uri, slot -&gt; client.sendAsync(request, releasingOnClose(handler, slot)));
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.1
+ */
+public class HostScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(HostScheduler.class);
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private final double ratePerSecond;
+    private final int burst;
+    private final int maxConcurrency;
+    private final int maxRetries;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder delayed = new LongAdder();
+
+    /**
+     * @param ratePerSecond        Requests per second allowed to each host; {@code 0} for no limit.
+     * @param burst                Requests a host may receive at once after being idle.
+     * @param maxConcurrency       Requests allowed in flight to each host; {@code 0} for no limit.
+     * @param maxRetries           Times a request is retried after a {@code 429} or {@code 503}.
+     * @param initialBackoffMillis Pause after a first {@code 429} or {@code 503} without {@code Retry-After}.
+     * @param maxBackoffMillis     Longest pause, including those asked for by {@code Retry-After}.
+     */
+    public HostScheduler(double ratePerSecond, int burst, int maxConcurrency, int maxRetries,
+                         long initialBackoffMillis, long maxBackoffMillis) {
+        this.ratePerSecond = ratePerSecond;
+        this.burst = Math.max(burst, 1);
+        this.maxConcurrency = maxConcurrency <= 0 ? Integer.MAX_VALUE : maxConcurrency;
+        this.maxRetries = maxRetries;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "host-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sends a request once its host allows it, retrying it while the host answers {@code 429} or {@code 503}.
+     *
+     * @param uri     The URI requested; its host and port select the queue.
+     * @param request Sends the request; called once per attempt.
+     * @param <T>     The body type.
+     * @return A future completed with the last response received.
+     */
+    public <T> CompletableFuture<HttpResponse<T>> execute(URI uri, Supplier<CompletableFuture<HttpResponse<T>>> request) {
+        return execute(uri, slot -> request.get());
+    }
+
+    /**
+     * Sends a request once its host allows it, retrying it while the host answers {@code 429} or {@code 503}.
+     * The request may {@link Slot#hold() hold} its slot past the response, until its body is closed.
+     *
+     * @param uri     The URI requested; its host and port select the queue.
+     * @param request Sends the request given the slot of the attempt; called once per attempt.
+     * @param <T>     The body type.
+     * @return A future completed with the last response received.
+     */
+    public <T> CompletableFuture<HttpResponse<T>> execute(URI uri, Function<Slot, CompletableFuture<HttpResponse<T>>> request) {
+        var task = new Task<>(request);
+        var host = hosts.computeIfAbsent(hostKey(uri), key -> new Host(key, ratePerSecond, burst));
+
+        synchronized (host) {
+            if (!host.queue.isEmpty() || host.inFlight >= maxConcurrency)
+                delayed.increment();
+
+            host.queue.addLast(task);
+        }
+
+        dispatch(host);
+        return task.result;
+    }
+
+    /**
+     * @return The number of {@code 429} and {@code 503} responses received.
+     */
+    public long getThrottled() {
+        return throttled.sum();
+    }
+
+    /**
+     * @return The number of requests that had to wait for their host.
+     */
+    public long getDelayed() {
+        return delayed.sum();
+    }
+
+    /**
+     * @return The number of requests waiting for their host.
+     */
+    public int getQueued() {
+        int queued = 0;
+
+        for (Host host : hosts.values()) {
+            synchronized (host) {
+                queued += host.queue.size();
+            }
+        }
+
+        return queued;
+    }
+
+    /**
+     * @return The number of requests in flight, streamed bodies not yet closed included.
+     */
+    public int getInFlight() {
+        int inFlight = 0;
+
+        for (Host host : hosts.values()) {
+            synchronized (host) {
+                inFlight += host.inFlight;
+            }
+        }
+
+        return inFlight;
+    }
+
+    /**
+     * Starts every request of the host its limits allow, and arranges to be called again when more will be.
+     */
+    private void dispatch(Host host) {
+        var ready = new ArrayList<Task<?>>();
+
+        synchronized (host) {
+            long now = System.nanoTime();
+
+            while (!host.queue.isEmpty() && host.inFlight < maxConcurrency) {
+                if (host.paused) {
+                    long remaining = host.pausedUntil - now;
+
+                    if (remaining > 0) {
+                        wakeAt(host, remaining);
+                        break;
+                    }
+
+                    host.paused = false;
+                }
+
+                if (ratePerSecond > 0) {
+                    host.refill(now, burst);
+
+                    if (host.tokens < 1) {
+                        wakeAt(host, (long) ((1 - host.tokens) / host.rate * 1e9));
+                        break;
+                    }
+
+                    host.tokens--;
+                }
+
+                host.inFlight++;
+                ready.add(host.queue.pollFirst());
+            }
+        }
+
+        for (Task<?> task : ready)
+            start(host, task);
+    }
+
+    private <T> void start(Host host, Task<T> task) {
+        var slot = new Slot(host);
+        CompletableFuture<HttpResponse<T>> attempt;
+
+        try {
+            attempt = task.request.apply(slot);
+        } catch (RuntimeException e) {
+            attempt = CompletableFuture.failedFuture(e);
+        }
+
+        attempt.whenComplete((res, ex) -> complete(host, task, slot, res, ex));
+    }
+
+    private <T> void complete(Host host, Task<T> task, Slot slot, HttpResponse<T> res, Throwable ex) {
+        boolean retry = false;
+
+        synchronized (host) {
+            if (res != null && (res.statusCode() == TOO_MANY_REQUESTS || res.statusCode() == SERVICE_UNAVAILABLE)) {
+                throttled.increment();
+                slowDown(host, res);
+
+                if (task.attempts < maxRetries) {
+                    task.attempts++;
+                    host.queue.addFirst(task);
+                    retry = true;
+                }
+            } else if (res != null) {
+                host.backoffMillis = 0;
+                host.rate = Math.min(host.rate + ratePerSecond / 10, ratePerSecond);
+            }
+        }
+
+        if (!retry) {
+            if (ex != null)
+                task.result.completeExceptionally(ex);
+            else
+                task.result.complete(res);
+        }
+
+        if (res == null || !slot.held)
+            slot.release();
+        else
+            dispatch(host);
+    }
+
+    /**
+     * Pauses the host after a throttling response and halves its rate.
+     */
+    private void slowDown(Host host, HttpResponse<?> res) {
+        host.backoffMillis = host.backoffMillis == 0
+                ? initialBackoffMillis
+                : Math.min(host.backoffMillis * 2, maxBackoffMillis);
+
+        long pause = Math.min(Math.max(retryAfterMillis(res), host.backoffMillis), maxBackoffMillis);
+        long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pause);
+
+        // nanoTime values may be negative or wrap, so they are only compared through their difference.
+        if (!host.paused || until - host.pausedUntil > 0)
+            host.pausedUntil = until;
+        host.paused = true;
+        host.rate = Math.max(host.rate / 2, ratePerSecond / 100);
+        host.tokens = Math.min(host.tokens, 0);
+
+        logger.warn("Host {} answered {}, pausing it for {} ms at {} requests/s",
+                host.key, res.statusCode(), pause, String.format(Locale.ROOT, "%.2f", host.rate));
+    }
+
+    private void wakeAt(Host host, long delayNanos) {
+        if (host.wakeScheduled)
+            return;
+
+        host.wakeScheduled = true;
+        timer.schedule(() -> {
+            synchronized (host) {
+                host.wakeScheduled = false;
+            }
+            dispatch(host);
+        }, Math.max(delayNanos, 0), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Reads {@code Retry-After}, given either in seconds or as an HTTP date.
+     *
+     * @return The delay asked for, in milliseconds, or {@code 0} if none (or an invalid one) was given.
+     */
+    static long retryAfterMillis(HttpResponse<?> res) {
+        var value = res.headers().firstValue("Retry-After").map(String::trim).orElse("");
+
+        if (value.isEmpty())
+            return 0;
+
+        try {
+            return Math.max(Long.parseLong(value), 0) * 1000;
+        } catch (NumberFormatException e) {
+            try {
+                var date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis(), 0);
+            } catch (DateTimeParseException ignored) {
+                return 0;
+            }
+        }
+    }
+
+    private static String hostKey(URI uri) {
+        var host = uri.getHost() == null ? String.valueOf(uri.getAuthority()) : uri.getHost().toLowerCase(Locale.ROOT);
+        int port = uri.getPort() != -1 ? uri.getPort() : "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        return host + ":" + port;
+    }
+
+    /**
+     * Queue and limits of one host; guarded by its own monitor.
+     */
+    private static class Host {
+
+        private final String key;
+        private final ArrayDeque<Task<?>> queue = new ArrayDeque<>();
+        private double rate;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+        private boolean paused;
+        private long pausedUntil;
+        private long backoffMillis;
+        private int inFlight;
+        private boolean wakeScheduled;
+
+        Host(String key, double rate, int burst) {
+            this.key = key;
+            this.rate = rate;
+            this.tokens = burst;
+        }
+
+        void refill(long now, int burst) {
+            tokens = Math.min(burst, tokens + (now - lastRefill) / 1e9 * rate);
+            lastRefill = now;
+        }
+    }
+
+    /**
+     * The place of one attempt among the requests in flight to its host.
+     */
+    public class Slot {
+
+        private final Host host;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean held;
+
+        private Slot(Host host) {
+            this.host = host;
+        }
+
+        /**
+         * Keeps the slot taken after the response arrives, until {@link #release()} is called. Must be called
+         * before the response future completes, typically when the body stream is handed out.
+         */
+        public void hold() {
+            held = true;
+        }
+
+        /**
+         * Frees the slot and lets the next request to the host start. Later calls do nothing.
+         */
+        public void release() {
+            if (!released.compareAndSet(false, true))
+                return;
+
+            synchronized (host) {
+                host.inFlight--;
+            }
+
+            dispatch(host);
+        }
+    }
+
+    private static class Task<T> {
+
+        private final Function<Slot, CompletableFuture<HttpResponse<T>>> request;
+        private final CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+        private int attempts;
+
+        Task(Function<Slot, CompletableFuture<HttpResponse<T>>> request) {
+            this.request = request;
+        }
+    }
+}
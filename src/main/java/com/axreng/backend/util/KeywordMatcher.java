@@ -0,0 +1,135 @@
+package com.axreng.backend.util;
+
+/**
+ * Case-insensitive keyword matcher built as a Knuth-Morris-Pratt automaton.
+ * <p>
+ * The keyword is lowercased and its failure table is computed once; text is then consumed one
+ * character at a time through {@link #advance(int, char)}, so a page can be searched while it is being
+ * downloaded without ever holding the whole body (or a lowercased copy of it) in memory.
+ * </p>
+ * <p>
+ * Instances are immutable and can be shared between threads; the scan state is a plain {@code int}
+ * owned by the caller.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * var matcher = new KeywordMatcher("Security");
+ * int state = 0;
+ * for (char c : text.toCharArray())
+ *     state = matcher.advance(state, c);
+ * boolean found = matcher.isMatch(state);
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class KeywordMatcher {
+
+    private final char[] pattern;
+    private final int[] failure;
+    private final char first;
+    private final char firstUpper;
+
+    /**
+     * Compiles the matcher for the given keyword.
+     *
+     * @param keyword The keyword to search for, matched ignoring case.
+     * @throws IllegalArgumentException if the keyword is null or empty.
+     */
+    public KeywordMatcher(String keyword) {
+        if (keyword == null || keyword.isEmpty())
+            throw new IllegalArgumentException("Keyword cannot be null or empty");
+
+        this.pattern = keyword.toLowerCase().toCharArray();
+        this.failure = new int[pattern.length];
+        this.first = pattern[0];
+        this.firstUpper = Character.toUpperCase(first);
+
+        for (int i = 1, k = 0; i < pattern.length; i++) {
+            while (k > 0 && pattern[i] != pattern[k])
+                k = failure[k - 1];
+
+            if (pattern[i] == pattern[k])
+                k++;
+
+            failure[i] = k;
+        }
+    }
+
+    /**
+     * Feeds one character to the automaton.
+     * <p>
+     * Once a match has been reached the state stays matched, since callers only need to know whether
+     * the keyword occurs at least once.
+     * </p>
+     *
+     * @param state The current state, starting at {@code 0}.
+     * @param c     The next character of the text.
+     * @return The new state.
+     */
+    public int advance(int state, char c) {
+        if (state == pattern.length)
+            return state;
+
+        char lower = Character.toLowerCase(c);
+
+        while (state > 0 && pattern[state] != lower)
+            state = failure[state - 1];
+
+        return pattern[state] == lower ? state + 1 : 0;
+    }
+
+    /**
+     * Feeds a range of characters to the automaton.
+     *
+     * @param state  The current state.
+     * @param buffer The characters to consume.
+     * @param offset The index of the first character.
+     * @param length The number of characters.
+     * @return The new state.
+     */
+    public int advance(int state, char[] buffer, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end && state != pattern.length; i++) {
+            if (state == 0) {
+                // Most characters cannot start a match; skip them without running the automaton.
+                while (i < end && buffer[i] != first && buffer[i] != firstUpper)
+                    i++;
+
+                if (i == end)
+                    break;
+            }
+
+            state = advance(state, buffer[i]);
+        }
+
+        return state;
+    }
+
+    /**
+     * @param state A state returned by {@link #advance}.
+     * @return {@code true} if the keyword has been found.
+     */
+    public boolean isMatch(int state) {
+        return state == pattern.length;
+    }
+
+    /**
+     * Searches a whole text at once.
+     *
+     * @param text The text to search.
+     * @return {@code true} if the keyword occurs in the text, ignoring case.
+     */
+    public boolean matches(CharSequence text) {
+        int state = 0;
+
+        for (int i = 0, length = text.length(); i < length && !isMatch(state); i++) {
+            char c = text.charAt(i);
+
+            if (state != 0 || c == first || c == firstUpper)
+                state = advance(state, c);
+        }
+
+        return isMatch(state);
+    }
+}
@@ -0,0 +1,111 @@
+package com.axreng.backend.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations, with fixed bucket bounds, for recording on the crawl hot path.
+ * <p>
+ * Each bucket, the count and the sum are {@link LongAdder}s, so threads recording at the same time
+ * update different cells instead of contending on one counter; nothing is allocated per sample.
+ * Buckets are kept per interval and only made cumulative when {@link #writeTo rendered} in the Prometheus
+ * text format, which is where the sums are read.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * var histogram = new LatencyHistogram(LatencyHistogram.DEFAULT_BOUNDS_SECONDS);
+ * long start = System.nanoTime();
+ * fetch();
+ * histogram.record(System.nanoTime() - start);
+ * histogram.writeTo(out, "crawler_fetch_duration_seconds", "status=\"200\"");
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class LatencyHistogram {
+
+    /**
+     * Upper bounds, in seconds, suited to page fetches: from 5 ms to 10 s.
+     */
+    public static final double[] DEFAULT_BOUNDS_SECONDS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private final double[] boundsSeconds;
+    private final long[] boundsNanos;
+    private final LongAdder[] buckets;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+
+    /**
+     * @param boundsSeconds Increasing upper bounds of the buckets, in seconds; an unbounded bucket is added.
+     */
+    public LatencyHistogram(double[] boundsSeconds) {
+        this.boundsSeconds = boundsSeconds.clone();
+        this.boundsNanos = new long[boundsSeconds.length];
+        this.buckets = new LongAdder[boundsSeconds.length + 1];
+
+        for (int i = 0; i < boundsSeconds.length; i++) {
+            if (i > 0 && boundsSeconds[i] <= boundsSeconds[i - 1])
+                throw new IllegalArgumentException("Bucket bounds must be increasing");
+            boundsNanos[i] = (long) (boundsSeconds[i] * TimeUnit.SECONDS.toNanos(1));
+        }
+
+        for (int i = 0; i < buckets.length; i++)
+            buckets[i] = new LongAdder();
+    }
+
+    /**
+     * Records one sample.
+     *
+     * @param nanos The duration, in nanoseconds.
+     */
+    public void record(long nanos) {
+        int bucket = 0;
+
+        while (bucket < boundsNanos.length && nanos > boundsNanos[bucket])
+            bucket++;
+
+        buckets[bucket].increment();
+        count.increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * @return The number of samples recorded.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return The sum of the samples recorded, in nanoseconds.
+     */
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+
+    /**
+     * Appends the {@code _bucket}, {@code _sum} and {@code _count} series of the histogram.
+     *
+     * @param out    Where the series are written.
+     * @param name   The metric name.
+     * @param labels Labels added to every series, as {@code key="value"} pairs separated by commas, or empty.
+     */
+    public void writeTo(StringBuilder out, String name, String labels) {
+        var prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i].sum();
+            var bound = i < boundsSeconds.length ? Double.toString(boundsSeconds[i]) : "+Inf";
+            out.append(name).append("_bucket{").append(prefix).append("le=\"").append(bound).append("\"} ")
+                    .append(cumulative).append('\n');
+        }
+
+        var suffix = labels.isEmpty() ? " " : "{" + labels + "} ";
+        out.append(name).append("_sum").append(suffix)
+                .append(sumNanos.sum() / (double) TimeUnit.SECONDS.toNanos(1)).append('\n');
+        out.append(name).append("_count").append(suffix).append(cumulative).append('\n');
+    }
+}
@@ -0,0 +1,405 @@
+package com.axreng.backend.util;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static com.axreng.backend.util.Constants.MAX_HREF_LENGTH;
+import static com.axreng.backend.util.Constants.SCAN_BUFFER_SIZE;
+
+/**
+ * Single-pass HTML tokenizer that extracts link targets without regular expressions.
+ * <p>
+ * Characters can be fed in chunks of any size, so the tokenizer works directly on the buffer a page
+ * is being streamed through; a tag split across two chunks is handled transparently. Only the
+ * {@code href} and {@code rel} attribute values of interesting tags are ever copied.
+ * </p>
+ *
+ * <h3>Recognised tags:</h3>
+ * <ul>
+ *     <li>{@code <a href>} and {@code <area href>} - emitted as links.</li>
+ *     <li>{@code <link rel="canonical" href>} - emitted as a link.</li>
+ *     <li>{@code <base href>} - the first one is kept as the document base, see {@link #getBaseHref()}.</li>
+ * </ul>
+ * <p>
+ * Tag and attribute names are matched ignoring case, and attribute values may be double-quoted,
+ * single-quoted or unquoted. Comments ({@code <!-- ... -->}) are skipped.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * var tokenizer = new LinkTokenizer();
+ * tokenizer.feed(buffer, 0, read);
+ * Set&lt;String&gt; hrefs = tokenizer.getHrefs();
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class LinkTokenizer {
+
+    private static final int TEXT = 0;
+    private static final int TAG_START = 1;
+    private static final int TAG_NAME = 2;
+    private static final int BEFORE_ATTR = 3;
+    private static final int ATTR_NAME = 4;
+    private static final int AFTER_ATTR_NAME = 5;
+    private static final int BEFORE_VALUE = 6;
+    private static final int VALUE_QUOTED = 7;
+    private static final int VALUE_UNQUOTED = 8;
+    private static final int SKIP_TAG = 9;
+    private static final int DECLARATION = 10;
+    private static final int COMMENT = 11;
+
+    private static final int TAG_OTHER = 0;
+    private static final int TAG_ANCHOR = 1;
+    private static final int TAG_LINK = 2;
+    private static final int TAG_BASE = 3;
+
+    private static final int ATTR_OTHER = 0;
+    private static final int ATTR_HREF = 1;
+    private static final int ATTR_REL = 2;
+
+    private static final int MAX_NAME_LENGTH = 8;
+
+    private final Set<String> hrefs = new LinkedHashSet<>();
+    private final StringBuilder name = new StringBuilder(MAX_NAME_LENGTH);
+    private final StringBuilder value = new StringBuilder();
+
+    private int state = TEXT;
+    private int tag;
+    private int attribute;
+    private char quote;
+    private int dashes;
+    private String href;
+    private boolean canonical;
+    private String baseHref;
+
+    /**
+     * Extracts the link targets of a complete document.
+     *
+     * @param html The HTML content.
+     * @return The tokenizer holding the extracted links.
+     */
+    public static LinkTokenizer tokenize(CharSequence html) {
+        var tokenizer = new LinkTokenizer();
+        var text = html.toString();
+        var buffer = new char[Math.min(text.length(), SCAN_BUFFER_SIZE)];
+
+        for (int offset = 0, length = text.length(); offset < length; offset += buffer.length) {
+            int count = Math.min(buffer.length, length - offset);
+            text.getChars(offset, offset + count, buffer, 0);
+            tokenizer.feed(buffer, 0, count);
+        }
+
+        return tokenizer;
+    }
+
+    /**
+     * Feeds a chunk of the document.
+     *
+     * @param buffer The characters.
+     * @param offset The index of the first character.
+     * @param length The number of characters.
+     */
+    public void feed(char[] buffer, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            // Fast paths: skip text, uninteresting tags and uninteresting quoted values in a tight loop.
+            if (state == TEXT || state == SKIP_TAG) {
+                char stop = state == TEXT ? '<' : '>';
+
+                while (i < end && buffer[i] != stop)
+                    i++;
+
+                if (i == end)
+                    return;
+
+                state = state == TEXT ? TAG_START : TEXT;
+                continue;
+            }
+
+            if (state == VALUE_QUOTED && attribute == ATTR_OTHER) {
+                while (i < end && buffer[i] != quote)
+                    i++;
+
+                if (i == end)
+                    return;
+            }
+
+            feed(buffer[i]);
+        }
+    }
+
+    /**
+     * Feeds one character of the document.
+     *
+     * @param c The next character.
+     */
+    public void feed(char c) {
+        switch (state) {
+            case TEXT:
+                if (c == '<')
+                    state = TAG_START;
+                break;
+
+            case TAG_START:
+                if (isLetter(c)) {
+                    name.setLength(0);
+                    name.append(toLower(c));
+                    state = TAG_NAME;
+                } else if (c == '!') {
+                    dashes = 0;
+                    state = DECLARATION;
+                } else if (c == '>') {
+                    state = TEXT;
+                } else if (c != '<') {
+                    state = SKIP_TAG;
+                }
+                break;
+
+            case TAG_NAME:
+                if (isLetter(c) || (c >= '0' && c <= '9')) {
+                    if (name.length() < MAX_NAME_LENGTH)
+                        name.append(toLower(c));
+                    else
+                        state = SKIP_TAG;
+                } else if (isWhitespace(c) || c == '/') {
+                    startTag();
+                } else if (c == '>') {
+                    state = TEXT;
+                } else {
+                    state = SKIP_TAG;
+                }
+                break;
+
+            case BEFORE_ATTR:
+                if (c == '>')
+                    endTag();
+                else if (!isWhitespace(c) && c != '/')
+                    startAttribute(c);
+                break;
+
+            case ATTR_NAME:
+                if (c == '=') {
+                    startValue();
+                } else if (isWhitespace(c)) {
+                    state = AFTER_ATTR_NAME;
+                } else if (c == '>') {
+                    endTag();
+                } else if (c == '/') {
+                    state = BEFORE_ATTR;
+                } else if (name.length() <= MAX_NAME_LENGTH) {
+                    name.append(toLower(c));
+                }
+                break;
+
+            case AFTER_ATTR_NAME:
+                if (c == '=')
+                    startValue();
+                else if (c == '>')
+                    endTag();
+                else if (!isWhitespace(c) && c != '/')
+                    startAttribute(c);
+                break;
+
+            case BEFORE_VALUE:
+                if (c == '"' || c == '\'') {
+                    quote = c;
+                    state = VALUE_QUOTED;
+                } else if (c == '>') {
+                    endTag();
+                } else if (!isWhitespace(c)) {
+                    appendValue(c);
+                    state = VALUE_UNQUOTED;
+                }
+                break;
+
+            case VALUE_QUOTED:
+                if (c == quote) {
+                    endAttribute();
+                    state = BEFORE_ATTR;
+                } else {
+                    appendValue(c);
+                }
+                break;
+
+            case VALUE_UNQUOTED:
+                if (isWhitespace(c)) {
+                    endAttribute();
+                    state = BEFORE_ATTR;
+                } else if (c == '>') {
+                    endAttribute();
+                    endTag();
+                } else {
+                    appendValue(c);
+                }
+                break;
+
+            case DECLARATION:
+                if (c == '-' && ++dashes == 2) {
+                    dashes = 0;
+                    state = COMMENT;
+                } else if (c == '>') {
+                    state = TEXT;
+                } else if (c != '-') {
+                    state = SKIP_TAG;
+                }
+                break;
+
+            case COMMENT:
+                if (c == '-')
+                    dashes++;
+                else if (c == '>' && dashes >= 2)
+                    state = TEXT;
+                else
+                    dashes = 0;
+                break;
+
+            default:
+                if (c == '>')
+                    state = TEXT;
+        }
+    }
+
+    /**
+     * @return The {@code href} values of links in document order, without duplicates.
+     */
+    public Set<String> getHrefs() {
+        return Collections.unmodifiableSet(hrefs);
+    }
+
+    /**
+     * @return The {@code href} of the first {@code <base>} tag, or {@code null} if there is none.
+     */
+    public String getBaseHref() {
+        return baseHref;
+    }
+
+    private void startTag() {
+        tag = tagOf(name);
+        href = null;
+        canonical = false;
+        state = tag == TAG_OTHER ? SKIP_TAG : BEFORE_ATTR;
+    }
+
+    private void startAttribute(char c) {
+        name.setLength(0);
+        name.append(toLower(c));
+        state = ATTR_NAME;
+    }
+
+    private void startValue() {
+        attribute = attributeOf(name);
+        value.setLength(0);
+        state = BEFORE_VALUE;
+    }
+
+    private void appendValue(char c) {
+        if (attribute != ATTR_OTHER && value.length() <= MAX_HREF_LENGTH)
+            value.append(c);
+    }
+
+    private void endAttribute() {
+        if (attribute == ATTR_HREF && value.length() <= MAX_HREF_LENGTH)
+            href = decodeAmpersands(value);
+        else if (attribute == ATTR_REL)
+            canonical = containsToken(value, "canonical");
+
+        attribute = ATTR_OTHER;
+    }
+
+    private void endTag() {
+        if (href != null && !href.isEmpty()) {
+            if (tag == TAG_ANCHOR || (tag == TAG_LINK && canonical))
+                hrefs.add(href);
+            else if (tag == TAG_BASE && baseHref == null)
+                baseHref = href;
+        }
+
+        href = null;
+        canonical = false;
+        state = TEXT;
+    }
+
+    private static int tagOf(CharSequence name) {
+        if (contentEquals(name, "a") || contentEquals(name, "area"))
+            return TAG_ANCHOR;
+        if (contentEquals(name, "link"))
+            return TAG_LINK;
+        if (contentEquals(name, "base"))
+            return TAG_BASE;
+        return TAG_OTHER;
+    }
+
+    private static int attributeOf(CharSequence name) {
+        if (contentEquals(name, "href"))
+            return ATTR_HREF;
+        if (contentEquals(name, "rel"))
+            return ATTR_REL;
+        return ATTR_OTHER;
+    }
+
+    private static boolean contentEquals(CharSequence a, String b) {
+        if (a.length() != b.length())
+            return false;
+
+        for (int i = 0; i < b.length(); i++)
+            if (a.charAt(i) != b.charAt(i))
+                return false;
+
+        return true;
+    }
+
+    private static boolean containsToken(CharSequence value, String token) {
+        int length = value.length();
+
+        for (int start = 0; start < length; ) {
+            while (start < length && isWhitespace(value.charAt(start)))
+                start++;
+
+            int end = start;
+            while (end < length && !isWhitespace(value.charAt(end)))
+                end++;
+
+            if (end - start == token.length()) {
+                boolean equal = true;
+                for (int i = 0; i < token.length() && equal; i++)
+                    equal = toLower(value.charAt(start + i)) == token.charAt(i);
+                if (equal)
+                    return true;
+            }
+
+            start = end;
+        }
+
+        return false;
+    }
+
+    /**
+     * Trims the value and decodes {@code &amp;}, the only entity commonly found in URLs.
+     */
+    private static String decodeAmpersands(CharSequence value) {
+        int start = 0;
+        int end = value.length();
+
+        while (start < end && isWhitespace(value.charAt(start)))
+            start++;
+        while (end > start && isWhitespace(value.charAt(end - 1)))
+            end--;
+
+        var result = value.subSequence(start, end).toString();
+        return result.indexOf("&amp;") >= 0 ? result.replace("&amp;", "&") : result;
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f';
+    }
+
+    private static char toLower(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
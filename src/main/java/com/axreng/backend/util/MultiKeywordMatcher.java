@@ -0,0 +1,233 @@
+package com.axreng.backend.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Case-insensitive matcher for many keywords at once, built as an Aho-Corasick automaton.
+ * <p>
+ * The keywords are lowercased into a trie whose failure links are folded into a dense transition table,
+ * so each character of the text costs one table lookup no matter how many keywords there are. Like
+ * {@link KeywordMatcher}, text is consumed incrementally and the scan state is a plain {@code int} owned
+ * by the caller; the keywords found so far are recorded in a {@link BitSet} indexed by keyword position.
+ * </p>
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * var matcher = new MultiKeywordMatcher(List.of("linux", "security"));
+ * var found = new BitSet();
+ * int state = matcher.advance(0, buffer, 0, read, found);
+ * boolean hasSecurity = found.get(1);
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class MultiKeywordMatcher {
+
+    private static final int ASCII = 128;
+
+    private final int keywordCount;
+    private final char[] alphabet;
+    private final int[] asciiColumns;
+    private final int columns;
+    private final int[] transitions;
+    private final BitSet[] outputs;
+    private final boolean[] asciiStarts;
+
+    /**
+     * Compiles the automaton for the given keywords.
+     *
+     * @param keywords The keywords to search for, matched ignoring case. Duplicates are allowed and
+     *                 reported independently.
+     * @throws IllegalArgumentException if there are no keywords or one of them is null or empty.
+     */
+    public MultiKeywordMatcher(List<String> keywords) {
+        if (keywords == null || keywords.isEmpty())
+            throw new IllegalArgumentException("At least one keyword is required");
+
+        var patterns = new ArrayList<String>(keywords.size());
+        var distinct = new TreeSet<Character>();
+
+        for (String keyword : keywords) {
+            if (keyword == null || keyword.isEmpty())
+                throw new IllegalArgumentException("Keyword cannot be null or empty");
+
+            var pattern = keyword.toLowerCase();
+            patterns.add(pattern);
+            pattern.chars().forEach(c -> distinct.add((char) c));
+        }
+
+        this.keywordCount = patterns.size();
+        this.alphabet = new char[distinct.size()];
+        this.asciiColumns = new int[ASCII];
+        this.columns = alphabet.length;
+
+        Arrays.fill(asciiColumns, -1);
+        int column = 0;
+        for (char c : distinct) {
+            alphabet[column] = c;
+            if (c < ASCII)
+                asciiColumns[c] = column;
+            column++;
+        }
+
+        // Trie, with children as maps while it is being built.
+        var children = new ArrayList<Map<Integer, Integer>>();
+        var trieOutputs = new ArrayList<BitSet>();
+        children.add(new HashMap<>());
+        trieOutputs.add(null);
+
+        for (int id = 0; id < patterns.size(); id++) {
+            int state = 0;
+
+            for (char c : patterns.get(id).toCharArray()) {
+                int col = columnOf(c);
+                var next = children.get(state).get(col);
+
+                if (next == null) {
+                    next = children.size();
+                    children.get(state).put(col, next);
+                    children.add(new HashMap<>());
+                    trieOutputs.add(null);
+                }
+
+                state = next;
+            }
+
+            if (trieOutputs.get(state) == null)
+                trieOutputs.set(state, new BitSet());
+            trieOutputs.get(state).set(id);
+        }
+
+        int states = children.size();
+        this.transitions = new int[states * columns];
+        this.outputs = trieOutputs.toArray(new BitSet[0]);
+
+        // Breadth-first pass: fold failure links into the transition table and merge outputs.
+        var failure = new int[states];
+        var queue = new ArrayDeque<Integer>();
+
+        for (int col = 0; col < columns; col++) {
+            var child = children.get(0).get(col);
+            if (child != null) {
+                transitions[col] = child;
+                queue.add(child);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            var inherited = outputs[failure[state]];
+
+            if (inherited != null) {
+                if (outputs[state] == null)
+                    outputs[state] = new BitSet();
+                outputs[state].or(inherited);
+            }
+
+            for (int col = 0; col < columns; col++) {
+                var child = children.get(state).get(col);
+
+                if (child == null) {
+                    transitions[state * columns + col] = transitions[failure[state] * columns + col];
+                } else {
+                    failure[child] = transitions[failure[state] * columns + col];
+                    transitions[state * columns + col] = child;
+                    queue.add(child);
+                }
+            }
+        }
+
+        this.asciiStarts = new boolean[ASCII];
+        for (int c = 0; c < ASCII; c++) {
+            int col = columnOf(Character.toLowerCase((char) c));
+            asciiStarts[c] = col >= 0 && transitions[col] != 0;
+        }
+    }
+
+    /**
+     * @return The number of keywords.
+     */
+    public int keywordCount() {
+        return keywordCount;
+    }
+
+    /**
+     * Feeds one character to the automaton.
+     *
+     * @param state The current state, starting at {@code 0}.
+     * @param c     The next character of the text.
+     * @param found Receives the positions of the keywords ending at this character.
+     * @return The new state.
+     */
+    public int advance(int state, char c, BitSet found) {
+        int col = columnOf(Character.toLowerCase(c));
+        int next = col < 0 ? 0 : transitions[state * columns + col];
+
+        if (outputs[next] != null)
+            found.or(outputs[next]);
+
+        return next;
+    }
+
+    /**
+     * Feeds a range of characters to the automaton.
+     *
+     * @param state  The current state.
+     * @param buffer The characters to consume.
+     * @param offset The index of the first character.
+     * @param length The number of characters.
+     * @param found  Receives the positions of the keywords found.
+     * @return The new state.
+     */
+    public int advance(int state, char[] buffer, int offset, int length, BitSet found) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            if (state == 0) {
+                // Skip ASCII characters that cannot start any keyword without touching the table.
+                while (i < end && buffer[i] < ASCII && !asciiStarts[buffer[i]])
+                    i++;
+
+                if (i == end)
+                    break;
+            }
+
+            state = advance(state, buffer[i], found);
+        }
+
+        return state;
+    }
+
+    /**
+     * Searches a whole text at once.
+     *
+     * @param text The text to search.
+     * @return The positions of the keywords occurring in the text, ignoring case.
+     */
+    public BitSet matches(CharSequence text) {
+        var found = new BitSet();
+        int state = 0;
+
+        for (int i = 0, length = text.length(); i < length; i++)
+            state = advance(state, text.charAt(i), found);
+
+        return found;
+    }
+
+    private int columnOf(char lower) {
+        if (lower < ASCII)
+            return asciiColumns[lower];
+
+        int index = Arrays.binarySearch(alphabet, lower);
+        return index < 0 ? -1 : index;
+    }
+}
@@ -0,0 +1,350 @@
+package com.axreng.backend.util;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of fetched pages shared by every search.
+ * <p>
+ * Entries are kept in least-recently-used order and evicted when the total size of the cached bodies
+ * exceeds {@code maxBytes}, or ignored once older than {@code ttlMillis}. Pages larger than
+ * {@code maxEntryBytes} are never cached, so a single huge page cannot flush the cache.
+ * </p>
+ * <p>
+ * Concurrent misses for the same URL are coalesced: the first caller starts the fetch, and every caller
+ * arriving while it is in flight shares its result instead of downloading the page again.
+ * </p>
+ * <p>
+ * A page past its TTL that carries an {@code ETag} or {@code Last-Modified} validator is not dropped but
+ * handed to the {@link Loader}, which can revalidate it with a conditional request and return the same
+ * page, refreshed, when the server answers {@code 304 Not Modified}.
+ * </p>
+ * <p>
+ * A loader that fetched a page too large to keep completes with {@link #UNCACHEABLE}: nothing is stored,
+ * and callers that joined its fetch must fetch the page themselves.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * var cache = new PageCache(64 * 1024 * 1024, 300_000, 4 * 1024 * 1024);
+ * cache.get(url, UrlFetcher::fetchPage).thenAccept(page -&gt; ...);
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.2
+ */
+public class PageCache {
+
+    /**
+     * Rough per-entry overhead of the map node, the entry object and the key, in bytes.
+     */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    /**
+     * Completes a load whose page was fetched but is larger than {@code maxEntryBytes}; never stored.
+     */
+    public static final Page UNCACHEABLE = new Page(new byte[0], StandardCharsets.UTF_8, 0);
+
+    private final long maxBytes;
+    private final long ttlMillis;
+    private final long maxEntryBytes;
+    private final LinkedHashMap<String, Page> entries;
+    private final Map<String, CompletableFuture<Page>> inFlight;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder coalesced;
+    private final LongAdder evictions;
+    private final LongAdder revalidations;
+    private long currentBytes;
+
+    /**
+     * @param maxBytes      Maximum total size of the cached pages; {@code 0} disables caching.
+     * @param ttlMillis     How long a page is served from the cache after being fetched.
+     * @param maxEntryBytes Largest page that is cached.
+     */
+    public PageCache(long maxBytes, long ttlMillis, long maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttlMillis;
+        this.maxEntryBytes = Math.min(maxEntryBytes, maxBytes);
+        this.entries = new LinkedHashMap<>(256, 0.75f, true);
+        this.inFlight = new ConcurrentHashMap<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.coalesced = new LongAdder();
+        this.evictions = new LongAdder();
+        this.revalidations = new LongAdder();
+    }
+
+    /**
+     * @return {@code true} if the cache may hold pages.
+     */
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * @return The largest body kept, in bytes; a loader need not buffer more than this.
+     */
+    public long getMaxEntryBytes() {
+        return Math.max(maxEntryBytes - ENTRY_OVERHEAD, 0);
+    }
+
+    /**
+     * Returns the cached page for a URL, loading it if needed.
+     *
+     * @param url    The page URL.
+     * @param loader Fetches the page on a miss; completes with {@code null} if it cannot be fetched.
+     * @return A future completed with the page, or with {@code null} if it could not be fetched.
+     */
+    public CompletableFuture<Page> get(String url, Function<String, CompletableFuture<Page>> loader) {
+        return get(url, (target, stale) -> loader.apply(target));
+    }
+
+    /**
+     * Returns the cached page for a URL, loading or revalidating it if needed.
+     *
+     * @param url    The page URL.
+     * @param loader Fetches the page on a miss, given the expired page to revalidate if there is one.
+     * @return A future completed with the page, or with {@code null} if it could not be fetched.
+     */
+    public CompletableFuture<Page> get(String url, Loader loader) {
+        var key = key(url);
+        long now = System.currentTimeMillis();
+        var cached = lookup(key, now);
+
+        if (cached != null && now - cached.fetchedAt <= ttlMillis) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        var created = new CompletableFuture<Page>();
+        var existing = inFlight.putIfAbsent(key, created);
+
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+
+        misses.increment();
+
+        CompletableFuture<Page> load;
+        try {
+            load = loader.load(url, cached);
+        } catch (RuntimeException e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+
+        load.whenComplete((page, ex) -> {
+            if (ex == null && page != null && page != UNCACHEABLE) {
+                if (cached != null && page.body == cached.body)
+                    revalidations.increment();
+                store(key, page);
+            }
+
+            inFlight.remove(key, created);
+
+            if (ex != null)
+                created.completeExceptionally(ex);
+            else
+                created.complete(page);
+        });
+
+        return created;
+    }
+
+    /**
+     * Normalizes a URL into a cache key by dropping its fragment, which never changes the response.
+     *
+     * @param url The URL.
+     * @return The cache key.
+     */
+    static String key(String url) {
+        int hash = url.indexOf('#');
+        return hash < 0 ? url : url.substring(0, hash);
+    }
+
+    /**
+     * @return The cached page, fresh or expired with validators, or {@code null}; expired pages without
+     * validators are dropped.
+     */
+    private synchronized Page lookup(String key, long now) {
+        var page = entries.get(key);
+
+        if (page == null)
+            return null;
+
+        if (now - page.fetchedAt > ttlMillis && !page.hasValidators()) {
+            entries.remove(key);
+            currentBytes -= page.weight();
+            return null;
+        }
+
+        return page;
+    }
+
+    private synchronized void store(String key, Page page) {
+        if (!isEnabled() || page.weight() > maxEntryBytes)
+            return;
+
+        var previous = entries.put(key, page);
+
+        if (previous != null)
+            currentBytes -= previous.weight();
+
+        currentBytes += page.weight();
+
+        Iterator<Map.Entry<String, Page>> eldest = entries.entrySet().iterator();
+
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            currentBytes -= eldest.next().getValue().weight();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * @return The number of lookups answered from the cache.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of lookups that started a fetch.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of lookups that joined a fetch already in flight.
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return The number of expired pages reused after the server confirmed they had not changed.
+     */
+    public long getRevalidations() {
+        return revalidations.sum();
+    }
+
+    /**
+     * @return The number of pages evicted to stay under the size limit.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return The estimated size of the cached pages, in bytes.
+     */
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    /**
+     * @return The number of cached pages.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Loads a page that is not in the cache, or no longer fresh.
+     */
+    @FunctionalInterface
+    public interface Loader {
+
+        /**
+         * @param url   The page URL.
+         * @param stale The expired page to revalidate, or {@code null} if there is none.
+         * @return A future completed with the page ({@code stale} itself, refreshed, if it has not changed),
+         * with {@link #UNCACHEABLE} if it is too large to keep, or with {@code null} if it could not be fetched.
+         */
+        CompletableFuture<Page> load(String url, Page stale);
+    }
+
+    /**
+     * A fetched page body, kept as the raw bytes received (still compressed, if it was sent so), with the
+     * validators to revalidate it.
+     */
+    public static class Page {
+
+        private final byte[] body;
+        private final Charset charset;
+        private final long fetchedAt;
+        private final String etag;
+        private final String lastModified;
+        private final String contentEncoding;
+
+        public Page(byte[] body, Charset charset, long fetchedAt) {
+            this(body, charset, fetchedAt, null, null, null);
+        }
+
+        public Page(byte[] body, Charset charset, long fetchedAt, String etag, String lastModified,
+                    String contentEncoding) {
+            this.body = body;
+            this.charset = charset;
+            this.fetchedAt = fetchedAt;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.contentEncoding = contentEncoding;
+        }
+
+        /**
+         * Returns this page as confirmed unchanged at {@code now}, keeping its body.
+         *
+         * @param now          The time of the revalidation, in epoch milliseconds.
+         * @param etag         The validator sent with the {@code 304}, or {@code null} to keep the current one.
+         * @param lastModified The date sent with the {@code 304}, or {@code null} to keep the current one.
+         * @return The refreshed page.
+         */
+        public Page revalidated(long now, String etag, String lastModified) {
+            return new Page(body, charset, now,
+                    etag != null ? etag : this.etag,
+                    lastModified != null ? lastModified : this.lastModified,
+                    contentEncoding);
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public Charset getCharset() {
+            return charset;
+        }
+
+        public long getFetchedAt() {
+            return fetchedAt;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public String getContentEncoding() {
+            return contentEncoding;
+        }
+
+        public boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+
+        long weight() {
+            return body.length + ENTRY_OVERHEAD;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.axreng.backend.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.BitSet;
+import java.util.Set;
+
+import static com.axreng.backend.util.Constants.SCAN_BUFFER_SIZE;
+
+/**
+ * Scans a page body in a single streaming pass, looking for one or more keywords and collecting link targets.
+ * <p>
+ * The body is decoded through a fixed-size buffer of {@link Constants#SCAN_BUFFER_SIZE} characters. Each
+ * chunk is fed to a {@link KeywordMatcher} and to a {@link LinkTokenizer}, so memory per page stays
+ * constant regardless of the page size: only the current buffer and the attribute value being read
+ * are held at any time, besides the links collected so far.
+ * </p>
+ * <p>
+ * A scanner can optionally keep a lowercased copy of each page's text, up to a length limit, for
+ * {@link com.axreng.backend.service.SearchIndex} to answer later searches from memory.
+ * </p>
+ * <p>
+ * A batch of keywords is matched in the same single pass with a {@link MultiKeywordMatcher}.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * var scanner = new PageScanner(new KeywordMatcher("security"));
+ * PageScanner.Result result = scanner.scan(inputStream, StandardCharsets.UTF_8);
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.2
+ */
+public class PageScanner {
+
+    private final KeywordMatcher matcher;
+    private final MultiKeywordMatcher keywords;
+    private final int maxTextLength;
+
+    /**
+     * @param matcher The compiled keyword to look for.
+     */
+    public PageScanner(KeywordMatcher matcher) {
+        this(matcher, 0);
+    }
+
+    /**
+     * @param matcher       The compiled keyword to look for.
+     * @param maxTextLength The longest page whose lowercased text is kept in the result; {@code 0} keeps none.
+     */
+    public PageScanner(KeywordMatcher matcher, int maxTextLength) {
+        this.matcher = matcher;
+        this.keywords = null;
+        this.maxTextLength = maxTextLength;
+    }
+
+    /**
+     * @param keywords      The compiled keywords to look for.
+     * @param maxTextLength The longest page whose lowercased text is kept in the result; {@code 0} keeps none.
+     */
+    public PageScanner(MultiKeywordMatcher keywords, int maxTextLength) {
+        this.matcher = null;
+        this.keywords = keywords;
+        this.maxTextLength = maxTextLength;
+    }
+
+    /**
+     * Reads the body to the end, matching the keyword and collecting raw {@code href} values.
+     *
+     * @param body    The response body. It is not closed by this method.
+     * @param charset The charset used to decode the body.
+     * @return The scan result.
+     * @throws IOException If reading the body fails.
+     */
+    public Result scan(InputStream body, Charset charset) throws IOException {
+        return scan(new InputStreamReader(body, charset));
+    }
+
+    /**
+     * Reads the characters to the end, matching the keyword and collecting raw {@code href} values.
+     *
+     * @param reader The decoded body. It is not closed by this method.
+     * @return The scan result.
+     * @throws IOException If reading fails.
+     */
+    public Result scan(Reader reader) throws IOException {
+        var buffer = new char[SCAN_BUFFER_SIZE];
+        var links = new LinkTokenizer();
+        var text = maxTextLength > 0 ? new StringBuilder() : null;
+        var found = keywords != null ? new BitSet(keywords.keywordCount()) : null;
+        int state = 0;
+        long chars = 0;
+        int read;
+
+        while ((read = reader.read(buffer)) != -1) {
+            state = found != null
+                    ? keywords.advance(state, buffer, 0, read, found)
+                    : matcher.advance(state, buffer, 0, read);
+            links.feed(buffer, 0, read);
+            chars += read;
+
+            if (text != null && chars <= maxTextLength)
+                appendLowerCase(text, buffer, read);
+        }
+
+        var kept = text != null && chars <= maxTextLength ? text.toString() : null;
+
+        if (found != null)
+            return new Result(found, links.getHrefs(), links.getBaseHref(), chars, kept);
+
+        return new Result(matcher.isMatch(state), links.getHrefs(), links.getBaseHref(), chars, kept);
+    }
+
+    private static void appendLowerCase(StringBuilder text, char[] buffer, int length) {
+        for (int i = 0; i < length; i++)
+            text.append(Character.toLowerCase(buffer[i]));
+    }
+
+    /**
+     * Outcome of scanning one page.
+     */
+    public static class Result {
+
+        private final boolean matched;
+        private final BitSet matches;
+        private final Set<String> hrefs;
+        private final String baseHref;
+        private final long characters;
+        private final String text;
+
+        public Result(boolean matched, Set<String> hrefs, String baseHref, long characters) {
+            this(matched, hrefs, baseHref, characters, null);
+        }
+
+        public Result(boolean matched, Set<String> hrefs, String baseHref, long characters, String text) {
+            this(matched, null, hrefs, baseHref, characters, text);
+        }
+
+        public Result(BitSet matches, Set<String> hrefs, String baseHref, long characters, String text) {
+            this(!matches.isEmpty(), matches, hrefs, baseHref, characters, text);
+        }
+
+        private Result(boolean matched, BitSet matches, Set<String> hrefs, String baseHref, long characters,
+                       String text) {
+            this.matched = matched;
+            this.matches = matches;
+            this.hrefs = hrefs;
+            this.baseHref = baseHref;
+            this.characters = characters;
+            this.text = text;
+        }
+
+        /**
+         * @return {@code true} if the keyword was found on the page.
+         */
+        public boolean isMatched() {
+            return matched;
+        }
+
+        /**
+         * @return The positions of the keywords found on the page; for a single keyword, {@code {0}} if it
+         * was found.
+         */
+        public BitSet getMatches() {
+            if (matches != null)
+                return matches;
+
+            var single = new BitSet(1);
+            single.set(0, matched);
+            return single;
+        }
+
+        /**
+         * @return The raw, unresolved {@code href} values in document order, without duplicates.
+         */
+        public Set<String> getHrefs() {
+            return hrefs;
+        }
+
+        /**
+         * @return The {@code href} of the page's {@code <base>} tag, or {@code null} if it has none.
+         */
+        public String getBaseHref() {
+            return baseHref;
+        }
+
+        /**
+         * @return The number of characters read.
+         */
+        public long getCharacters() {
+            return characters;
+        }
+
+        /**
+         * @return The lowercased page text, or {@code null} if the scanner keeps no text or the page was
+         * longer than its limit.
+         */
+        public String getText() {
+            return text;
+        }
+    }
+}
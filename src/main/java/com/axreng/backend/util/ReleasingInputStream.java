@@ -0,0 +1,30 @@
+package com.axreng.backend.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Runs an action once, after the stream is closed.
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+class ReleasingInputStream extends FilterInputStream {
+
+    private final Runnable release;
+
+    ReleasingInputStream(InputStream in, Runnable release) {
+        super(in);
+        this.release = release;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            release.run();
+        }
+    }
+}
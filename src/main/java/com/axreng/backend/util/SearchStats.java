@@ -0,0 +1,147 @@
+package com.axreng.backend.util;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Progress and timing of one crawl, recorded by its pages and read by {@code GET /crawl/:id/stats}.
+ * <p>
+ * Counters are {@link LongAdder}s, since the pages of a crawl record them concurrently. The time of each
+ * page is split into the phases that can be told apart with {@link java.net.http.HttpClient}:
+ * </p>
+ * <ul>
+ *     <li><b>fetch</b> - from asking for the page until its body can be read: waiting for the host, connect
+ *     and time to first byte.</li>
+ *     <li><b>scan</b> - decoding, tokenizing and keyword matching, done in one pass; includes the download of
+ *     the body, which is scanned as it streams in.</li>
+ *     <li><b>link resolution</b> - scope checks, resolution and canonicalization of the links found.</li>
+ * </ul>
+ * <p>
+ * While the crawl runs, the frontier size is read live; when it finishes, the size is kept and the
+ * frontier is released.
+ * </p>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * var stats = new SearchStats(frontier::size);
+ * UrlFetcher.fetchAsync(url, reader, executor, stats.bytesReceivedCounter());
+ * stats.addFetchNanos(elapsed);
+ * stats.recordPage(true);
+ * stats.finish();
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class SearchStats {
+
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final LongAdder pagesFetched = new LongAdder();
+    private final LongAdder pagesFailed = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder fetchNanos = new LongAdder();
+    private final LongAdder scanNanos = new LongAdder();
+    private final LongAdder linkResolutionNanos = new LongAdder();
+    private volatile IntSupplier frontierSize;
+    private volatile int finalFrontierSize;
+    private volatile long elapsedNanos = -1;
+
+    /**
+     * @param frontierSize Reads the number of links waiting in the frontier of the crawl.
+     */
+    public SearchStats(IntSupplier frontierSize) {
+        this.frontierSize = frontierSize;
+    }
+
+    /**
+     * @param fetched Whether the page could be fetched.
+     */
+    public void recordPage(boolean fetched) {
+        (fetched ? pagesFetched : pagesFailed).increment();
+    }
+
+    /**
+     * @return The counter of the body bytes received for the pages of the crawl, to pass to
+     * {@link UrlFetcher#fetchAsync(String, UrlFetcher.BodyReader, java.util.concurrent.Executor, LongAdder)}.
+     */
+    public LongAdder bytesReceivedCounter() {
+        return bytesReceived;
+    }
+
+    public void addFetchNanos(long nanos) {
+        fetchNanos.add(nanos);
+    }
+
+    public void addScanNanos(long nanos) {
+        scanNanos.add(nanos);
+    }
+
+    public void addLinkResolutionNanos(long nanos) {
+        linkResolutionNanos.add(nanos);
+    }
+
+    /**
+     * Stops the clock and keeps the final frontier size, releasing the frontier. Later calls do nothing.
+     */
+    public synchronized void finish() {
+        var frontier = frontierSize;
+
+        if (frontier == null)
+            return;
+
+        finalFrontierSize = frontier.getAsInt();
+        elapsedNanos = System.nanoTime() - startNanos;
+        frontierSize = null;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public long getPagesFetched() {
+        return pagesFetched.sum();
+    }
+
+    public long getPagesFailed() {
+        return pagesFailed.sum();
+    }
+
+    /**
+     * @return The number of links waiting in the frontier now, or when the crawl finished.
+     */
+    public int getFrontierSize() {
+        var frontier = frontierSize;
+        return frontier != null ? frontier.getAsInt() : finalFrontierSize;
+    }
+
+    /**
+     * @return The body bytes received over the network for the pages of the crawl, as sent on the wire;
+     * pages served from the page cache add nothing.
+     */
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * @return The time since the crawl started, or its duration once finished, in milliseconds.
+     */
+    public long getElapsedMillis() {
+        long elapsed = elapsedNanos;
+        return TimeUnit.NANOSECONDS.toMillis(elapsed >= 0 ? elapsed : System.nanoTime() - startNanos);
+    }
+
+    public long getFetchMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(fetchNanos.sum());
+    }
+
+    public long getScanMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(scanNanos.sum());
+    }
+
+    public long getLinkResolutionMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(linkResolutionNanos.sum());
+    }
+}
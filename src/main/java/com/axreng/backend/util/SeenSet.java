@@ -0,0 +1,49 @@
+package com.axreng.backend.util;
+
+import com.axreng.backend.enums.SeenSetMode;
+
+import static com.axreng.backend.util.Constants.BLOOM_FALSE_POSITIVE_RATE;
+
+/**
+ * Set of URLs a crawl has already discovered, used to deduplicate the frontier.
+ * <p>
+ * Implementations must be thread-safe: {@link #add(String)} is called concurrently by every
+ * crawl worker and has to be a single atomic add-if-absent.
+ * </p>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public interface SeenSet {
+
+    /**
+     * Records a URL as seen.
+     *
+     * @param url The URL.
+     * @return {@code true} if the URL had not been seen before, {@code false} otherwise.
+     */
+    boolean add(String url);
+
+    /**
+     * @return The number of distinct URLs recorded.
+     */
+    int size();
+
+    /**
+     * Creates a seen set for the given mode.
+     *
+     * @param mode         The dedup strategy.
+     * @param expectedUrls The number of distinct URLs the crawl is expected to discover.
+     * @return A new, empty seen set.
+     */
+    static SeenSet create(SeenSetMode mode, int expectedUrls) {
+        switch (mode) {
+            case FINGERPRINT:
+                return new FingerprintSeenSet(expectedUrls);
+            case BLOOM:
+                return new BloomSeenSet(expectedUrls, BLOOM_FALSE_POSITIVE_RATE);
+            default:
+                return new ConcurrentSeenSet();
+        }
+    }
+}
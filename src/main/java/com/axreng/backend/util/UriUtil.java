@@ -2,18 +2,36 @@ package com.axreng.backend.util;
 
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.regex.Matcher;
+import java.util.*;
 
-import static com.axreng.backend.util.Constants.ALLOW_SUBDOMAINS;
-import static com.axreng.backend.util.Constants.LINK_PATTERN;
+import static com.axreng.backend.util.Constants.DEFAULT_URL_STRIP_PARAMS;
 
 /**
  * Utility class for handling URL extraction and resolution.
+ * <p>
+ * Resolved links are put in canonical form by a {@link UrlCanonicalizer}, configured with
+ * {@code URL_SORT_QUERY} and {@code URL_STRIP_PARAMS}, so the frontier sees each page under one spelling.
+ * </p>
  */
 public class UriUtil {
 
+    private static final UrlCanonicalizer defaultCanonicalizer = new UrlCanonicalizer(
+            EnvironmentUtil.getBoolean("URL_SORT_QUERY", true),
+            EnvironmentUtil.getString("URL_STRIP_PARAMS", DEFAULT_URL_STRIP_PARAMS));
+
+    private final UrlCanonicalizer canonicalizer;
+
+    public UriUtil() {
+        this(defaultCanonicalizer);
+    }
+
+    /**
+     * @param canonicalizer Puts resolved links in canonical form.
+     */
+    public UriUtil(UrlCanonicalizer canonicalizer) {
+        this.canonicalizer = canonicalizer;
+    }
+
     /**
      * Extracts the base URL (scheme + host) from a given URL.
      *
@@ -42,45 +60,124 @@ public class UriUtil {
      * @return A set of valid, resolved URLs.
      */
     public Set<String> extractLinks(String currentUrl, String html, String baseUrl) {
+        return extractLinks(currentUrl, html, CrawlScope.forBaseUrl(baseUrl));
+    }
+
+    /**
+     * Extracts and resolves links from the HTML content.
+     *
+     * @param currentUrl The base URL of the current page.
+     * @param html       The HTML content to scan for links.
+     * @param scope      The scope of the search, deciding which links are kept.
+     * @return A set of valid, resolved URLs.
+     */
+    public Set<String> extractLinks(String currentUrl, String html, CrawlScope scope) {
+        var tokenizer = LinkTokenizer.tokenize(html);
+        return resolveLinks(currentUrl, tokenizer.getBaseHref(), tokenizer.getHrefs(), scope);
+    }
+
+    /**
+     * Validates and resolves raw {@code href} values found on a page.
+     *
+     * @param currentUrl The base URL of the current page.
+     * @param baseHref   The {@code href} of the page's {@code <base>} tag, or {@code null} if it has none.
+     * @param hrefs      The raw link targets, as written in the page.
+     * @param baseUrl    The main domain to validate allowed links.
+     * @return A set of valid, resolved and canonical URLs.
+     */
+    public Set<String> resolveLinks(String currentUrl, String baseHref, Collection<String> hrefs, String baseUrl) {
+        return resolveLinks(currentUrl, baseHref, hrefs, CrawlScope.forBaseUrl(baseUrl));
+    }
+
+    /**
+     * Validates and resolves raw {@code href} values found on a page.
+     * <p>
+     * Links are checked against the scope before they are resolved, so links that are out of scope are
+     * dropped without being parsed. A {@code <base>} tag pointing out of scope is ignored, since relative
+     * links, which pass that check, would otherwise be resolved onto another site. The page URL is parsed
+     * once for all of its links. The work is recorded as a {@link CrawlEvents.LinkResolution} flight
+     * recorder event.
+     * </p>
+     *
+     * @param currentUrl The base URL of the current page.
+     * @param baseHref   The {@code href} of the page's {@code <base>} tag, or {@code null} if it has none.
+     * @param hrefs      The raw link targets, as written in the page.
+     * @param scope      The scope of the search, deciding which links are kept.
+     * @return A set of valid, resolved and canonical URLs.
+     */
+    public Set<String> resolveLinks(String currentUrl, String baseHref, Collection<String> hrefs, CrawlScope scope) {
+        var event = new CrawlEvents.LinkResolution();
+        event.begin();
+
         Set<String> links = new HashSet<>();
-        Matcher matcher = LINK_PATTERN.matcher(html);
+        URI documentUri = parse(currentUrl);
+
+        if (documentUri != null)
+            resolveLinks(documentUri, baseHref, hrefs, scope, links);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.url = currentUrl;
+            event.hrefs = hrefs.size();
+            event.links = links.size();
+            event.commit();
+        }
+
+        return links;
+    }
 
-        while (matcher.find()) {
-            String link = matcher.group(1);
+    private void resolveLinks(URI documentUri, String baseHref, Collection<String> hrefs, CrawlScope scope,
+                              Set<String> links) {
+
+        if (baseHref != null) {
+            URI resolvedBase = resolveUrl(documentUri, baseHref);
+            if (resolvedBase != null && scope.acceptsHost(resolvedBase))
+                documentUri = resolvedBase;
+        }
 
-            if (!UrlValidator.isValid(link, baseUrl, ALLOW_SUBDOMAINS))
+        for (String link : hrefs) {
+            if (!scope.accepts(link))
                 continue;
 
-            String absoluteUrl = resolveUrl(currentUrl, link);
+            URI absoluteUri = resolveUrl(documentUri, link);
+            if (absoluteUri == null)
+                continue;
 
-            if (absoluteUrl != null)
-                links.add(absoluteUrl);
+            String canonicalUrl = canonicalizer.canonicalize(absoluteUri.toString());
 
+            if (scope.acceptsPath(canonicalUrl))
+                links.add(canonicalUrl);
         }
+    }
 
-        return links;
+    /**
+     * Puts an absolute URL in the canonical form used for the links returned by {@link #resolveLinks}.
+     *
+     * @param url The absolute URL.
+     * @return The canonical URL.
+     */
+    public String canonicalize(String url) {
+        return canonicalizer.canonicalize(url);
     }
 
     /**
      * Resolves a relative or absolute URL based on a given base URL.
      *
-     * @param currentUrl The base URL.
-     * @param link       The link to resolve.
-     * @return The fully resolved URL as a string, or null if invalid.
+     * @param baseUri The parsed base URL.
+     * @param link    The link to resolve.
+     * @return The fully resolved URL, or null if invalid.
      */
-    private String resolveUrl(String currentUrl, String link) {
-        try {
-            link = sanitizeUrl(link);
-            URI baseUri = new URI(currentUrl);
-            URI resolvedUri = baseUri.resolve(link);
+    private URI resolveUrl(URI baseUri, String link) {
+        URI linkUri = parse(sanitizeUrl(link));
+        if (linkUri == null)
+            return null;
 
-            if (resolvedUri.getScheme() == null || resolvedUri.getHost() == null)
-                return null;
+        URI resolvedUri = baseUri.resolve(linkUri);
 
-            return resolvedUri.toString();
-        } catch (URISyntaxException e) {
+        if (resolvedUri.getScheme() == null || resolvedUri.getHost() == null)
             return null;
-        }
+
+        return resolvedUri;
     }
 
     /**
@@ -92,8 +189,18 @@ public class UriUtil {
     private String sanitizeUrl(String url) {
         if (url == null) return null;
 
+        return url.trim().replace(" ", "%20");
+    }
+
+    /**
+     * @param url The URL to parse.
+     * @return The parsed URL, or {@code null} if it is missing or malformed.
+     */
+    private URI parse(String url) {
+        if (url == null) return null;
+
         try {
-            return new URI(url.trim().replace(" ", "%20")).toString();
+            return new URI(url);
         } catch (URISyntaxException e) {
             return null;
         }
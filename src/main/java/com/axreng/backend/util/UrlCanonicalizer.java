@@ -0,0 +1,331 @@
+package com.axreng.backend.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Rewrites absolute URLs into one canonical spelling, so the same page reached through different links is
+ * deduplicated by the frontier and fetched once.
+ * <p>
+ * The URL is parsed by hand in a single pass into one {@link StringBuilder}; no {@link java.net.URI} is
+ * built, and a URL that is already canonical is returned as the same instance.
+ * </p>
+ *
+ * <h3>Rules:</h3>
+ * <ul>
+ *     <li>The scheme and host are lowercased, and the default port ({@code :80} for http, {@code :443} for
+ *     https) is removed.</li>
+ *     <li>{@code .} and {@code ..} path segments are resolved, and an empty path becomes {@code /}.</li>
+ *     <li>Percent-escapes of unreserved characters are decoded; other escapes are uppercased.</li>
+ *     <li>Query parameters in the strip list (e.g. {@code utm_*}, {@code gclid}) and empty parameters are
+ *     removed, and the remaining ones are sorted by name if {@code sortQuery} is set. An empty query is dropped.</li>
+ *     <li>The fragment is removed.</li>
+ * </ul>
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * var canonicalizer = new UrlCanonicalizer(true, "utm_*,gclid");
+ * canonicalizer.canonicalize("HTTP://Ibm.com:80/a/../page.html?b=2&amp;utm_source=x&amp;a=1#top");
+ * // "http://ibm.com/page.html?a=1&amp;b=2"
+ * </pre>
+ *
+ * @author Jean Fernandes
+ * @version 1.0
+ */
+public class UrlCanonicalizer {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final boolean sortQuery;
+    private final String[] strippedNames;
+    private final String[] strippedPrefixes;
+
+    /**
+     * @param sortQuery      Whether query parameters are sorted by name.
+     * @param strippedParams Comma-separated names of query parameters to remove, compared ignoring case;
+     *                       a trailing {@code *} matches any name with that prefix.
+     */
+    public UrlCanonicalizer(boolean sortQuery, String strippedParams) {
+        List<String> names = new ArrayList<>();
+        List<String> prefixes = new ArrayList<>();
+
+        for (String param : strippedParams.split(",")) {
+            var trimmed = param.trim().toLowerCase(Locale.ROOT);
+
+            if (trimmed.endsWith("*"))
+                prefixes.add(trimmed.substring(0, trimmed.length() - 1));
+            else if (!trimmed.isEmpty())
+                names.add(trimmed);
+        }
+
+        this.sortQuery = sortQuery;
+        this.strippedNames = names.toArray(new String[0]);
+        this.strippedPrefixes = prefixes.toArray(new String[0]);
+    }
+
+    /**
+     * Canonicalizes an absolute hierarchical URL ({@code scheme://authority/path?query#fragment}).
+     *
+     * @param url The absolute URL.
+     * @return The canonical URL, the same instance if nothing changed, or {@code url} itself if it is not
+     * an absolute hierarchical URL.
+     */
+    public String canonicalize(String url) {
+        int length = url.length();
+        int colon = url.indexOf(':');
+
+        if (colon <= 0 || colon + 2 >= length || url.charAt(colon + 1) != '/' || url.charAt(colon + 2) != '/')
+            return url;
+
+        int fragment = url.indexOf('#', colon);
+        int end = fragment < 0 ? length : fragment;
+        int authorityStart = colon + 3;
+        int authorityEnd = authorityStart;
+
+        while (authorityEnd < end && "/?".indexOf(url.charAt(authorityEnd)) < 0)
+            authorityEnd++;
+
+        if (authorityEnd == authorityStart)
+            return url;
+
+        int query = url.indexOf('?', authorityEnd);
+        int pathEnd = query < 0 || query > end ? end : query;
+
+        var out = new StringBuilder(length);
+
+        for (int i = 0; i < colon; i++)
+            out.append(Character.toLowerCase(url.charAt(i)));
+        out.append("://");
+
+        appendAuthority(out, url, authorityStart, authorityEnd, defaultPort(url, colon));
+        appendPath(out, url, authorityEnd, pathEnd);
+
+        if (pathEnd < end)
+            appendQuery(out, url, pathEnd + 1, end);
+
+        return contentEquals(out, url) ? url : out.toString();
+    }
+
+    private static boolean contentEquals(StringBuilder out, String url) {
+        if (out.length() != url.length())
+            return false;
+
+        for (int i = out.length() - 1; i >= 0; i--) {
+            if (out.charAt(i) != url.charAt(i))
+                return false;
+        }
+
+        return true;
+    }
+
+    private static int defaultPort(String url, int schemeLength) {
+        if (schemeLength == 4 && url.regionMatches(true, 0, "http", 0, 4))
+            return 80;
+        if (schemeLength == 5 && url.regionMatches(true, 0, "https", 0, 5))
+            return 443;
+        return -1;
+    }
+
+    /**
+     * Appends {@code userinfo@host:port} with the host lowercased and a default port removed.
+     */
+    private static void appendAuthority(StringBuilder out, String url, int start, int end, int defaultPort) {
+        int at = url.lastIndexOf('@', end - 1);
+
+        if (at >= start) {
+            out.append(url, start, at + 1);
+            start = at + 1;
+        }
+
+        int hostEnd = end;
+        int closingBracket = url.charAt(start) == '[' ? url.indexOf(']', start) : -1;
+        int portColon = url.lastIndexOf(':', end - 1);
+
+        if (portColon > Math.max(start, closingBracket))
+            hostEnd = portColon;
+
+        for (int i = start; i < hostEnd; i++)
+            out.append(Character.toLowerCase(url.charAt(i)));
+
+        if (hostEnd == end || hostEnd + 1 == end)
+            return;
+
+        int port = 0;
+        for (int i = hostEnd + 1; i < end && port <= 65_535; i++) {
+            char c = url.charAt(i);
+            if (c < '0' || c > '9') {
+                out.append(url, hostEnd, end);
+                return;
+            }
+            port = port * 10 + (c - '0');
+        }
+
+        if (port != defaultPort)
+            out.append(url, hostEnd, end);
+    }
+
+    /**
+     * Appends the path with dot segments resolved, as in RFC 3986 section 5.2.4.
+     */
+    private static void appendPath(StringBuilder out, String url, int start, int end) {
+        int pathStart = out.length();
+        int i = start;
+
+        while (i < end) {
+            int segmentStart = url.charAt(i) == '/' ? i + 1 : i;
+            int segmentEnd = url.indexOf('/', segmentStart);
+
+            if (segmentEnd < 0 || segmentEnd > end)
+                segmentEnd = end;
+
+            int segmentLength = segmentEnd - segmentStart;
+            boolean last = segmentEnd == end;
+
+            if (segmentLength == 1 && url.charAt(segmentStart) == '.') {
+                if (last)
+                    out.append('/');
+            } else if (segmentLength == 2 && url.charAt(segmentStart) == '.' && url.charAt(segmentStart + 1) == '.') {
+                int slash = out.lastIndexOf("/");
+                out.setLength(Math.max(slash, pathStart));
+                if (last)
+                    out.append('/');
+            } else {
+                out.append('/');
+                appendEscaped(out, url, segmentStart, segmentEnd);
+            }
+
+            i = segmentEnd;
+        }
+
+        if (out.length() == pathStart)
+            out.append('/');
+    }
+
+    /**
+     * Appends the query without stripped or empty parameters, sorted by name if configured.
+     */
+    private void appendQuery(StringBuilder out, String url, int start, int end) {
+        int[] bounds = new int[8];
+        int count = 0;
+
+        for (int i = start; i <= end; ) {
+            int separator = url.indexOf('&', i);
+            int paramEnd = separator < 0 || separator > end ? end : separator;
+
+            if (paramEnd > i && !isStripped(url, i, paramEnd)) {
+                if (2 * count + 2 > bounds.length)
+                    bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                bounds[2 * count] = i;
+                bounds[2 * count + 1] = paramEnd;
+                count++;
+            }
+
+            i = paramEnd + 1;
+        }
+
+        if (count == 0)
+            return;
+
+        if (sortQuery)
+            sortByName(url, bounds, count);
+
+        out.append('?');
+        for (int p = 0; p < count; p++) {
+            if (p > 0)
+                out.append('&');
+            appendEscaped(out, url, bounds[2 * p], bounds[2 * p + 1]);
+        }
+    }
+
+    private boolean isStripped(String url, int start, int end) {
+        int nameEnd = url.indexOf('=', start);
+        if (nameEnd < 0 || nameEnd > end)
+            nameEnd = end;
+
+        int nameLength = nameEnd - start;
+
+        for (String name : strippedNames) {
+            if (name.length() == nameLength && url.regionMatches(true, start, name, 0, nameLength))
+                return true;
+        }
+
+        for (String prefix : strippedPrefixes) {
+            if (prefix.length() <= nameLength && url.regionMatches(true, start, prefix, 0, prefix.length()))
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Insertion sort of the parameter ranges by name; stable, so repeated names keep their order.
+     */
+    private static void sortByName(String url, int[] bounds, int count) {
+        for (int i = 1; i < count; i++) {
+            int start = bounds[2 * i];
+            int end = bounds[2 * i + 1];
+            int j = i - 1;
+
+            while (j >= 0 && compareNames(url, bounds[2 * j], bounds[2 * j + 1], start, end) > 0) {
+                bounds[2 * j + 2] = bounds[2 * j];
+                bounds[2 * j + 3] = bounds[2 * j + 1];
+                j--;
+            }
+
+            bounds[2 * j + 2] = start;
+            bounds[2 * j + 3] = end;
+        }
+    }
+
+    private static int compareNames(String url, int aStart, int aEnd, int bStart, int bEnd) {
+        for (int a = aStart, b = bStart; ; a++, b++) {
+            char ca = a < aEnd ? url.charAt(a) : '=';
+            char cb = b < bEnd ? url.charAt(b) : '=';
+
+            if (ca == '=' || cb == '=')
+                return ca == cb ? 0 : ca == '=' ? -1 : 1;
+            if (ca != cb)
+                return ca - cb;
+        }
+    }
+
+    /**
+     * Appends a path segment or query parameter, decoding escaped unreserved characters and uppercasing
+     * the hex digits of the other escapes.
+     */
+    private static void appendEscaped(StringBuilder out, String url, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = url.charAt(i);
+
+            if (c == '%' && i + 2 < end && hexValue(url.charAt(i + 1)) >= 0 && hexValue(url.charAt(i + 2)) >= 0) {
+                int value = hexValue(url.charAt(i + 1)) * 16 + hexValue(url.charAt(i + 2));
+
+                if (isUnreserved(value))
+                    out.append((char) value);
+                else
+                    out.append('%').append(HEX[value >> 4]).append(HEX[value & 0x0F]);
+
+                i += 2;
+            } else {
+                out.append(c);
+            }
+        }
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9')
+            return c - '0';
+        if (c >= 'A' && c <= 'F')
+            return c - 'A' + 10;
+        if (c >= 'a' && c <= 'f')
+            return c - 'a' + 10;
+        return -1;
+    }
+
+    private static boolean isUnreserved(int c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+}
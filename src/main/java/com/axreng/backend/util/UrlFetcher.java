@@ -3,88 +3,553 @@ package com.axreng.backend.util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static com.axreng.backend.util.Constants.*;
 
 /**
  * Utility class for fetching web content from URLs.
  * <p>
- * This class provides a method to retrieve the content of a web page
- * via an HTTP GET request, handling redirects and logging errors.
+ * This class retrieves the content of web pages via HTTP GET requests sent through a single shared
+ * {@link HttpClient}. Sharing the client keeps connections alive between requests (and multiplexes them
+ * over HTTP/2 where the server supports it), so a crawl of one host pays the TCP and TLS handshake once
+ * instead of once per page.
+ * </p>
+ * <p>
+ * Pages fetched through {@link #fetchAsync} are kept in a {@link PageCache} shared by every search, so
+ * searches for different keywords over the same site download each page once per
+ * {@code PAGE_CACHE_TTL_MS}. Concurrent fetches of the same URL share a single request. Once a cached page
+ * expires it is revalidated with a conditional GET ({@code If-None-Match} / {@code If-Modified-Since}), and
+ * its body is reused if the server answers {@code 304 Not Modified}.
+ * </p>
+ * <p>
+ * Every request, redirects included, is released by a {@link HostScheduler} shared by every search, which
+ * rate-limits each host, caps the requests in flight to it and backs off when it answers {@code 429} or {@code 503}.
  * </p>
  *
  * <h3>Example Usage:</h3>
  * <pre>
  * String content = UrlFetcher.fetchContent("https://ibm.com");
- * System.out.println(content);
+ * UrlFetcher.fetchContentAsync("https://ibm.com").thenAccept(System.out::println);
+ * UrlFetcher.fetchAsync("https://ibm.com", scanner::scan, executor);
  * </pre>
  *
  * <h3>Features:</h3>
  * <ul>
- *     <li>Makes an HTTP GET request to fetch web page content.</li>
- *     <li>Follows redirects automatically.</li>
+ *     <li>Makes asynchronous HTTP GET requests with {@link HttpClient#sendAsync}.</li>
+ *     <li>Streams the body to a {@link BodyReader} instead of buffering it as a string.</li>
+ *     <li>Follows up to {@code FETCH_MAX_REDIRECTS} redirects.</li>
+ *     <li>Asks for gzip or deflate bodies ({@code FETCH_COMPRESSION}) and inflates them while they are read,
+ *     see {@link ContentDecoding}; cached pages are kept compressed.</li>
+ *     <li>Applies connect and read timeouts ({@code FETCH_CONNECT_TIMEOUT_MS}, {@code FETCH_READ_TIMEOUT_MS}).</li>
+ *     <li>Caches page bodies up to {@code PAGE_CACHE_MAX_BYTES} in total ({@code 0} disables the cache).</li>
+ *     <li>Limits each host to {@code HOST_REQUESTS_PER_SECOND} and {@code HOST_MAX_CONCURRENCY} requests in flight,
+ *     and honours {@code Retry-After}.</li>
+ *     <li>Records request latency and received bytes in {@link CrawlMetrics}, and each request as a
+ *     {@link CrawlEvents.Fetch} flight recorder event.</li>
  *     <li>Logs errors if the request fails.</li>
  * </ul>
  *
  * @author Jean Fernandes
- * @version 1.0
+ * @version 2.6
  */
 public class UrlFetcher {
 
     private static final Logger logger = LoggerFactory.getLogger(UrlFetcher.class);
 
+    private static final Duration CONNECT_TIMEOUT =
+            Duration.ofMillis(EnvironmentUtil.getLong("FETCH_CONNECT_TIMEOUT_MS", DEFAULT_CONNECT_TIMEOUT_MS));
+    private static final Duration READ_TIMEOUT =
+            Duration.ofMillis(EnvironmentUtil.getLong("FETCH_READ_TIMEOUT_MS", DEFAULT_READ_TIMEOUT_MS));
+    private static final int MAX_REDIRECTS = EnvironmentUtil.getInt("FETCH_MAX_REDIRECTS", DEFAULT_MAX_REDIRECTS);
+    private static final boolean COMPRESSION = EnvironmentUtil.getBoolean("FETCH_COMPRESSION", true);
+
+    private static final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .build();
+
+    private static final PageCache pageCache = new PageCache(
+            EnvironmentUtil.getLong("PAGE_CACHE_MAX_BYTES", DEFAULT_PAGE_CACHE_MAX_BYTES),
+            EnvironmentUtil.getLong("PAGE_CACHE_TTL_MS", DEFAULT_PAGE_CACHE_TTL_MS),
+            EnvironmentUtil.getLong("PAGE_CACHE_MAX_ENTRY_BYTES", DEFAULT_PAGE_CACHE_MAX_ENTRY_BYTES));
+
+    private static final HostScheduler hostScheduler = new HostScheduler(
+            EnvironmentUtil.getInt("HOST_REQUESTS_PER_SECOND", DEFAULT_HOST_REQUESTS_PER_SECOND),
+            EnvironmentUtil.getInt("HOST_BURST", DEFAULT_HOST_BURST),
+            EnvironmentUtil.getInt("HOST_MAX_CONCURRENCY", DEFAULT_HOST_MAX_CONCURRENCY),
+            EnvironmentUtil.getInt("HOST_MAX_RETRIES", DEFAULT_HOST_MAX_RETRIES),
+            EnvironmentUtil.getLong("HOST_INITIAL_BACKOFF_MS", DEFAULT_HOST_INITIAL_BACKOFF_MS),
+            EnvironmentUtil.getLong("HOST_MAX_BACKOFF_MS", DEFAULT_HOST_MAX_BACKOFF_MS));
+
     /**
-     * Fetches the content of a web page from the given URL.
-     * <p>
-     * This method performs an HTTP GET request to retrieve the content
-     * of the specified URL. If the response is a redirect (3xx),
-     * it follows the redirect and attempts to fetch the content again.
-     * </p>
+     * Fetches the content of a web page from the given URL, waiting for the response.
      *
      * @param urlString The URL to retrieve content from.
      * @return The content of the page as a string, or {@code null} if an error occurs.
      */
     public static String fetchContent(String urlString) {
-        HttpURLConnection conn = null;
+        return fetchContentAsync(urlString).join();
+    }
+
+    /**
+     * Fetches the content of a web page from the given URL without blocking the caller.
+     * <p>
+     * If the response is a redirect (3xx), the redirect is followed, up to {@code FETCH_MAX_REDIRECTS} hops.
+     * </p>
+     *
+     * @param urlString The URL to retrieve content from.
+     * @return A future completed with the content of the page, or with {@code null} if an error occurs.
+     * The future never completes exceptionally.
+     */
+    public static CompletableFuture<String> fetchContentAsync(String urlString) {
+        CompletableFuture<HttpResponse<InputStream>> response;
 
         try {
-            var url = new URL(urlString);
-            conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("User-Agent", "Mozilla/5.0");
-
-            int responseCode = conn.getResponseCode();
-
-            if (responseCode >= 300 && responseCode < 400) {
-                String newUrl = conn.getHeaderField("Location");
-                if (newUrl != null) {
-                    logger.warn("Redirected to: {}", newUrl);
-                    return fetchContent(newUrl);
-                }
-            }
+            response = send(URI.create(urlString), HttpResponse.BodyHandlers.ofInputStream(), 0);
+        } catch (IllegalArgumentException e) {
+            logger.error("Error accessing URL: {} - Message: {}", urlString, e.getMessage());
+            return CompletableFuture.completedFuture(null);
+        }
 
-            if (responseCode != HttpURLConnection.HTTP_OK) {
-                logger.error("Failed to fetch content. HTTP response code: {} - URL: {}", responseCode, urlString);
+        return response.handle((res, ex) -> {
+            if (!isSuccessful(urlString, res, ex))
+                return null;
+
+            try (InputStream raw = CrawlMetrics.countingBytes(res.body());
+                 InputStream body = ContentDecoding.decode(raw, ContentDecoding.encodingOf(res))) {
+                var content = new String(body.readAllBytes(), charsetOf(res));
+                return content.isEmpty() ? null : content;
+            } catch (IOException | RuntimeException e) {
+                logger.error("Error reading URL: {} - Message: {}", urlString, e.getMessage());
                 return null;
             }
+        });
+    }
+
+    /**
+     * Fetches a page and hands its body, as a stream, to the given reader.
+     * <p>
+     * The reader consumes the body while it is still being received. When the page cache is enabled, the
+     * page is served from the cache if present; otherwise the body is copied aside while the reader consumes
+     * it, and kept for later searches unless it grows past {@code PAGE_CACHE_MAX_ENTRY_BYTES}, in which case
+     * the copy is dropped. A caller that joins a fetch of the same URL already in flight reads the page
+     * once it is cached, or fetches it itself if it was too large to keep.
+     * The reader runs on {@code executor}.
+     * </p>
+     *
+     * @param urlString The URL to retrieve content from.
+     * @param reader    Consumes the body of a 200 response.
+     * @param executor  The executor on which the reader runs.
+     * @param <T>       The type produced by the reader.
+     * @return A future completed with the reader's result, or with {@code null} if an error occurs.
+     * The future never completes exceptionally.
+     */
+    public static <T> CompletableFuture<T> fetchAsync(String urlString, BodyReader<T> reader, Executor executor) {
+        return fetchAsync(urlString, reader, executor, null);
+    }
+
+    /**
+     * Fetches a page and hands its body, as a stream, to the given reader, adding the body bytes received
+     * for it, as sent on the wire, to a counter. Nothing is added when the page is served from the cache or
+     * by a fetch already in flight.
+     *
+     * @param urlString     The URL to retrieve content from.
+     * @param reader        Consumes the body of a 200 response.
+     * @param executor      The executor on which the reader runs.
+     * @param bytesReceived The counter of the caller, or {@code null}.
+     * @param <T>           The type produced by the reader.
+     * @return A future completed with the reader's result, or with {@code null} if an error occurs.
+     * The future never completes exceptionally.
+     * @see #fetchAsync(String, BodyReader, Executor)
+     */
+    public static <T> CompletableFuture<T> fetchAsync(String urlString, BodyReader<T> reader, Executor executor,
+                                                      LongAdder bytesReceived) {
+        if (!pageCache.isEnabled())
+            return orNull(urlString, fetchStreaming(urlString, reader, executor, bytesReceived));
+
+        var streamed = new CompletableFuture<T>();
+
+        return orNull(urlString, pageCache.get(urlString,
+                        (target, stale) -> fetchPage(target, stale, reader, executor, streamed, bytesReceived))
+                .handle((page, ex) -> ex == null ? page : null)
+                .thenCompose(page -> {
+                    if (streamed.isDone())
+                        return streamed;
+                    if (page == PageCache.UNCACHEABLE)
+                        return fetchStreaming(urlString, reader, executor, bytesReceived);
+                    if (page == null)
+                        return CompletableFuture.completedFuture(null);
+                    return CompletableFuture.supplyAsync(() -> readPage(urlString, page, reader), executor);
+                }));
+    }
 
-            try (BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
-                var content = new StringBuilder();
-                String line;
-                while ((line = in.readLine()) != null)
-                    content.append(line).append("\n");
+    /**
+     * Turns a failure that escaped the handlers, such as the executor rejecting the reader, into {@code null}.
+     */
+    private static <T> CompletableFuture<T> orNull(String urlString, CompletableFuture<T> future) {
+        return future.exceptionally(ex -> {
+            var cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            logger.error("Error processing URL: {} - Message: {}", urlString, cause.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * @return The page cache shared by every search.
+     */
+    public static PageCache pageCache() {
+        return pageCache;
+    }
+
+    /**
+     * @return The per-host scheduler shared by every search.
+     */
+    public static HostScheduler hostScheduler() {
+        return hostScheduler;
+    }
+
+    /**
+     * Fetches a page and streams its body to the reader without buffering it first.
+     */
+    private static <T> CompletableFuture<T> fetchStreaming(String urlString, BodyReader<T> reader, Executor executor,
+                                                           LongAdder bytesReceived) {
+        CompletableFuture<HttpResponse<InputStream>> response;
+
+        try {
+            response = send(URI.create(urlString), HttpResponse.BodyHandlers.ofInputStream(), 0);
+        } catch (IllegalArgumentException e) {
+            logger.error("Error accessing URL: {} - Message: {}", urlString, e.getMessage());
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return response.handleAsync((res, ex) -> {
+            if (!isSuccessful(urlString, res, ex))
+                return null;
 
-                return content.toString().isEmpty() ? null : content.toString();
+            try (InputStream raw = countingBytes(res.body(), bytesReceived);
+                 InputStream body = ContentDecoding.decode(raw, ContentDecoding.encodingOf(res))) {
+                return reader.read(body, charsetOf(res));
+            } catch (IOException | RuntimeException e) {
+                logger.error("Error reading URL: {} - Message: {}", urlString, e.getMessage());
+                return null;
             }
+        }, executor).whenComplete((result, ex) -> closeBody(response));
+    }
+
+    /**
+     * Downloads a page into a {@link PageCache.Page}, or revalidates an expired one, discarding its content.
+     *
+     * @param urlString The URL to retrieve content from.
+     * @param stale     The expired page to revalidate, or {@code null} for a plain GET.
+     * @return A future completed with the page, with {@link PageCache#UNCACHEABLE} if it is too large to
+     * keep, or with {@code null} if an error occurs.
+     */
+    static CompletableFuture<PageCache.Page> fetchPage(String urlString, PageCache.Page stale) {
+        return fetchPage(urlString, stale, (body, charset) -> null, Runnable::run, new CompletableFuture<>(), null);
+    }
+
+    /**
+     * Downloads a page into a {@link PageCache.Page}, or revalidates an expired one, streaming its body to
+     * a reader on the way.
+     * <p>
+     * With a stale page, the request carries its validators as {@code If-None-Match} and
+     * {@code If-Modified-Since}; a {@code 304 Not Modified} answer returns the stale page, refreshed,
+     * without downloading the body again, and the reader reads the stale body. Otherwise the reader
+     * consumes the body as it is received, while a {@link BoundedCopyInputStream} keeps a copy of it for
+     * the cache. A body announced or found larger than {@link PageCache#getMaxEntryBytes()} is not copied.
+     * </p>
+     *
+     * @param urlString     The URL to retrieve content from.
+     * @param stale         The expired page to revalidate, or {@code null} for a plain GET.
+     * @param reader        Consumes the body of the page.
+     * @param executor      The executor on which the reader runs.
+     * @param read          Completed with the reader's result, or with {@code null} if an error occurs,
+     *                      before the returned future completes.
+     * @param bytesReceived Counts the body bytes received, or {@code null}.
+     * @param <T>           The type produced by the reader.
+     * @return A future completed with the page, with {@link PageCache#UNCACHEABLE} if it is too large to
+     * keep, or with {@code null} if an error occurs.
+     */
+    static <T> CompletableFuture<PageCache.Page> fetchPage(String urlString, PageCache.Page stale, BodyReader<T> reader,
+                                                           Executor executor, CompletableFuture<T> read,
+                                                           LongAdder bytesReceived) {
+        CompletableFuture<HttpResponse<InputStream>> response;
+        var headers = new LinkedHashMap<String, String>();
+
+        if (stale != null && stale.getEtag() != null)
+            headers.put("If-None-Match", stale.getEtag());
+        if (stale != null && stale.getLastModified() != null)
+            headers.put("If-Modified-Since", stale.getLastModified());
 
-        } catch (IOException e) {
+        try {
+            response = send(URI.create(urlString), HttpResponse.BodyHandlers.ofInputStream(), 0, headers);
+        } catch (IllegalArgumentException e) {
             logger.error("Error accessing URL: {} - Message: {}", urlString, e.getMessage());
+            read.complete(null);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return response.handleAsync((res, ex) -> {
+            long now = System.currentTimeMillis();
+
+            if (ex == null && stale != null && res.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                logger.debug("Not modified: {}", urlString);
+                var page = stale.revalidated(now, header(res, "ETag"), header(res, "Last-Modified"));
+                read.complete(readPage(urlString, page, reader));
+                return page;
+            }
+
+            if (!isSuccessful(urlString, res, ex)) {
+                read.complete(null);
+                return null;
+            }
+
+            var charset = charsetOf(res);
+            var encoding = ContentDecoding.encodingOf(res);
+            var copy = new BoundedCopyInputStream(countingBytes(res.body(), bytesReceived), pageCache.getMaxEntryBytes(),
+                    res.headers().firstValueAsLong("Content-Length").orElse(-1));
+
+            try (copy; InputStream body = ContentDecoding.decode(copy, encoding)) {
+                T result = reader.read(body, charset);
+                copy.drain();
+                read.complete(result);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Error reading URL: {} - Message: {}", urlString, e.getMessage());
+                read.complete(null);
+                return null;
+            }
+
+            if (!copy.isComplete())
+                return PageCache.UNCACHEABLE;
+
+            return new PageCache.Page(copy.toByteArray(), charset, now, header(res, "ETag"), header(res, "Last-Modified"),
+                    encoding);
+        }, executor).whenComplete((page, ex) -> closeBody(response));
+    }
+
+    /**
+     * Closes the body of a response once it has been handled, in case the handler never ran, so that its
+     * host slot is released. Closing a body twice is harmless.
+     */
+    private static void closeBody(CompletableFuture<HttpResponse<InputStream>> response) {
+        response.thenAccept(res -> {
+            if (res.body() == null)
+                return;
+
+            try {
+                res.body().close();
+            } catch (IOException e) {
+                logger.debug("Error closing body: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Wraps a response body so that the bytes received are added to {@link CrawlMetrics} and to the caller's counter.
+     */
+    private static InputStream countingBytes(InputStream body, LongAdder bytesReceived) {
+        var counted = CrawlMetrics.countingBytes(body);
+        return bytesReceived == null ? counted : new CountingInputStream(counted, bytesReceived);
+    }
+
+    private static String header(HttpResponse<?> res, String name) {
+        return res.headers().firstValue(name).orElse(null);
+    }
+
+    private static <T> T readPage(String urlString, PageCache.Page page, BodyReader<T> reader) {
+        try (InputStream body = ContentDecoding.decode(new ByteArrayInputStream(page.getBody()), page.getContentEncoding())) {
+            return reader.read(body, page.getCharset());
+        } catch (IOException | RuntimeException e) {
+            logger.error("Error reading URL: {} - Message: {}", urlString, e.getMessage());
             return null;
-        } finally {
-            if (conn != null) conn.disconnect();
         }
     }
+
+    /**
+     * Logs why a response cannot be used, if it cannot.
+     *
+     * @return {@code true} if the request succeeded with a 200 response.
+     */
+    private static boolean isSuccessful(String urlString, HttpResponse<?> res, Throwable ex) {
+        if (ex != null) {
+            var cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            logger.error("Error accessing URL: {} - Message: {}", urlString, cause.getMessage());
+            return false;
+        }
+
+        if (res.statusCode() != HttpURLConnection.HTTP_OK) {
+            logger.error("Failed to fetch content. HTTP response code: {} - URL: {}", res.statusCode(), urlString);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Determines the charset of a response from its {@code Content-Type} header.
+     *
+     * @param response The response.
+     * @return The declared charset, or UTF-8 if none (or an unsupported one) is declared.
+     */
+    static Charset charsetOf(HttpResponse<?> response) {
+        var contentType = response.headers().firstValue("Content-Type").orElse("");
+
+        for (String param : contentType.split(";")) {
+            var trimmed = param.trim();
+
+            if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+                try {
+                    return Charset.forName(trimmed.substring(8).replace("\"", "").trim());
+                } catch (IllegalArgumentException e) {
+                    return StandardCharsets.UTF_8;
+                }
+            }
+        }
+
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Sends a GET request and follows redirects until a non-redirect response is received.
+     * <p>
+     * Bodies of redirect and non-200 responses are discarded, so their body is {@code null}.
+     * Each request waits for its host in the {@link HostScheduler}, which also retries throttled requests.
+     * </p>
+     *
+     * @param uri       The URI to request.
+     * @param handler   The handler for the body of a 200 response.
+     * @param redirects The number of redirects followed so far.
+     * @param <T>       The body type.
+     * @return A future completed with the final response.
+     */
+    static <T> CompletableFuture<HttpResponse<T>> send(URI uri, HttpResponse.BodyHandler<T> handler, int redirects) {
+        return send(uri, handler, redirects, Map.of());
+    }
+
+    /**
+     * Sends a GET request with extra headers, repeated on every redirect, and follows redirects until a
+     * non-redirect response is received. A {@code 304 Not Modified} is returned as is.
+     *
+     * @param uri       The URI to request.
+     * @param handler   The handler for the body of a 200 response.
+     * @param redirects The number of redirects followed so far.
+     * @param headers   Headers added to the request, such as validators.
+     * @param <T>       The body type.
+     * @return A future completed with the final response.
+     */
+    static <T> CompletableFuture<HttpResponse<T>> send(URI uri, HttpResponse.BodyHandler<T> handler, int redirects,
+                                                       Map<String, String> headers) {
+        var builder = HttpRequest.newBuilder(uri)
+                .GET()
+                .timeout(READ_TIMEOUT)
+                .header("User-Agent", "Mozilla/5.0");
+        if (COMPRESSION)
+            builder.header("Accept-Encoding", ContentDecoding.ACCEPTED_ENCODINGS);
+        headers.forEach(builder::header);
+        var request = builder.build();
+
+        return hostScheduler.execute(uri, slot -> timed(uri, () -> client.sendAsync(request, okOnly(handler, slot)))).thenCompose(res -> {
+            int status = res.statusCode();
+
+            if (status < 300 || status >= 400 || status == HttpURLConnection.HTTP_NOT_MODIFIED)
+                return CompletableFuture.completedFuture(res);
+
+            var location = res.headers().firstValue("Location");
+
+            if (location.isEmpty())
+                return CompletableFuture.completedFuture(res);
+
+            if (redirects >= MAX_REDIRECTS) {
+                logger.error("Too many redirects ({}) - URL: {}", redirects, uri);
+                return CompletableFuture.completedFuture(res);
+            }
+
+            var target = uri.resolve(location.get().trim().replace(" ", "%20"));
+            logger.warn("Redirected to: {}", target);
+            return send(target, handler, redirects + 1, headers);
+        });
+    }
+
+    /**
+     * Wraps a body handler so that only a 200 response has its body read, and so that a streamed body holds
+     * its host slot until the stream is closed.
+     */
+    private static <T> HttpResponse.BodyHandler<T> okOnly(HttpResponse.BodyHandler<T> handler, HostScheduler.Slot slot) {
+        return info -> {
+            if (info.statusCode() != HttpURLConnection.HTTP_OK)
+                return HttpResponse.BodySubscribers.replacing(null);
+
+            return HttpResponse.BodySubscribers.mapping(handler.apply(info), body -> {
+                if (!(body instanceof InputStream))
+                    return body;
+
+                slot.hold();
+                @SuppressWarnings("unchecked")
+                T releasing = (T) new ReleasingInputStream((InputStream) body, slot::release);
+                return releasing;
+            });
+        };
+    }
+
+    /**
+     * Sends a request and records the time until its response in {@link CrawlMetrics} and as a
+     * {@link CrawlEvents.Fetch} event.
+     */
+    private static <T> CompletableFuture<HttpResponse<T>> timed(URI uri, Supplier<CompletableFuture<HttpResponse<T>>> request) {
+        var event = new CrawlEvents.Fetch();
+        event.begin();
+        long start = System.nanoTime();
+
+        return request.get().whenComplete((res, ex) -> {
+            long elapsed = System.nanoTime() - start;
+
+            if (res != null)
+                CrawlMetrics.recordFetch(res.statusCode(), elapsed);
+            else
+                CrawlMetrics.recordFetchError(elapsed);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.url = uri.toString();
+                event.status = res != null ? res.statusCode() : 0;
+                event.commit();
+            }
+        });
+    }
+
+    /**
+     * Consumes the body of a successfully fetched page.
+     *
+     * @param <T> The type produced from the body.
+     */
+    @FunctionalInterface
+    public interface BodyReader<T> {
+
+        /**
+         * @param body    The response body; closed by the caller afterwards.
+         * @param charset The charset declared by the response.
+         * @return The value produced from the body.
+         * @throws IOException If reading the body fails.
+         */
+        T read(InputStream body, Charset charset) throws IOException;
+    }
 }
@@ -1,14 +1,11 @@
 package com.axreng.backend.util;
 
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.util.Objects;
-
 /**
  * Utility class for validating URLs.
  * <p>
  * This class provides methods to check whether a URL is valid, ensuring
  * that it belongs to a specified domain and optionally allowing subdomains.
+ * It compiles a {@link CrawlScope} on every call; a crawl builds its scope once and reuses it instead.
  * </p>
  *
  * <h3>Example Usage:</h3>
@@ -25,7 +22,7 @@ import java.util.Objects;
  * </ul>
  *
  * @author Jean Fernandes
- * @version 1.0
+ * @version 1.1
  */
 public class UrlValidator {
 
@@ -43,48 +40,10 @@ public class UrlValidator {
      * @return {@code true} if the link is valid and belongs to the base domain; otherwise, {@code false}.
      */
     public static boolean isValid(String link, String baseUrl, boolean allowSubdomains) {
-        if (Objects.isNull(link) || isInvalidLink(link))
-            return false;
-
         try {
-            var linkUri = new URI(link);
-            var baseUri = new URI(baseUrl);
-
-            String linkHost = linkUri.getHost();
-            String baseHost = baseUri.getHost();
-
-            if (linkHost == null)
-                return true;
-
-            if (!allowSubdomains)
-                return linkHost.equals(baseHost);
-
-            return linkHost.equals(baseHost) || linkHost.endsWith("." + baseHost);
-
-        } catch (URISyntaxException e) {
+            return new CrawlScope(baseUrl, allowSubdomains, "", "", "").accepts(link);
+        } catch (IllegalArgumentException e) {
             return false;
         }
     }
-
-    /**
-     * Determines if a link is invalid based on common patterns.
-     * <p>
-     * This method identifies links that should be ignored, such as:
-     * <ul>
-     *     <li>Email links (mailto:)</li>
-     *     <li>JavaScript-based links (javascript:)</li>
-     *     <li>Phone links (tel:)</li>
-     *     <li>Internal anchors (#)</li>
-     * </ul>
-     * </p>
-     *
-     * @param link The URL to check.
-     * @return {@code true} if the link is invalid, otherwise {@code false}.
-     */
-    private static boolean isInvalidLink(String link) {
-        return link.startsWith("mailto:")
-                || link.startsWith("javascript:")
-                || link.startsWith("tel:")
-                || link.startsWith("#");
-    }
 }
@@ -0,0 +1,71 @@
+package com.axreng.backend.dto;
+
+import com.axreng.backend.enums.Status;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.axreng.backend.util.Constants.gson;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultFetcherDtoTest {
+
+    @Test
+    void shouldSerializeIdStatusAndUrls() {
+        var result = new ResultFetcherDto();
+        result.setId("abcd1234");
+        result.getUrls().add("http://site/a");
+
+        assertEquals("{\"id\":\"abcd1234\",\"status\":\"ACTIVE\",\"urls\":[\"http://site/a\"]}", result.toJson());
+    }
+
+    @Test
+    void shouldReuseJsonUntilTheResultChanges() {
+        var result = new ResultFetcherDto();
+        result.setId("abcd1234");
+
+        var first = result.toJson();
+        assertSame(first, result.toJson());
+
+        result.getUrls().add("http://site/a");
+        var second = result.toJson();
+        assertNotEquals(first, second);
+        assertSame(second, result.toJson());
+
+        result.setStatus(Status.DONE);
+        assertTrue(result.toJson().contains("\"DONE\""));
+
+        result.setUrls(List.of("http://site/b"));
+        assertTrue(result.toJson().contains("http://site/b"));
+    }
+
+    @Test
+    void shouldReturnOnlyUrlsAfterTheCursor() {
+        var result = new ResultFetcherDto();
+        result.setId("abcd1234");
+        result.getUrls().addAll(List.of("http://site/a", "http://site/b", "http://site/c"));
+
+        var page = result.since(1);
+        assertEquals(List.of("http://site/b", "http://site/c"), page.getUrls());
+        assertEquals(3, page.getNext());
+
+        result.getUrls().add("http://site/d");
+        result.setStatus(Status.DONE);
+
+        var last = result.since(page.getNext());
+        assertEquals(List.of("http://site/d"), last.getUrls());
+        assertEquals(4, last.getNext());
+        assertEquals(Status.DONE, last.getStatus());
+        assertEquals("{\"id\":\"abcd1234\",\"status\":\"DONE\",\"urls\":[],\"next\":4}",
+                gson.toJson(result.since(10)));
+    }
+
+    @Test
+    void shouldReportOnlyTheStatusWithoutCrawlStats() {
+        var result = new ResultFetcherDto();
+        result.setId("abcd1234");
+        result.getUrls().add("http://site/a");
+
+        assertEquals("{\"id\":\"abcd1234\",\"status\":\"ACTIVE\",\"urlsFound\":1}", gson.toJson(result.stats()));
+    }
+}
@@ -0,0 +1,106 @@
+package com.axreng.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlCoordinatorTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(16);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Every page links to the next ten pages, so the graph is much larger than any budget.
+     */
+    private static Set<String> linksOf(String url) {
+        int page = Integer.parseInt(url.substring(url.lastIndexOf('/') + 1));
+        Set<String> links = new HashSet<>();
+        for (int i = 1; i <= 10; i++)
+            links.add("http://site/" + (page + i));
+        return links;
+    }
+
+    @Test
+    void shouldStopExactlyAtPageBudget() throws Exception {
+        Set<String> processed = ConcurrentHashMap.newKeySet();
+        var coordinator = new CrawlCoordinator(url -> CompletableFuture.supplyAsync(() -> {
+            assertTrue(processed.add(url), "URL processed twice: " + url);
+            return linksOf(url);
+        }, executor), 8, 100);
+
+        coordinator.start("http://site/0").get(10, TimeUnit.SECONDS);
+
+        assertEquals(100, coordinator.getPagesVisited());
+        assertEquals(100, processed.size());
+    }
+
+    @Test
+    void shouldTerminateWhenFrontierIsExhausted() throws Exception {
+        var coordinator = new CrawlCoordinator(url -> CompletableFuture.supplyAsync(() -> {
+            int page = Integer.parseInt(url.substring(url.lastIndexOf('/') + 1));
+            return page < 5 ? Set.of("http://site/" + (page + 1), "http://site/0") : Set.<String>of();
+        }, executor), 4, 100);
+
+        coordinator.start("http://site/0").get(10, TimeUnit.SECONDS);
+
+        assertEquals(6, coordinator.getPagesVisited());
+        assertEquals(0, coordinator.getFrontierSize());
+    }
+
+    @Test
+    void shouldNeverExceedParallelism() throws Exception {
+        var running = new AtomicInteger();
+        var peak = new AtomicInteger();
+        var coordinator = new CrawlCoordinator(url -> CompletableFuture.supplyAsync(() -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return linksOf(url);
+        }, executor), 4, 40);
+
+        coordinator.start("http://site/0").get(10, TimeUnit.SECONDS);
+
+        assertTrue(peak.get() <= 4, "Peak concurrency was " + peak.get());
+        assertTrue(peak.get() > 1, "Pages were not fetched in parallel");
+    }
+
+    @Test
+    void shouldNotRecurseWhenPagesCompleteSynchronously() throws Exception {
+        var coordinator = new CrawlCoordinator(url -> {
+            int page = Integer.parseInt(url.substring(url.lastIndexOf('/') + 1));
+            return CompletableFuture.completedFuture(List.of("http://site/" + (page + 1)));
+        }, 1, 200_000);
+
+        coordinator.start("http://site/0").get(30, TimeUnit.SECONDS);
+
+        assertEquals(200_000, coordinator.getPagesVisited());
+    }
+
+    @Test
+    void shouldKeepCrawlingWhenAPageFails() throws Exception {
+        var coordinator = new CrawlCoordinator(url -> url.endsWith("/1")
+                ? CompletableFuture.failedFuture(new IllegalStateException("boom"))
+                : CompletableFuture.supplyAsync(() -> linksOf(url), executor), 2, 20);
+
+        coordinator.start("http://site/0").get(10, TimeUnit.SECONDS);
+
+        assertEquals(20, coordinator.getPagesVisited());
+    }
+}
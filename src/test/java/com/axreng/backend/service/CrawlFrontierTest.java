@@ -0,0 +1,103 @@
+package com.axreng.backend.service;
+
+import com.axreng.backend.util.ConcurrentSeenSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlFrontierTest {
+
+    @Test
+    void shouldQueueEachUrlOnlyOnce() {
+        var frontier = new CrawlFrontier();
+
+        assertTrue(frontier.offer("https://ibm.com/a"));
+        assertTrue(frontier.offer("https://ibm.com/b"));
+        assertFalse(frontier.offer("https://ibm.com/a"));
+        assertEquals(2, frontier.size());
+
+        assertEquals("https://ibm.com/a", frontier.poll());
+        assertFalse(frontier.offer("https://ibm.com/a"), "A polled URL must stay seen");
+        assertEquals("https://ibm.com/b", frontier.poll());
+        assertNull(frontier.poll());
+        assertEquals(0, frontier.size());
+        assertEquals(2, frontier.seenCount());
+    }
+
+    @Test
+    void shouldDeduplicateConcurrentOffers() throws Exception {
+        var frontier = new CrawlFrontier();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        var start = new CountDownLatch(1);
+
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 1000; i++)
+                    frontier.offer("https://ibm.com/page" + i);
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        List<String> drained = new ArrayList<>();
+        String url;
+        while ((url = frontier.poll()) != null)
+            drained.add(url);
+
+        assertEquals(1000, drained.size());
+        assertEquals(1000, drained.stream().distinct().count());
+    }
+
+    @Test
+    void shouldStopQueueingOncePageBudgetIsReached() {
+        var frontier = new CrawlFrontier(new ConcurrentSeenSet(), 10);
+
+        for (int i = 0; i < 5; i++)
+            frontier.offer("https://ibm.com/page" + i);
+        for (int i = 0; i < 3; i++)
+            assertNotNull(frontier.poll());
+
+        for (int page = 0; page < 100; page++) {
+            for (int link = 0; link < 50; link++)
+                frontier.offer("https://ibm.com/page" + page + "/" + link);
+
+            assertTrue(frontier.size() <= 7, "Frontier grew to " + frontier.size());
+        }
+
+        assertTrue(frontier.isFull());
+        assertEquals(7, frontier.size());
+        assertFalse(frontier.offer("https://ibm.com/another"));
+    }
+
+    @Test
+    void shouldBoundConcurrentOffers() throws Exception {
+        var frontier = new CrawlFrontier(new ConcurrentSeenSet(), 100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            executor.execute(() -> {
+                for (int i = 0; i < 1000; i++)
+                    frontier.offer("https://ibm.com/" + thread + "/" + i);
+            });
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(100, frontier.size());
+    }
+}
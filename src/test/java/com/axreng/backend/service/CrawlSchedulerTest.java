@@ -0,0 +1,101 @@
+package com.axreng.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlSchedulerTest {
+
+    @Test
+    void shouldRefuseSearchesBeyondTheLimitUntilOneCloses() {
+        var scheduler = new CrawlScheduler(2, 4);
+
+        var first = scheduler.admit();
+        assertNotNull(first);
+        assertNotNull(scheduler.admit());
+        assertNull(scheduler.admit());
+        assertEquals(1, scheduler.getRejected());
+
+        first.close();
+        first.close();
+
+        assertEquals(1, scheduler.getActive());
+        assertNotNull(scheduler.admit());
+    }
+
+    @Test
+    void shouldGiveSlotsToSearchesInTurn() {
+        var scheduler = new CrawlScheduler(10, 1);
+        var heavy = scheduler.admit();
+        var light = scheduler.admit();
+        var started = new ArrayList<String>();
+        var pages = new ArrayList<CompletableFuture<Void>>();
+
+        for (int i = 0; i < 4; i++) {
+            var name = "heavy" + i;
+            heavy.execute(() -> start(name, started, pages));
+        }
+        light.execute(() -> start("light", started, pages));
+
+        assertEquals(List.of("heavy0"), started);
+        assertEquals(1, scheduler.getRunningPages());
+        assertEquals(4, scheduler.getQueuedPages());
+
+        pages.get(0).complete(null);
+        pages.get(1).complete(null);
+        pages.get(2).complete(null);
+
+        assertEquals(List.of("heavy0", "heavy1", "light", "heavy2"), started);
+    }
+
+    @Test
+    void shouldReleaseTheSlotOfAFailedPage() {
+        var scheduler = new CrawlScheduler(10, 1);
+        var search = scheduler.admit();
+        var started = new ArrayList<String>();
+
+        search.execute(() -> {
+            throw new IllegalStateException("boom");
+        });
+        search.execute(() -> {
+            started.add("next");
+            return CompletableFuture.completedFuture(null);
+        });
+
+        assertEquals(List.of("next"), started);
+        assertEquals(0, scheduler.getRunningPages());
+    }
+
+    @Test
+    void shouldRunManyCompletedPagesWithoutRecursing() {
+        var scheduler = new CrawlScheduler(10, 1);
+        var search = scheduler.admit();
+        var blocker = new CompletableFuture<Void>();
+        var started = new int[1];
+
+        search.execute(() -> blocker);
+        for (int i = 0; i < 100_000; i++) {
+            search.execute(() -> {
+                started[0]++;
+                return CompletableFuture.completedFuture(null);
+            });
+        }
+
+        blocker.complete(null);
+
+        assertEquals(100_000, started[0]);
+        assertEquals(0, scheduler.getRunningPages());
+        assertEquals(0, scheduler.getQueuedPages());
+    }
+
+    private static CompletableFuture<Void> start(String name, List<String> started, List<CompletableFuture<Void>> pages) {
+        started.add(name);
+        var page = new CompletableFuture<Void>();
+        pages.add(page);
+        return page;
+    }
+}
@@ -0,0 +1,37 @@
+package com.axreng.backend.service;
+
+import com.axreng.backend.util.CrawlMetrics;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+
+class MetricsServiceTest {
+
+    @Test
+    void shouldExposeHotPathAndComponentMetrics() {
+        CrawlMetrics.recordFetch(404, 1_000_000);
+        CrawlMetrics.recordFetchError(2_000_000);
+        CrawlMetrics.addFetchBytes(1234);
+
+        var text = MetricsService.scrape();
+
+        assertThat(text, containsString("crawler_fetch_duration_seconds_count{status=\"404\"} "));
+        assertThat(text, containsString("crawler_fetch_duration_seconds_bucket{status=\"error\",le=\"+Inf\"} "));
+        assertThat(text, containsString("# TYPE crawler_fetch_bytes_total counter\n"));
+        assertThat(text, containsString("crawler_pages_total{outcome=\"ok\"} "));
+        assertThat(text, containsString("crawler_active_searches "));
+        assertThat(text, containsString("crawler_frontier_depth "));
+        assertThat(text, containsString("crawler_executor_utilisation "));
+        assertThat(text, containsString("crawler_page_cache_hit_ratio "));
+        assertThat(text, containsString("crawler_host_throttled_total "));
+        assertThat(text, containsString("crawler_results_entries "));
+    }
+
+    @Test
+    void shouldWriteOneSampleOrCommentPerLine() {
+        for (String line : MetricsService.scrape().split("\n"))
+            assertThat(line, matchesPattern("# (HELP|TYPE) \\w+ .+|\\w+(\\{[^}]*\\})? [-+0-9.EeInf]+"));
+    }
+}
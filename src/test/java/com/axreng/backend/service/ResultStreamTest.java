@@ -0,0 +1,60 @@
+package com.axreng.backend.service;
+
+import com.axreng.backend.dto.ResultFetcherDto;
+import com.axreng.backend.enums.Status;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultStreamTest {
+
+    @Test
+    void shouldEmitNewUrlsWithTheirPositionAsId() {
+        var result = new ResultFetcherDto();
+        var stream = new ResultStream(result, 0, 60_000);
+
+        assertNull(stream.poll(0));
+
+        result.getUrls().add("http://site/a");
+        result.getUrls().add("http://site/b");
+
+        assertEquals("id: 1\nevent: url\ndata: http://site/a\n\n"
+                + "id: 2\nevent: url\ndata: http://site/b\n\n", stream.poll(0));
+        assertNull(stream.poll(0));
+    }
+
+    @Test
+    void shouldFinishWithTheStatusOnceTheSearchEnds() {
+        var result = new ResultFetcherDto();
+        var stream = new ResultStream(result, 0, 60_000);
+
+        result.getUrls().add("http://site/a");
+        result.setStatus(Status.DONE);
+
+        assertEquals("id: 1\nevent: url\ndata: http://site/a\n\n"
+                + "event: status\ndata: {\"status\":\"DONE\",\"total\":1}\n\n", stream.poll(0));
+        assertTrue(stream.isFinished());
+        assertNull(stream.poll(0));
+    }
+
+    @Test
+    void shouldResumeAfterTheGivenCursor() {
+        var result = new ResultFetcherDto();
+        result.getUrls().add("http://site/a");
+        result.getUrls().add("http://site/b");
+
+        var stream = new ResultStream(result, 1, 60_000);
+
+        assertEquals("id: 2\nevent: url\ndata: http://site/b\n\n", stream.poll(0));
+    }
+
+    @Test
+    void shouldSendHeartbeatsWhileIdle() {
+        var stream = new ResultStream(new ResultFetcherDto(), 0, 1_000);
+        long now = System.currentTimeMillis();
+
+        assertNull(stream.poll(now));
+        assertEquals(": keep-alive\n\n", stream.poll(now + 1_000));
+        assertNull(stream.poll(now + 1_500));
+    }
+}
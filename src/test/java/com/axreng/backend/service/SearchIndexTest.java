@@ -0,0 +1,76 @@
+package com.axreng.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+class SearchIndexTest {
+
+    private static final String START = "http://site/";
+
+    @AfterEach
+    void clearIndex() {
+        SearchIndex.clear();
+    }
+
+    private static SearchIndex build(String... pages) {
+        var builder = SearchIndex.startBuild(START);
+        for (int i = 0; i < pages.length; i++)
+            builder.add(START + i, pages[i]);
+        builder.publish();
+        return SearchIndex.lookup(START, 60_000);
+    }
+
+    @Test
+    void shouldFindSubstringMatchesIgnoringCase() {
+        var index = build("<p>linux kernel</p>", "<p>windows</p>", "<a href=x>LINUXCON</a>".toLowerCase());
+
+        assertThat(index.search("Linux"), contains(START + "0", START + "2"));
+        assertThat(index.search("kern"), contains(START + "0"));
+        assertThat(index.search("macos"), is(empty()));
+    }
+
+    @Test
+    void shouldRejectCandidatesWhoseTrigramsAreNotContiguous() {
+        var index = build("abc xyz bcd", "abcd");
+
+        assertThat(index.search("abcd"), contains(START + "1"));
+    }
+
+    @Test
+    void shouldNotPublishIncompleteIndexes() {
+        var builder = SearchIndex.startBuild(START);
+        builder.add(START, "text");
+        builder.add(START + "big", null);
+        builder.publish();
+
+        assertThat(SearchIndex.lookup(START, 60_000), nullValue());
+    }
+
+    @Test
+    void shouldAllowOneBuildAtATime() {
+        var builder = SearchIndex.startBuild(START);
+
+        assertThat(builder, notNullValue());
+        assertThat(SearchIndex.startBuild(START), nullValue());
+
+        builder.abandon();
+        var next = SearchIndex.startBuild(START);
+        assertThat(next, notNullValue());
+        next.abandon();
+    }
+
+    @Test
+    void shouldOnlyServeFreshIndexesOfTheSameStartUrl() {
+        build("text");
+
+        assertThat(SearchIndex.lookup("http://other/", 60_000), nullValue());
+        assertThat(SearchIndex.lookup(START, -1), nullValue());
+    }
+}
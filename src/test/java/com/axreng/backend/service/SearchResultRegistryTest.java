@@ -0,0 +1,127 @@
+package com.axreng.backend.service;
+
+import com.axreng.backend.dto.ResultFetcherDto;
+import com.axreng.backend.enums.Status;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultRegistryTest {
+
+    private static ResultFetcherDto result(Status status, String... urls) {
+        var result = new ResultFetcherDto();
+        for (String url : urls)
+            result.getUrls().add(url);
+        result.setStatus(status);
+        return result;
+    }
+
+    @Test
+    void shouldExpireFinishedSearchesAfterTheirTtl() {
+        var registry = new SearchResultRegistry(1_000, 100, Long.MAX_VALUE, 0);
+        registry.put("done", result(Status.DONE));
+        registry.put("active", result(Status.ACTIVE));
+
+        long now = System.currentTimeMillis();
+        registry.sweep(now);
+        registry.sweep(now + 5_000);
+
+        assertNull(registry.get("done"));
+        assertNotNull(registry.get("active"));
+        assertEquals(1, registry.getExpired());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyReadFinishedSearchesOverTheEntryLimit() {
+        var registry = new SearchResultRegistry(Long.MAX_VALUE, 2, Long.MAX_VALUE, 0);
+        registry.put("a", result(Status.DONE));
+        registry.put("b", result(Status.DONE));
+        registry.sweep(System.currentTimeMillis());
+
+        sleepBriefly();
+        registry.get("a");
+        registry.put("c", result(Status.ACTIVE));
+
+        assertNotNull(registry.get("a"));
+        assertNull(registry.get("b"));
+        assertNotNull(registry.get("c"));
+        assertEquals(1, registry.getEvicted());
+    }
+
+    @Test
+    void shouldEvictFinishedSearchesOverTheByteLimit() {
+        var registry = new SearchResultRegistry(Long.MAX_VALUE, 100, 600, 0);
+        registry.put("big", result(Status.DONE, "http://site/" + "x".repeat(200)));
+        registry.put("small", result(Status.DONE, "http://site/a"));
+
+        sleepBriefly();
+        registry.get("small");
+        registry.sweep(System.currentTimeMillis());
+
+        assertNull(registry.get("big"));
+        assertNotNull(registry.get("small"));
+    }
+
+    @Test
+    void shouldEvictDownToTheLowWaterMark() {
+        var registry = new SearchResultRegistry(Long.MAX_VALUE, 100, Long.MAX_VALUE, 0);
+        for (int i = 0; i <= 100; i++)
+            registry.put("s" + i, result(Status.DONE));
+
+        assertEquals(90, registry.size());
+        assertEquals(11, registry.getEvicted());
+
+        for (int i = 101; i < 111; i++)
+            registry.put("s" + i, result(Status.DONE));
+
+        assertEquals(100, registry.size(), "No sweep until the limit is exceeded again");
+        assertEquals(11, registry.getEvicted());
+    }
+
+    @Test
+    void shouldNeverEvictActiveSearches() {
+        var registry = new SearchResultRegistry(0, 1, 0, 0);
+        registry.put("a", result(Status.ACTIVE));
+        registry.put("b", result(Status.ACTIVE));
+        registry.sweep(System.currentTimeMillis() + 10_000);
+
+        assertEquals(2, registry.size());
+        assertEquals(0, registry.getEvicted());
+    }
+
+    @Test
+    void shouldReadDroppedSearchesBackFromTheStore(@TempDir Path dir) throws IOException {
+        try (var store = SearchResultStore.open(dir.resolve("results.log"), 1 << 20)) {
+            var registry = new SearchResultRegistry(1_000, 100, Long.MAX_VALUE, 0, store);
+            var done = result(Status.DONE, "http://site/a");
+            done.setId("done");
+            registry.put("done", done);
+            registry.persist(done);
+
+            long now = System.currentTimeMillis();
+            registry.sweep(now);
+            registry.sweep(now + 5_000);
+            assertEquals(0, registry.size());
+
+            var restarted = new SearchResultRegistry(1_000, 100, Long.MAX_VALUE, 0, store);
+
+            assertEquals(List.of("http://site/a"), registry.get("done").getUrls());
+            assertEquals(Status.DONE, restarted.get("done").getStatus());
+            assertEquals(1, restarted.size());
+            assertNull(restarted.get("unknown"));
+        }
+    }
+
+    private static void sleepBriefly() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
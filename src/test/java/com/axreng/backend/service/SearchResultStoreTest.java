@@ -0,0 +1,100 @@
+package com.axreng.backend.service;
+
+import com.axreng.backend.dto.ResultFetcherDto;
+import com.axreng.backend.enums.Status;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static ResultFetcherDto result(String id, Status status, String... urls) {
+        var result = new ResultFetcherDto();
+        result.setId(id);
+        for (String url : urls)
+            result.getUrls().add(url);
+        result.setStatus(status);
+        return result;
+    }
+
+    @Test
+    void shouldReadBackAppendedSearches() throws IOException {
+        try (var store = SearchResultStore.open(dir.resolve("results.log"), 1 << 20)) {
+            assertTrue(store.append(result("aaaa1111", Status.DONE, "http://site/a", "http://site/b")));
+
+            var loaded = store.load("aaaa1111");
+
+            assertEquals("aaaa1111", loaded.getId());
+            assertEquals(Status.DONE, loaded.getStatus());
+            assertEquals(List.of("http://site/a", "http://site/b"), loaded.getUrls());
+            assertNull(store.load("missing1"));
+        }
+    }
+
+    @Test
+    void shouldRebuildTheIndexWhenReopened() throws IOException {
+        var path = dir.resolve("results.log");
+
+        try (var store = SearchResultStore.open(path, 1 << 20)) {
+            store.append(result("aaaa1111", Status.DONE, "http://site/a"));
+            store.append(result("bbbb2222", Status.FAILED));
+            store.append(result("aaaa1111", Status.DONE, "http://site/a", "http://site/c"));
+        }
+
+        try (var store = SearchResultStore.open(path, 1 << 20)) {
+            assertEquals(2, store.size());
+            assertEquals(List.of("http://site/a", "http://site/c"), store.load("aaaa1111").getUrls());
+            assertEquals(Status.FAILED, store.load("bbbb2222").getStatus());
+
+            store.append(result("cccc3333", Status.DONE, "http://site/d"));
+            assertEquals(List.of("http://site/d"), store.load("cccc3333").getUrls());
+        }
+    }
+
+    @Test
+    void shouldStopAtACorruptRecord() throws IOException {
+        var path = dir.resolve("results.log");
+        long secondRecord;
+
+        try (var store = SearchResultStore.open(path, 1 << 20)) {
+            store.append(result("aaaa1111", Status.DONE, "http://site/a"));
+            secondRecord = store.getBytesUsed();
+            store.append(result("bbbb2222", Status.DONE, "http://site/b"));
+        }
+
+        try (var file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(secondRecord + 20);
+            file.write('#');
+        }
+
+        try (var store = SearchResultStore.open(path, 1 << 20)) {
+            assertEquals(1, store.size());
+            assertNotNull(store.load("aaaa1111"));
+            assertNull(store.load("bbbb2222"));
+            assertEquals(secondRecord, store.getBytesUsed());
+        }
+    }
+
+    @Test
+    void shouldGrowTheMappingUntilTheLimit() throws IOException {
+        var page = "http://site/" + "x".repeat(100_000);
+
+        try (var store = SearchResultStore.open(dir.resolve("results.log"), 3 << 20)) {
+            for (int i = 0; i < 20; i++)
+                assertTrue(store.append(result("id" + i, Status.DONE, page)));
+
+            assertFalse(store.append(result("over", Status.DONE, "x".repeat(2 << 20))));
+            assertEquals(20, store.size());
+            assertEquals(page, store.load("id19").getUrls().get(0));
+        }
+    }
+}
@@ -1,16 +1,105 @@
 package com.axreng.backend.service;
 
+import com.axreng.backend.enums.SearchMode;
+import com.axreng.backend.enums.SeenSetMode;
+import com.axreng.backend.enums.Status;
 import com.axreng.backend.util.UriUtil;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class SiteQueryProcessorServiceTest {
 
+    private static HttpServer server;
+    private static String startUrl;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            var path = exchange.getRequestURI().getPath();
+            var html = path.equals("/index.html")
+                    ? "<a href=\"/one.html\">a</a><a href=\"/two.html\">b</a>"
+                    : path.equals("/one.html") ? "<p>linux page</p>" : "<p>windows page</p>";
+            var body = html.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        startUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/index.html";
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+        SearchIndex.clear();
+    }
+
     @Test
     void testBaseUrlExtraction() {
         UriUtil uriUtil = new UriUtil();
         String baseUrl = uriUtil.extractBaseUrl("https://ibm.com/page");
         assertEquals("https://ibm.com", baseUrl);
     }
+
+    @Test
+    void shouldAnswerRepeatSearchesFromTheIndex() {
+        var crawl = new SiteQueryProcessorService("linux", startUrl, SeenSetMode.EXACT, SearchMode.INDEX);
+        var crawlId = crawl.startSearchAsync().getId();
+        crawl.completion().join();
+
+        assertEquals(1, SiteQueryProcessorService.getSearchResult(crawlId).getUrls().size());
+
+        var indexed = new SiteQueryProcessorService("WINDOWS", startUrl, SeenSetMode.EXACT, SearchMode.INDEX);
+        var result = SiteQueryProcessorService.getSearchResult(indexed.startSearchAsync().getId());
+
+        assertEquals(Status.DONE, result.getStatus());
+        assertTrue(indexed.completion().isDone());
+        assertEquals(1, result.getUrls().size());
+        assertTrue(result.getUrls().get(0).endsWith("/two.html"));
+    }
+
+    @Test
+    void shouldRunABatchOfSearchesOverOneCrawl() {
+        var batch = new SiteQueryProcessorService(List.of("linux", "windows", "page", "macos"),
+                startUrl, SeenSetMode.EXACT, SearchMode.CRAWL);
+        var searches = batch.startBatchSearchAsync().getSearches();
+        batch.completion().join();
+
+        assertEquals(4, searches.size());
+        assertEquals("windows", searches.get(1).getKeyword());
+        assertEquals(1, SiteQueryProcessorService.getSearchResult(searches.get(0).getId()).getUrls().size());
+        assertEquals(1, SiteQueryProcessorService.getSearchResult(searches.get(1).getId()).getUrls().size());
+        assertEquals(2, SiteQueryProcessorService.getSearchResult(searches.get(2).getId()).getUrls().size());
+        assertEquals(0, SiteQueryProcessorService.getSearchResult(searches.get(3).getId()).getUrls().size());
+        assertEquals(Status.DONE, SiteQueryProcessorService.getSearchResult(searches.get(3).getId()).getStatus());
+    }
+
+    @Test
+    void shouldReportTheProgressOfTheCrawl() {
+        // A start URL of its own, so that at least that page is not served from the cache of earlier tests
+        var crawl = new SiteQueryProcessorService("linux", startUrl + "?run=stats", SeenSetMode.EXACT, SearchMode.CRAWL);
+        var id = crawl.startSearchAsync().getId();
+        crawl.completion().join();
+
+        var stats = SiteQueryProcessorService.getSearchResult(id).stats();
+
+        assertEquals(Status.DONE, stats.getStatus());
+        assertEquals(1, stats.getUrlsFound());
+        assertEquals(3, stats.getPagesFetched());
+        assertEquals(0, stats.getPagesFailed());
+        assertEquals(0, stats.getFrontierSize());
+        assertTrue(stats.getBytesReceived() > 0);
+        assertTrue(stats.getElapsedMillis() >= stats.getLinkResolutionMillis());
+        assertNotNull(stats.getStartedAt());
+    }
 }
@@ -0,0 +1,81 @@
+package com.axreng.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppendOnlyListTest {
+
+    @Test
+    void shouldKeepInsertionOrderAcrossChunks() {
+        var list = new AppendOnlyList<Integer>();
+
+        for (int i = 0; i < 100; i++)
+            list.add(i);
+
+        assertEquals(100, list.size());
+        assertEquals(0, list.get(0));
+        assertEquals(99, list.get(99));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(100));
+    }
+
+    @Test
+    void shouldPublishAddAllAtOnce() {
+        var list = new AppendOnlyList<>(List.of("a", "b"));
+
+        assertTrue(list.addAll(List.of("c", "d")));
+        assertFalse(list.addAll(List.of()));
+        assertEquals(List.of("a", "b", "c", "d"), list);
+    }
+
+    @Test
+    void shouldBeReadableWhileWritersAppend() throws InterruptedException {
+        var list = new AppendOnlyList<Integer>();
+        var failure = new AtomicReference<Throwable>();
+        var start = new CountDownLatch(1);
+        var writers = new ArrayList<Thread>();
+
+        for (int w = 0; w < 4; w++) {
+            var writer = new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < 5_000; i++)
+                    list.add(i);
+            });
+            writers.add(writer);
+            writer.start();
+        }
+
+        var reader = new Thread(() -> {
+            awaitQuietly(start);
+            try {
+                while (list.size() < 20_000)
+                    for (Integer value : list)
+                        assertNotNull(value);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+        start.countDown();
+
+        for (Thread writer : writers)
+            writer.join();
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(20_000, list.size());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
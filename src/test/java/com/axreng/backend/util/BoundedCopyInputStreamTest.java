@@ -0,0 +1,40 @@
+package com.axreng.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCopyInputStreamTest {
+
+    @Test
+    void shouldCopyStreamWithinLimit() throws IOException {
+        var copy = new BoundedCopyInputStream(new ByteArrayInputStream("hello world".getBytes()), 64, -1);
+
+        assertEquals("hello", new String(copy.readNBytes(5)));
+        assertFalse(copy.isComplete());
+
+        copy.drain();
+
+        assertTrue(copy.isComplete());
+        assertEquals("hello world", new String(copy.toByteArray()));
+    }
+
+    @Test
+    void shouldDropCopyOnceLimitIsExceeded() throws IOException {
+        var copy = new BoundedCopyInputStream(new ByteArrayInputStream(new byte[100]), 64, -1);
+
+        assertEquals(100, copy.readAllBytes().length);
+        assertFalse(copy.isComplete());
+    }
+
+    @Test
+    void shouldNotCopyStreamAnnouncedLargerThanLimit() throws IOException {
+        var copy = new BoundedCopyInputStream(new ByteArrayInputStream(new byte[10]), 64, 1000);
+
+        assertEquals(10, copy.readAllBytes().length);
+        assertFalse(copy.isComplete());
+    }
+}
@@ -0,0 +1,61 @@
+package com.axreng.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentDecodingTest {
+
+    private static final String HTML = "<html><body>" + "linux ".repeat(2_000) + "</body></html>";
+
+    @Test
+    void shouldInflateGzipBodies() throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(HTML.getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertEquals(HTML, decode(out.toByteArray(), "gzip"));
+    }
+
+    @Test
+    void shouldInflateZlibAndRawDeflateBodies() throws IOException {
+        assertEquals(HTML, decode(deflate(false), "deflate"));
+        assertEquals(HTML, decode(deflate(true), "Deflate"));
+    }
+
+    @Test
+    void shouldPassUnencodedBodiesThrough() throws IOException {
+        var body = new ByteArrayInputStream(HTML.getBytes(StandardCharsets.UTF_8));
+
+        assertSame(body, ContentDecoding.decode(body, null));
+        assertEquals(HTML, decode(HTML.getBytes(StandardCharsets.UTF_8), "identity"));
+    }
+
+    @Test
+    void shouldRejectUnsupportedEncodings() {
+        assertThrows(IOException.class, () -> decode(new byte[0], "br"));
+    }
+
+    private static byte[] deflate(boolean raw) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var deflater = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+            deflater.write(HTML.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private static String decode(byte[] body, String encoding) throws IOException {
+        try (var in = ContentDecoding.decode(new ByteArrayInputStream(body), encoding)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.axreng.backend.util;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CrawlEventsTest {
+
+    @Test
+    void shouldRecordLinkResolutionOfAPage() throws Exception {
+        var file = Files.createTempFile("crawl", ".jfr");
+
+        try (var recording = new Recording()) {
+            recording.enable("com.axreng.crawler.LinkResolution");
+            recording.start();
+
+            new UriUtil().resolveLinks("https://ibm.com/docs/", null,
+                    List.of("a.html", "mailto:x@ibm.com", "https://evil.org/"), "https://ibm.com");
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("com.axreng.crawler.LinkResolution"))
+                .collect(Collectors.toList());
+        Files.deleteIfExists(file);
+
+        assertEquals(1, events.size());
+        assertEquals("https://ibm.com/docs/", events.get(0).getString("url"));
+        assertEquals(3, events.get(0).getInt("hrefs"));
+        assertEquals(1, events.get(0).getInt("links"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.axreng.backend.util;
+
+import com.axreng.backend.enums.ExecutorMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlExecutorsTest {
+
+    @Test
+    void shouldFallBackToFixedPoolWithoutVirtualThreads() {
+        var mode = CrawlExecutors.configure(ExecutorMode.VIRTUAL_THREADS, 10);
+
+        if (Runtime.version().feature() < 21)
+            assertEquals(ExecutorMode.FIXED_POOL, mode);
+        else
+            assertEquals(ExecutorMode.VIRTUAL_THREADS, mode);
+
+        assertNotNull(CrawlExecutors.executor());
+    }
+
+    @Test
+    void shouldParseExecutorModeIgnoringCase() {
+        assertEquals(ExecutorMode.VIRTUAL_THREADS, ExecutorMode.fromValue("Virtual"));
+        assertEquals(ExecutorMode.FIXED_POOL, ExecutorMode.fromValue("fixed"));
+        assertEquals(ExecutorMode.FIXED_POOL, ExecutorMode.fromValue(null));
+        assertEquals(ExecutorMode.FIXED_POOL, ExecutorMode.fromValue("unknown"));
+    }
+
+    @Test
+    void shouldCapConcurrentTasks() throws Exception {
+        var pool = Executors.newCachedThreadPool();
+        var limited = new CrawlExecutors.LimitedExecutor(pool, 3);
+        var running = new AtomicInteger();
+        var peak = new AtomicInteger();
+        var done = new CountDownLatch(30);
+
+        for (int i = 0; i < 30; i++) {
+            limited.execute(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(peak.get() <= 3, "Peak concurrency was " + peak.get());
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,76 @@
+package com.axreng.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlScopeTest {
+
+    private final CrawlScope scope = new CrawlScope("https://ibm.com", true, "", "", "pdf,png");
+
+    @Test
+    void shouldAcceptRelativeLinks() {
+        assertTrue(scope.accepts("page.html"));
+        assertTrue(scope.accepts("/docs/page.html?q=1#top"));
+        assertTrue(scope.accepts("../a:b/page.html"));
+        assertTrue(scope.accepts("  /docs/  "));
+    }
+
+    @Test
+    void shouldCheckTheHostOfAbsoluteAndProtocolRelativeLinks() {
+        assertTrue(scope.accepts("https://ibm.com/page"));
+        assertTrue(scope.accepts("HTTP://IBM.com:8080/page"));
+        assertTrue(scope.accepts("//sub.ibm.com/page"));
+        assertTrue(scope.accepts("https://user@ibm.com"));
+        assertFalse(scope.accepts("https://notibm.com/page"));
+        assertFalse(scope.accepts("https://ibm.com.evil.org/page"));
+        assertFalse(scope.accepts("https://evil.org/?next=https://ibm.com"));
+        assertFalse(scope.accepts("https://ibm.com@evil.org/"));
+    }
+
+    @Test
+    void shouldRejectSubdomainsWhenNotAllowed() {
+        var strict = new CrawlScope("https://ibm.com", false, "", "", "");
+
+        assertTrue(strict.accepts("https://ibm.com/page"));
+        assertFalse(strict.accepts("https://sub.ibm.com/page"));
+    }
+
+    @Test
+    void shouldRejectOtherSchemesAndAnchors() {
+        assertFalse(scope.accepts("mailto:user@ibm.com"));
+        assertFalse(scope.accepts("javascript:void(0);"));
+        assertFalse(scope.accepts("ftp://ibm.com/file"));
+        assertFalse(scope.accepts("https:page.html"));
+        assertFalse(scope.accepts("#section"));
+        assertFalse(scope.accepts(""));
+        assertFalse(scope.accepts(null));
+    }
+
+    @Test
+    void shouldRejectBlockedExtensions() {
+        assertFalse(scope.accepts("manual.PDF"));
+        assertFalse(scope.accepts("/img/logo.png?v=2"));
+        assertTrue(scope.accepts("/files.pdf/index.html"));
+        assertTrue(scope.accepts("/docs/"));
+    }
+
+    @Test
+    void shouldFollowEveryExtensionByDefault() {
+        var defaults = CrawlScope.forBaseUrl("https://ibm.com");
+
+        assertTrue(defaults.accepts("manual.pdf"));
+        assertTrue(defaults.accepts("/img/logo.png"));
+    }
+
+    @Test
+    void shouldApplyPathPrefixesToCanonicalUrls() {
+        var docs = new CrawlScope("https://ibm.com", true, "/docs/,/help/", "/docs/archive/", "");
+
+        assertTrue(docs.acceptsPath("https://ibm.com/docs/page.html"));
+        assertTrue(docs.acceptsPath("https://ibm.com/help/"));
+        assertFalse(docs.acceptsPath("https://ibm.com/blog/post.html"));
+        assertFalse(docs.acceptsPath("https://ibm.com/docs/archive/old.html"));
+        assertTrue(scope.acceptsPath("https://ibm.com/anything"));
+    }
+}
@@ -0,0 +1,154 @@
+package com.axreng.backend.util;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HostSchedulerTest {
+
+    private static final HttpClient client = HttpClient.newHttpClient();
+    private static HttpServer server;
+    private static String baseUrl;
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger maxInFlight = new AtomicInteger();
+    private static final AtomicInteger throttledCalls = new AtomicInteger();
+    private static final AtomicInteger unavailableCalls = new AtomicInteger();
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(16));
+        server.createContext("/slow", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/fast", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/throttled", exchange -> {
+            if (throttledCalls.getAndIncrement() == 0) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                exchange.sendResponseHeaders(429, -1);
+            } else {
+                exchange.sendResponseHeaders(200, -1);
+            }
+            exchange.close();
+        });
+        server.createContext("/unavailable", exchange -> {
+            unavailableCalls.incrementAndGet();
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    private static CompletableFuture<HttpResponse<Void>> get(HostScheduler scheduler, String path) {
+        var uri = URI.create(baseUrl + path);
+        return scheduler.execute(uri,
+                () -> client.sendAsync(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding()));
+    }
+
+    @Test
+    void shouldCapRequestsInFlightPerHost() {
+        var scheduler = new HostScheduler(0, 1, 2, 0, 10, 100);
+        var responses = new ArrayList<CompletableFuture<HttpResponse<Void>>>();
+
+        for (int i = 0; i < 8; i++)
+            responses.add(get(scheduler, "/slow"));
+
+        responses.forEach(response -> assertEquals(200, response.join().statusCode()));
+        assertTrue(maxInFlight.get() <= 2, "max in flight: " + maxInFlight.get());
+        assertTrue(scheduler.getDelayed() > 0);
+        assertEquals(0, scheduler.getQueued());
+    }
+
+    @Test
+    void shouldRateLimitEachHost() {
+        var scheduler = new HostScheduler(20, 1, 0, 0, 10, 100);
+        long start = System.nanoTime();
+        var responses = new ArrayList<CompletableFuture<HttpResponse<Void>>>();
+
+        for (int i = 0; i < 5; i++)
+            responses.add(get(scheduler, "/fast"));
+
+        responses.forEach(CompletableFuture::join);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis >= 180, "elapsed: " + elapsedMillis);
+    }
+
+    @Test
+    void shouldRetryAfterTheDelayTheHostAsksFor() {
+        var scheduler = new HostScheduler(0, 1, 0, 3, 10, 5_000);
+        long start = System.nanoTime();
+
+        var response = get(scheduler, "/throttled").join();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(200, response.statusCode());
+        assertEquals(2, throttledCalls.get());
+        assertEquals(1, scheduler.getThrottled());
+        assertTrue(elapsedMillis >= 900, "elapsed: " + elapsedMillis);
+    }
+
+    @Test
+    void shouldGiveUpAfterTheMaximumNumberOfRetries() {
+        var scheduler = new HostScheduler(0, 1, 0, 2, 10, 100);
+
+        var response = get(scheduler, "/unavailable").join();
+
+        assertEquals(503, response.statusCode());
+        assertEquals(3, unavailableCalls.get());
+        assertEquals(3, scheduler.getThrottled());
+    }
+
+    @Test
+    void shouldKeepAHeldSlotUntilItIsReleased() {
+        var scheduler = new HostScheduler(0, 1, 1, 0, 10, 100);
+        var uri = URI.create(baseUrl + "/fast");
+        var slots = new ArrayList<HostScheduler.Slot>();
+
+        var first = scheduler.execute(uri, slot -> {
+            slot.hold();
+            slots.add(slot);
+            return client.sendAsync(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding());
+        });
+        assertEquals(200, first.join().statusCode());
+
+        var second = get(scheduler, "/fast");
+        assertEquals(1, scheduler.getQueued());
+        assertFalse(second.isDone());
+
+        slots.get(0).release();
+        assertEquals(200, second.join().statusCode());
+        assertEquals(0, scheduler.getQueued());
+    }
+}
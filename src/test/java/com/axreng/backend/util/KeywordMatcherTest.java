@@ -0,0 +1,44 @@
+package com.axreng.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordMatcherTest {
+
+    @Test
+    void shouldMatchIgnoringCase() {
+        var matcher = new KeywordMatcher("Security");
+
+        assertTrue(matcher.matches("<p>Cloud SECURITY made simple</p>"));
+        assertFalse(matcher.matches("<p>Cloud secur1ty</p>"));
+    }
+
+    @Test
+    void shouldMatchAfterPartialPrefix() {
+        var matcher = new KeywordMatcher("aab");
+
+        assertTrue(matcher.matches("aaab"));
+        assertTrue(new KeywordMatcher("abab").matches("ababab"));
+        assertFalse(matcher.matches("abaa"));
+    }
+
+    @Test
+    void shouldMatchAcrossChunkBoundaries() {
+        var matcher = new KeywordMatcher("linux");
+        char[] first = "kernel: Li".toCharArray();
+        char[] second = "NUX rocks".toCharArray();
+
+        int state = matcher.advance(0, first, 0, first.length);
+        assertFalse(matcher.isMatch(state));
+
+        state = matcher.advance(state, second, 0, second.length);
+        assertTrue(matcher.isMatch(state));
+    }
+
+    @Test
+    void shouldRejectEmptyKeyword() {
+        assertThrows(IllegalArgumentException.class, () -> new KeywordMatcher(""));
+        assertThrows(IllegalArgumentException.class, () -> new KeywordMatcher(null));
+    }
+}
@@ -0,0 +1,52 @@
+package com.axreng.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LatencyHistogramTest {
+
+    @Test
+    void shouldRenderCumulativeBuckets() {
+        var histogram = new LatencyHistogram(new double[]{0.01, 0.1, 1});
+
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(10));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(50));
+        histogram.record(TimeUnit.SECONDS.toNanos(3));
+
+        var out = new StringBuilder();
+        histogram.writeTo(out, "fetch_seconds", "status=\"200\"");
+        var text = out.toString();
+
+        assertThat(text, containsString("fetch_seconds_bucket{status=\"200\",le=\"0.01\"} 2\n"));
+        assertThat(text, containsString("fetch_seconds_bucket{status=\"200\",le=\"0.1\"} 3\n"));
+        assertThat(text, containsString("fetch_seconds_bucket{status=\"200\",le=\"1.0\"} 3\n"));
+        assertThat(text, containsString("fetch_seconds_bucket{status=\"200\",le=\"+Inf\"} 4\n"));
+        assertThat(text, containsString("fetch_seconds_sum{status=\"200\"} 3.065\n"));
+        assertThat(text, containsString("fetch_seconds_count{status=\"200\"} 4\n"));
+        assertThat(histogram.getCount(), is(4L));
+    }
+
+    @Test
+    void shouldRenderWithoutLabels() {
+        var histogram = new LatencyHistogram(new double[]{1});
+        histogram.record(1);
+
+        var out = new StringBuilder();
+        histogram.writeTo(out, "page_seconds", "");
+
+        assertThat(out.toString(), containsString("page_seconds_bucket{le=\"+Inf\"} 1\n"));
+        assertThat(out.toString(), containsString("page_seconds_count 1\n"));
+    }
+
+    @Test
+    void shouldRejectUnorderedBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(new double[]{1, 0.5}));
+    }
+}
@@ -0,0 +1,62 @@
+package com.axreng.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LinkTokenizerTest {
+
+    @Test
+    void shouldExtractQuotedAndUnquotedHrefs() {
+        var tokenizer = LinkTokenizer.tokenize("<a href=\"/double\">1</a>"
+                + "<a href='/single'>2</a>"
+                + "<a href=/unquoted>3</a>"
+                + "<A CLASS=x HREF = \"/upper\" >4</A>");
+
+        assertThat(tokenizer.getHrefs(), contains("/double", "/single", "/unquoted", "/upper"));
+    }
+
+    @Test
+    void shouldRecogniseAreaCanonicalAndBase() {
+        var tokenizer = LinkTokenizer.tokenize("<head><base href=\"https://ibm.com/docs/\">"
+                + "<link rel=\"stylesheet\" href=\"/style.css\">"
+                + "<link rel=\"Canonical\" href=\"https://ibm.com/docs/index.html\"/>"
+                + "</head><map><area shape=rect href=\"/map.html\"></map>");
+
+        assertThat(tokenizer.getHrefs(), contains("https://ibm.com/docs/index.html", "/map.html"));
+        assertEquals("https://ibm.com/docs/", tokenizer.getBaseHref());
+    }
+
+    @Test
+    void shouldIgnoreOtherTagsAndComments() {
+        var tokenizer = LinkTokenizer.tokenize("<abbr href=\"/abbr\">x</abbr>"
+                + "<!-- <a href=\"/commented\"> -->"
+                + "<img src=\"/a.png\"><a name=\"top\"></a>");
+
+        assertThat(tokenizer.getHrefs(), empty());
+        assertNull(tokenizer.getBaseHref());
+    }
+
+    @Test
+    void shouldHandleTagsSplitAcrossChunks() {
+        var tokenizer = new LinkTokenizer();
+        char[] first = "<p>text</p><a hr".toCharArray();
+        char[] second = "ef=\"/split.html?a=1&amp;b=2\">x</a>".toCharArray();
+
+        tokenizer.feed(first, 0, first.length);
+        tokenizer.feed(second, 0, second.length);
+
+        assertThat(tokenizer.getHrefs(), contains("/split.html?a=1&b=2"));
+    }
+
+    @Test
+    void shouldKeepQuotedGreaterThanInsideValue() {
+        var tokenizer = LinkTokenizer.tokenize("<a title=\"a > b\" href=\"/page.html\">x</a>");
+
+        assertThat(tokenizer.getHrefs(), contains("/page.html"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.axreng.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiKeywordMatcherTest {
+
+    private static BitSet bits(int... positions) {
+        var bits = new BitSet();
+        for (int position : positions)
+            bits.set(position);
+        return bits;
+    }
+
+    @Test
+    void shouldReportEveryKeywordFoundIgnoringCase() {
+        var matcher = new MultiKeywordMatcher(List.of("linux", "Security", "cloud"));
+
+        assertEquals(bits(0, 1), matcher.matches("<p>LINUX security</p>"));
+        assertEquals(bits(), matcher.matches("<p>windows</p>"));
+    }
+
+    @Test
+    void shouldFindOverlappingAndNestedKeywords() {
+        var matcher = new MultiKeywordMatcher(List.of("he", "she", "hers", "his"));
+
+        assertEquals(bits(0, 1, 2), matcher.matches("ushers"));
+        assertEquals(bits(3), matcher.matches("this"));
+    }
+
+    @Test
+    void shouldReportDuplicateKeywordsIndependently() {
+        var matcher = new MultiKeywordMatcher(List.of("java", "JAVA"));
+
+        assertEquals(bits(0, 1), matcher.matches("Java"));
+    }
+
+    @Test
+    void shouldMatchAcrossChunkBoundaries() {
+        var matcher = new MultiKeywordMatcher(List.of("linux", "kernel"));
+        var found = new BitSet();
+        char[] first = "the ker".toCharArray();
+        char[] second = "nel of li".toCharArray();
+        char[] third = "nux".toCharArray();
+
+        int state = matcher.advance(0, first, 0, first.length, found);
+        state = matcher.advance(state, second, 0, second.length, found);
+        assertEquals(bits(1), found);
+
+        matcher.advance(state, third, 0, third.length, found);
+        assertEquals(bits(0, 1), found);
+    }
+
+    @Test
+    void shouldMatchNonAsciiKeywords() {
+        var matcher = new MultiKeywordMatcher(List.of("ação", "café"));
+
+        assertEquals(bits(0, 1), matcher.matches("Uma AÇÃO no Café"));
+    }
+
+    @Test
+    void shouldRejectEmptyKeywordLists() {
+        assertThrows(IllegalArgumentException.class, () -> new MultiKeywordMatcher(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> new MultiKeywordMatcher(List.of("ok", "")));
+    }
+}
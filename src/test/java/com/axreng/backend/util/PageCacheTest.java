@@ -0,0 +1,131 @@
+package com.axreng.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+class PageCacheTest {
+
+    private static PageCache.Page page(int size) {
+        return new PageCache.Page(new byte[size], StandardCharsets.UTF_8, System.currentTimeMillis());
+    }
+
+    @Test
+    void shouldServeRepeatedLookupsFromCache() {
+        var cache = new PageCache(1024 * 1024, 60_000, 1024 * 1024);
+        var loads = new AtomicInteger();
+
+        var first = cache.get("http://a/x#top", url -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(page(10));
+        }).join();
+        var second = cache.get("http://a/x", url -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(page(10));
+        }).join();
+
+        assertThat(second, sameInstance(first));
+        assertThat(loads.get(), is(1));
+        assertThat(cache.getHits(), is(1L));
+        assertThat(cache.getMisses(), is(1L));
+    }
+
+    @Test
+    void shouldCoalesceConcurrentMisses() {
+        var cache = new PageCache(1024 * 1024, 60_000, 1024 * 1024);
+        var pending = new CompletableFuture<PageCache.Page>();
+        var loads = new AtomicInteger();
+
+        var first = cache.get("http://a/x", url -> {
+            loads.incrementAndGet();
+            return pending;
+        });
+        var second = cache.get("http://a/x", url -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(page(10));
+        });
+
+        pending.complete(page(10));
+
+        assertThat(second.join(), sameInstance(first.join()));
+        assertThat(loads.get(), is(1));
+        assertThat(cache.getCoalesced(), is(1L));
+    }
+
+    @Test
+    void shouldNotCacheFailedFetches() {
+        var cache = new PageCache(1024 * 1024, 60_000, 1024 * 1024);
+
+        assertThat(cache.get("http://a/x", url -> CompletableFuture.completedFuture(null)).join(), nullValue());
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedPagesOverTheByteLimit() {
+        var cache = new PageCache(3_000, 60_000, 3_000);
+
+        cache.get("http://a/1", url -> CompletableFuture.completedFuture(page(1_400))).join();
+        cache.get("http://a/2", url -> CompletableFuture.completedFuture(page(1_400))).join();
+        cache.get("http://a/1", url -> CompletableFuture.completedFuture(page(1_400))).join();
+        cache.get("http://a/3", url -> CompletableFuture.completedFuture(page(1_400))).join();
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.getEvictions(), is(1L));
+        assertThat(cache.getCurrentBytes(), lessThanOrEqualTo(3_000L));
+
+        var misses = cache.getMisses();
+        cache.get("http://a/1", url -> CompletableFuture.completedFuture(page(1_400))).join();
+        assertThat(cache.getMisses(), is(misses));
+    }
+
+    @Test
+    void shouldSkipPagesLargerThanTheEntryLimit() {
+        var cache = new PageCache(1024 * 1024, 60_000, 1_000);
+
+        cache.get("http://a/big", url -> CompletableFuture.completedFuture(page(5_000))).join();
+
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    void shouldExpireStalePages() {
+        var cache = new PageCache(1024 * 1024, 1_000, 1024 * 1024);
+        var stale = new PageCache.Page(new byte[10], StandardCharsets.UTF_8, System.currentTimeMillis() - 5_000);
+
+        cache.get("http://a/x", url -> CompletableFuture.completedFuture(stale)).join();
+        cache.get("http://a/x", url -> CompletableFuture.completedFuture(page(10))).join();
+
+        assertThat(cache.getMisses(), is(2L));
+    }
+
+    @Test
+    void shouldHandExpiredPagesWithValidatorsToTheLoader() {
+        var cache = new PageCache(1024 * 1024, 1_000, 1024 * 1024);
+        var expired = new PageCache.Page(new byte[10], StandardCharsets.UTF_8, System.currentTimeMillis() - 5_000,
+                "\"v1\"", null, null);
+        var seen = new AtomicReference<PageCache.Page>();
+
+        cache.get("http://a/x", url -> CompletableFuture.completedFuture(expired)).join();
+        var refreshed = cache.get("http://a/x", (url, stale) -> {
+            seen.set(stale);
+            return CompletableFuture.completedFuture(stale.revalidated(System.currentTimeMillis(), null, null));
+        }).join();
+
+        assertThat(seen.get(), sameInstance(expired));
+        assertThat(refreshed.getBody(), sameInstance(expired.getBody()));
+        assertThat(refreshed.getEtag(), is("\"v1\""));
+        assertThat(cache.getRevalidations(), is(1L));
+
+        cache.get("http://a/x", url -> CompletableFuture.completedFuture(page(10))).join();
+        assertThat(cache.getHits(), is(1L));
+    }
+}
@@ -0,0 +1,73 @@
+package com.axreng.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageScannerTest {
+
+    private static final String PAGE = "<html><body>Welcome to the Linux manual"
+            + "<a class=\"nav\" href=\"/index2.html\">Index</a>"
+            + "<abbr title=\"x\">X</abbr>"
+            + "<a href=\"htmlman1/chcon.1.html\">chcon</a>"
+            + "<a name=\"anchor\">no link</a>"
+            + "<a href=\"/index2.html\">again</a></body></html>";
+
+    private final PageScanner scanner = new PageScanner(new KeywordMatcher("linux"));
+
+    @Test
+    void shouldMatchKeywordAndCollectLinks() throws IOException {
+        var result = scanner.scan(new ByteArrayInputStream(PAGE.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+
+        assertTrue(result.isMatched());
+        assertThat(result.getHrefs(), contains("/index2.html", "htmlman1/chcon.1.html"));
+        assertEquals(PAGE.length(), result.getCharacters());
+    }
+
+    @Test
+    void shouldHandleTagsSplitAcrossReads() throws IOException {
+        var result = scanner.scan(new OneCharReader(new StringReader(PAGE)));
+
+        assertTrue(result.isMatched());
+        assertThat(result.getHrefs(), contains("/index2.html", "htmlman1/chcon.1.html"));
+    }
+
+    @Test
+    void shouldNotMatchMissingKeyword() throws IOException {
+        var result = new PageScanner(new KeywordMatcher("windows")).scan(new StringReader(PAGE));
+
+        assertFalse(result.isMatched());
+        assertEquals(List.of("/index2.html", "htmlman1/chcon.1.html"), List.copyOf(result.getHrefs()));
+    }
+
+    /**
+     * Returns at most one character per read, like a body arriving in tiny network chunks.
+     */
+    private static class OneCharReader extends Reader {
+
+        private final Reader delegate;
+
+        OneCharReader(Reader delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            return delegate.read(buffer, offset, Math.min(1, length));
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
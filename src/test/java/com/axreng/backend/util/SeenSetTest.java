@@ -0,0 +1,78 @@
+package com.axreng.backend.util;
+
+import com.axreng.backend.enums.SeenSetMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeenSetTest {
+
+    private static String url(int i) {
+        return "https://ibm.com/docs/page" + i + ".html";
+    }
+
+    @Test
+    void shouldCreateSetForEachMode() {
+        assertThat(SeenSet.create(SeenSetMode.EXACT, 100), instanceOf(ConcurrentSeenSet.class));
+        assertThat(SeenSet.create(SeenSetMode.FINGERPRINT, 100), instanceOf(FingerprintSeenSet.class));
+        assertThat(SeenSet.create(SeenSetMode.BLOOM, 100), instanceOf(BloomSeenSet.class));
+        assertEquals(SeenSetMode.FINGERPRINT, SeenSetMode.fromValue("Fingerprint"));
+        assertEquals(SeenSetMode.EXACT, SeenSetMode.fromValue(null));
+    }
+
+    @Test
+    void fingerprintSetShouldBeExactAndGrow() {
+        var set = new FingerprintSeenSet(16);
+
+        for (int i = 0; i < 50_000; i++)
+            assertTrue(set.add(url(i)));
+
+        for (int i = 0; i < 50_000; i++)
+            assertFalse(set.add(url(i)));
+
+        assertEquals(50_000, set.size());
+    }
+
+    @Test
+    void fingerprintSetShouldAcceptEachUrlOnceUnderContention() throws Exception {
+        var set = new FingerprintSeenSet(1000);
+        var accepted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++)
+                    if (set.add(url(i)))
+                        accepted.incrementAndGet();
+            });
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(10_000, accepted.get());
+        assertEquals(10_000, set.size());
+    }
+
+    @Test
+    void bloomSetShouldNeverForgetAndRarelyCollide() {
+        var set = new BloomSeenSet(10_000, 1e-3);
+        int falsePositives = 0;
+
+        for (int i = 0; i < 10_000; i++)
+            if (!set.add(url(i)))
+                falsePositives++;
+
+        for (int i = 0; i < 10_000; i++)
+            assertFalse(set.add(url(i)), "Seen URL reported as new: " + url(i));
+
+        assertThat(falsePositives, lessThan(100));
+    }
+}
@@ -2,6 +2,9 @@ package com.axreng.backend.util;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Set;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
@@ -22,4 +25,30 @@ class UriUtilTest {
         assertThrows(IllegalArgumentException.class, () -> uriUtil.extractBaseUrl("invalid-url"));
         assertThrows(IllegalArgumentException.class, () -> uriUtil.extractBaseUrl("://missing.scheme.com"));
     }
+
+    @Test
+    void shouldResolveDifferentSpellingsOfAPageToOneLink() {
+        var links = uriUtil.resolveLinks("https://ibm.com/docs/index.html", null,
+                List.of("page.html#top", "page.html#", "HTTPS://IBM.com:443/docs/page.html",
+                        "/docs/a/../page.html", "page.html?utm_source=mail"),
+                "https://ibm.com");
+
+        assertThat(links, is(equalTo(Set.of("https://ibm.com/docs/page.html"))));
+    }
+
+    @Test
+    void shouldIgnoreBaseHrefOutOfScope() {
+        var links = uriUtil.extractLinks("https://ibm.com/x/index.html",
+                "<base href=\"https://evil.example/\"><a href=\"page.html\">x</a>", "https://ibm.com");
+
+        assertThat(links, is(equalTo(Set.of("https://ibm.com/x/page.html"))));
+    }
+
+    @Test
+    void shouldResolveAgainstBaseHrefInScope() {
+        var links = uriUtil.extractLinks("https://ibm.com/x/index.html",
+                "<base href=\"https://ibm.com/docs/\"><a href=\"page.html\">x</a>", "https://ibm.com");
+
+        assertThat(links, is(equalTo(Set.of("https://ibm.com/docs/page.html"))));
+    }
 }
@@ -0,0 +1,65 @@
+package com.axreng.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlCanonicalizerTest {
+
+    private final UrlCanonicalizer canonicalizer = new UrlCanonicalizer(true, "utm_*,gclid,fbclid");
+
+    @Test
+    void shouldReturnCanonicalUrlsUnchanged() {
+        var url = "https://ibm.com/docs/page.html?a=1&b=2";
+
+        assertSame(url, canonicalizer.canonicalize(url));
+    }
+
+    @Test
+    void shouldDropFragments() {
+        assertEquals("http://ibm.com/page.html", canonicalizer.canonicalize("http://ibm.com/page.html#top"));
+        assertEquals("http://ibm.com/page.html", canonicalizer.canonicalize("http://ibm.com/page.html#"));
+    }
+
+    @Test
+    void shouldLowercaseSchemeAndHostAndDropDefaultPorts() {
+        assertEquals("http://ibm.com/Page.html", canonicalizer.canonicalize("HTTP://IBM.com:80/Page.html"));
+        assertEquals("https://ibm.com/", canonicalizer.canonicalize("https://ibm.com:443"));
+        assertEquals("http://ibm.com:8080/", canonicalizer.canonicalize("http://ibm.com:8080/"));
+        assertEquals("http://user@[::1]:8080/", canonicalizer.canonicalize("http://user@[::1]:8080/"));
+    }
+
+    @Test
+    void shouldResolveDotSegments() {
+        assertEquals("http://ibm.com/page.html", canonicalizer.canonicalize("http://ibm.com/a/../page.html"));
+        assertEquals("http://ibm.com/a/page.html", canonicalizer.canonicalize("http://ibm.com/./a/./page.html"));
+        assertEquals("http://ibm.com/", canonicalizer.canonicalize("http://ibm.com/../.."));
+        assertEquals("http://ibm.com/a/", canonicalizer.canonicalize("http://ibm.com/a/b/.."));
+    }
+
+    @Test
+    void shouldNormalizePercentEscapes() {
+        assertEquals("http://ibm.com/~user/a%2Fb", canonicalizer.canonicalize("http://ibm.com/%7euser/a%2fb"));
+    }
+
+    @Test
+    void shouldSortQueryParametersAndStripTrackingOnes() {
+        assertEquals("http://ibm.com/p?a=1&b=2&b=1",
+                canonicalizer.canonicalize("http://ibm.com/p?b=2&utm_source=x&a=1&&b=1&GCLID=9"));
+        assertEquals("http://ibm.com/p", canonicalizer.canonicalize("http://ibm.com/p?utm_medium=email"));
+        assertEquals("http://ibm.com/p", canonicalizer.canonicalize("http://ibm.com/p?"));
+    }
+
+    @Test
+    void shouldKeepQueryOrderWhenSortingIsDisabled() {
+        var unsorted = new UrlCanonicalizer(false, "");
+
+        assertEquals("http://ibm.com/p?b=2&a=1", unsorted.canonicalize("http://ibm.com/p?b=2&a=1#x"));
+    }
+
+    @Test
+    void shouldLeaveNonHierarchicalUrlsAlone() {
+        assertEquals("mailto:user@ibm.com", canonicalizer.canonicalize("mailto:user@ibm.com"));
+        assertEquals("file:///tmp/x", canonicalizer.canonicalize("file:///tmp/x"));
+    }
+}
@@ -1,11 +1,118 @@
 package com.axreng.backend.util;
 
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class UrlFetcherTest {
 
+    private static HttpServer server;
+    private static String baseUrl;
+    private static final AtomicInteger cachedRequests = new AtomicInteger();
+    private static final AtomicInteger versionedDownloads = new AtomicInteger();
+    private static final AtomicInteger largeRequests = new AtomicInteger();
+    private static final AtomicInteger chunkedRequests = new AtomicInteger();
+    private static final int LARGE_PAGE_BYTES = (int) UrlFetcher.pageCache().getMaxEntryBytes() + 1024;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/page", exchange -> {
+            var body = "<html>hello</html>".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/moved", exchange -> {
+            exchange.getResponseHeaders().add("Location", "/page");
+            exchange.sendResponseHeaders(301, -1);
+            exchange.close();
+        });
+        server.createContext("/loop", exchange -> {
+            exchange.getResponseHeaders().add("Location", "/loop");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+        server.createContext("/cached", exchange -> {
+            cachedRequests.incrementAndGet();
+            var body = "<html>cached</html>".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/versioned", exchange -> {
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.getResponseHeaders().add("Last-Modified", "Wed, 21 Oct 2015 07:28:00 GMT");
+
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                versionedDownloads.incrementAndGet();
+                var body = "<html>versioned</html>".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        server.createContext("/large", exchange -> {
+            largeRequests.incrementAndGet();
+            var body = new byte[LARGE_PAGE_BYTES];
+            Arrays.fill(body, (byte) 'a');
+            exchange.sendResponseHeaders(200, 0);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/chunked", exchange -> {
+            chunkedRequests.incrementAndGet();
+            exchange.sendResponseHeaders(200, 0);
+            exchange.getResponseBody().write("<html>chunked</html>".getBytes(StandardCharsets.UTF_8));
+            exchange.close();
+        });
+        server.createContext("/gzip", exchange -> {
+            var html = "<html>compressed <a href=\"/page\">page</a></html>".getBytes(StandardCharsets.UTF_8);
+            var acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+
+            if (acceptEncoding == null || !acceptEncoding.contains("gzip")) {
+                exchange.sendResponseHeaders(406, -1);
+                exchange.close();
+                return;
+            }
+
+            var compressed = new ByteArrayOutputStream();
+            try (var gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(html);
+            }
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, compressed.size());
+            exchange.getResponseBody().write(compressed.toByteArray());
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
 
     @Test
     void shouldReturnNullForInvalidUrl() {
@@ -13,4 +120,108 @@ class UrlFetcherTest {
         assertNull(content);
     }
 
+    @Test
+    void shouldFetchContent() {
+        assertEquals("<html>hello</html>", UrlFetcher.fetchContent(baseUrl + "/page"));
+    }
+
+    @Test
+    void shouldFollowRedirects() {
+        assertEquals("<html>hello</html>", UrlFetcher.fetchContentAsync(baseUrl + "/moved").join());
+    }
+
+    @Test
+    void shouldStopFollowingRedirectLoops() {
+        assertNull(UrlFetcher.fetchContent(baseUrl + "/loop"));
+    }
+
+    @Test
+    void shouldReturnNullForMissingPage() {
+        assertNull(UrlFetcher.fetchContent(baseUrl + "/missing"));
+    }
+
+    @Test
+    void shouldFetchRepeatedPagesOnce() {
+        UrlFetcher.BodyReader<String> reader = (body, charset) -> new String(body.readAllBytes(), charset);
+
+        var first = UrlFetcher.fetchAsync(baseUrl + "/cached", reader, Runnable::run);
+        var second = UrlFetcher.fetchAsync(baseUrl + "/cached", reader, Runnable::run);
+        var third = UrlFetcher.fetchAsync(baseUrl + "/cached#section", reader, Runnable::run);
+
+        assertEquals("<html>cached</html>", first.join());
+        assertEquals("<html>cached</html>", second.join());
+        assertEquals("<html>cached</html>", third.join());
+        assertEquals(1, cachedRequests.get());
+    }
+
+    @Test
+    void shouldReuseTheStaleBodyWhenTheServerAnswersNotModified() {
+        var page = UrlFetcher.fetchPage(baseUrl + "/versioned", null).join();
+
+        assertEquals("\"v1\"", page.getEtag());
+        assertEquals("Wed, 21 Oct 2015 07:28:00 GMT", page.getLastModified());
+
+        var revalidated = UrlFetcher.fetchPage(baseUrl + "/versioned", page).join();
+
+        assertSame(page.getBody(), revalidated.getBody());
+        assertTrue(revalidated.getFetchedAt() >= page.getFetchedAt());
+        assertEquals(1, versionedDownloads.get());
+    }
+
+    @Test
+    void shouldAskForCompressionAndInflateTheBody() {
+        assertEquals("<html>compressed <a href=\"/page\">page</a></html>", UrlFetcher.fetchContent(baseUrl + "/gzip"));
+
+        var scanner = new PageScanner(new KeywordMatcher("compressed"));
+        var result = UrlFetcher.fetchAsync(baseUrl + "/gzip", scanner::scan, Runnable::run).join();
+
+        assertTrue(result.isMatched());
+        assertEquals(Set.of("/page"), result.getHrefs());
+    }
+
+    @Test
+    void shouldStreamPagesTooLargeToCacheWithoutKeepingThem() {
+        UrlFetcher.BodyReader<Long> reader = (body, charset) -> body.transferTo(OutputStream.nullOutputStream());
+
+        assertEquals(LARGE_PAGE_BYTES, UrlFetcher.fetchAsync(baseUrl + "/large", reader, Runnable::run).join());
+        assertEquals(LARGE_PAGE_BYTES, UrlFetcher.fetchAsync(baseUrl + "/large", reader, Runnable::run).join());
+        assertEquals(2, largeRequests.get());
+    }
+
+    @Test
+    void shouldCachePagesWithoutContentLength() {
+        UrlFetcher.BodyReader<String> reader = (body, charset) -> new String(body.readAllBytes(), charset);
+
+        assertEquals("<html>chunked</html>", UrlFetcher.fetchAsync(baseUrl + "/chunked", reader, Runnable::run).join());
+        assertEquals("<html>chunked</html>", UrlFetcher.fetchAsync(baseUrl + "/chunked", reader, Runnable::run).join());
+        assertEquals(1, chunkedRequests.get());
+    }
+
+    @Test
+    void shouldCompleteWithNullWhenTheReaderFails() {
+        UrlFetcher.BodyReader<String> reader = (body, charset) -> {
+            throw new IllegalStateException("scanner bug");
+        };
+
+        assertNull(UrlFetcher.fetchAsync(baseUrl + "/page", reader, Runnable::run).join());
+    }
+
+    @Test
+    void shouldCompleteWithNullWhenTheExecutorRejectsTheReader() {
+        UrlFetcher.BodyReader<String> reader = (body, charset) -> new String(body.readAllBytes(), charset);
+        Executor rejecting = task -> {
+            throw new RejectedExecutionException("full");
+        };
+
+        assertNull(UrlFetcher.fetchAsync(baseUrl + "/page?rejected", reader, rejecting).join());
+        assertEquals(0, UrlFetcher.hostScheduler().getInFlight());
+    }
+
+    @Test
+    void shouldReleaseTheHostSlotOnceTheBodyIsClosed() {
+        UrlFetcher.BodyReader<String> unread = (body, charset) -> "not read";
+
+        assertEquals("not read", UrlFetcher.fetchAsync(baseUrl + "/page?unread", unread, Runnable::run).join());
+        assertEquals(0, UrlFetcher.hostScheduler().getInFlight());
+    }
 }